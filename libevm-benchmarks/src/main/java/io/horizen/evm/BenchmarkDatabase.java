@@ -0,0 +1,39 @@
+package io.horizen.evm;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+
+/**
+ * Database used by a benchmark, LevelDB databases are created in a temporary directory that is deleted on close.
+ */
+final class BenchmarkDatabase implements AutoCloseable {
+    final Database db;
+    private final Path directory;
+
+    BenchmarkDatabase(String type) throws IOException {
+        switch (type) {
+            case "memory":
+                directory = null;
+                db = new MemoryDatabase();
+                break;
+            case "leveldb":
+                directory = Files.createTempDirectory("libevm-benchmark");
+                db = new LevelDBDatabase(directory.toString());
+                break;
+            default:
+                throw new IllegalArgumentException("unknown database type: " + type);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        db.close();
+        if (directory != null) {
+            try (var files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package io.horizen.evm;
+
+import io.horizen.evm.results.InvocationResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of callbacks from libevm to Java, measured via the BLOCKHASH opcode: the hash is either requested from a
+ * BlockHashCallback for every execution or served from the native block hash cache.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CallbackBenchmark {
+    private static final BigInteger BLOCK_NUMBER = BigInteger.valueOf(1000);
+
+    private final Address sender = Contracts.address(0);
+
+    private MemoryDatabase db;
+    private StateDB statedb;
+    private BlockHashCallback callback;
+    private EvmContext callbackContext;
+    private EvmContext cachedContext;
+    private Address contract;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        db = new MemoryDatabase();
+        statedb = new StateDB(db, Hash.ZERO);
+        callback = new BlockHashCallback() {
+            @Override
+            protected Hash getBlockHash(BigInteger blockNumber) {
+                return Contracts.hash(blockNumber.longValue());
+            }
+        };
+        callbackContext = context();
+        callbackContext.setBlockHashCallback(callback);
+        cachedContext = context();
+        cachedContext.setBlockHashes(new Hash[] { Contracts.hash(BLOCK_NUMBER.longValue() - 1) });
+        contract = Evm.Apply(statedb, Contracts.deploy(sender, Contracts.OPCODES), new EvmContext()).contractAddress;
+    }
+
+    private static EvmContext context() {
+        return new EvmContext(
+            BigInteger.ZERO,
+            Address.ZERO,
+            BigInteger.ZERO,
+            BigInteger.ZERO,
+            BLOCK_NUMBER,
+            BigInteger.ZERO,
+            BigInteger.ZERO,
+            Hash.ZERO,
+            new ForkRules(true)
+        );
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        callback.close();
+        statedb.close();
+        db.close();
+    }
+
+    @Benchmark
+    public InvocationResult blockHashCallback() {
+        return Evm.Apply(statedb, Contracts.call(sender, contract, null, Contracts.OPCODES_BLOCKHASH), callbackContext);
+    }
+
+    @Benchmark
+    public InvocationResult blockHashCached() {
+        return Evm.Apply(statedb, Contracts.call(sender, contract, null, Contracts.OPCODES_BLOCKHASH), cachedContext);
+    }
+}
@@ -0,0 +1,61 @@
+package io.horizen.evm;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Commit of a state with the given number of modified accounts, each with a modified balance and storage slot. Every
+ * invocation builds on the root committed by the previous one, so the trie grows during the benchmark.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommitBenchmark {
+    @Param({ "memory", "leveldb" })
+    public String database;
+
+    @Param({ "10", "100", "1000" })
+    public int dirtyAccounts;
+
+    private BenchmarkDatabase db;
+    private Hash root = Hash.ZERO;
+    private StateDB statedb;
+    private long round;
+
+    @Setup(Level.Trial)
+    public void setupDatabase() throws Exception {
+        db = new BenchmarkDatabase(database);
+    }
+
+    @Setup(Level.Invocation)
+    public void modifyState() {
+        round++;
+        statedb = new StateDB(db.db, root);
+        for (int i = 0; i < dirtyAccounts; i++) {
+            var address = Contracts.address(i);
+            statedb.setBalance(address, BigInteger.valueOf(round));
+            statedb.setStorage(address, Contracts.hash(round), Contracts.hash(i + 1));
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeState() throws Exception {
+        statedb.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void closeDatabase() throws Exception {
+        db.close();
+    }
+
+    @Benchmark
+    public Hash commit() {
+        root = statedb.commit();
+        return root;
+    }
+}
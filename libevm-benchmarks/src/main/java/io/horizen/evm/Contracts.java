@@ -0,0 +1,113 @@
+package io.horizen.evm;
+
+import java.math.BigInteger;
+
+/**
+ * Contracts and helpers shared by all benchmarks.
+ */
+final class Contracts {
+    private Contracts() { }
+
+    /**
+     * Compiled Storage.sol from native/test, the constructor expects the initial value as a 32-byte argument.
+     */
+    static final byte[] STORAGE = Converter.fromHexString(
+        "608060405234801561001057600080fd5b5060405161023638038061023683398101604081905261002f916100f6565b60008190"
+            + "55604051339060008051602061021683398151915290610073906020808252600c908201526b48656c6c6f20576f726c642160a0"
+            + "1b604082015260600190565b60405180910390a2336001600160a01b03166000805160206102168339815191526040516100bf90"
+            + "6020808252600a908201526948656c6c6f2045564d2160b01b604082015260600190565b60405180910390a26040517ffe1a3ad1"
+            + "1e425db4b8e6af35d11c50118826a496df73006fc724cb27f2b9994690600090a15061010f565b60006020828403121561010857"
+            + "600080fd5b5051919050565b60f98061011d6000396000f3fe60806040526004361060305760003560e01c80632e64cec1146035"
+            + "578063371303c01460565780636057361d14606a575b600080fd5b348015604057600080fd5b5060005460405190815260200160"
+            + "405180910390f35b348015606157600080fd5b506068607a565b005b606860753660046086565b600055565b6000546075906001"
+            + "609e565b600060208284031215609757600080fd5b5035919050565b6000821982111560be57634e487b7160e01b600052601160"
+            + "045260246000fd5b50019056fea2646970667358221220769e4dd8320afae06d27e8e201c885728883af2ea321d02071c47704c1"
+            + "b3c24f64736f6c634300080e00330738f4da267a110d810e6e89fc59e46be6de0c37b1d5cd559b267dc3688e74e0");
+
+    static final byte[] STORAGE_STORE = Converter.fromHexString("6057361d");
+    static final byte[] STORAGE_RETRIEVE = Converter.fromHexString("2e64cec1");
+
+    /**
+     * Compiled OpCodes.sol from native/test.
+     */
+    static final byte[] OPCODES = Converter.fromHexString(
+        "608060405234801561001057600080fd5b50610157806100206000396000f3fe608060405234801561001057600080fd5b506004"
+            + "36106100935760003560e01c8063557ed1ba11610066578063557ed1ba146100bf578063564b81ef146100c55780639663f88f14"
+            + "6100cb578063aacc5a17146100d3578063d1a82a9d146100d957600080fd5b806315e812ad146100985780631a93d1c3146100ad"
+            + "57806342cbb15c146100b3578063455259cb146100b9575b600080fd5b485b6040519081526020015b60405180910390f35b4561"
+            + "009a565b4361009a565b3a61009a565b4261009a565b4661009a565b61009a6100e7565b4461009a565b60405141815260200161"
+            + "00a4565b60006100f46001436100fa565b40905090565b8181038181111561011b57634e487b7160e01b60005260116004526024"
+            + "6000fd5b9291505056fea2646970667358221220a629106cbdbc0017022eedc70f72757902db9dc7881e188747a544aaa638345d"
+            + "64736f6c63430008120033");
+
+    static final byte[] OPCODES_BLOCKHASH = Converter.fromHexString("9663f88f");
+
+    /**
+     * Minimal token with the storage access pattern of an ERC-20 transfer: the deployer receives 2^64-1 tokens and
+     * the calldata of a transfer is the 32-byte recipient followed by the 32-byte amount. The balance of an account is
+     * stored in the slot equal to its address, a transfer reads and writes the balance of the sender and the
+     * recipient, or reverts if the balance of the sender is insufficient. Hand-assembled to avoid the need for a
+     * Solidity compiler:
+     * <pre>
+     * constructor: PUSH8 0xffffffffffffffff CALLER SSTORE PUSH1 0x1f DUP1 PUSH1 0x16 PUSH1 0 CODECOPY PUSH1 0 RETURN
+     * runtime:     PUSH1 0x20 CALLDATALOAD CALLER SLOAD DUP2 DUP2 LT PUSH1 0x1a JUMPI
+     *              DUP2 SWAP1 SUB CALLER SSTORE
+     *              PUSH1 0 CALLDATALOAD DUP1 SLOAD DUP3 ADD SWAP1 SSTORE STOP
+     *              JUMPDEST PUSH1 0 DUP1 REVERT
+     * </pre>
+     */
+    static final byte[] TOKEN = Converter.fromHexString(
+        "67ffffffffffffffff3355601f8060166000396000f3"
+            + "6020353354818110601a578190033355600035805482019055005b600080fd");
+
+    static byte[] tokenTransfer(Address to, long amount) {
+        return concat(pad(to.toBytes()), pad(BigInteger.valueOf(amount).toByteArray()));
+    }
+
+    static byte[] storageDeploy(long initialValue) {
+        return concat(STORAGE, pad(BigInteger.valueOf(initialValue).toByteArray()));
+    }
+
+    static byte[] storageStore(long value) {
+        return concat(STORAGE_STORE, pad(BigInteger.valueOf(value).toByteArray()));
+    }
+
+    static Address address(int index) {
+        var bytes = new byte[Address.LENGTH];
+        bytes[0] = (byte) 0xaa;
+        bytes[Address.LENGTH - 4] = (byte) (index >>> 24);
+        bytes[Address.LENGTH - 3] = (byte) (index >>> 16);
+        bytes[Address.LENGTH - 2] = (byte) (index >>> 8);
+        bytes[Address.LENGTH - 1] = (byte) index;
+        return new Address(bytes);
+    }
+
+    static Hash hash(long value) {
+        return new Hash(pad(BigInteger.valueOf(value).toByteArray()));
+    }
+
+    static Invocation call(Address from, Address to, BigInteger value, byte[] input) {
+        return new Invocation(from, to, value, input, 1_000_000, false);
+    }
+
+    static Invocation deploy(Address from, byte[] code) {
+        return new Invocation(from, null, null, code, 1_000_000, false);
+    }
+
+    static byte[] concat(byte[] a, byte[] b) {
+        var merged = new byte[a.length + b.length];
+        System.arraycopy(a, 0, merged, 0, a.length);
+        System.arraycopy(b, 0, merged, a.length, b.length);
+        return merged;
+    }
+
+    /**
+     * Left-pad the given big-endian value to 32 bytes, a leading sign byte of BigInteger.toByteArray() is dropped.
+     */
+    static byte[] pad(byte[] value) {
+        var padded = new byte[Hash.LENGTH];
+        var length = Math.min(value.length, Hash.LENGTH);
+        System.arraycopy(value, value.length - length, padded, Hash.LENGTH - length, length);
+        return padded;
+    }
+}
@@ -0,0 +1,55 @@
+package io.horizen.evm;
+
+import io.horizen.evm.params.EvmParams;
+import io.horizen.evm.results.InvocationResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the JSON serialization done for every call into libevm, without the native call itself.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConverterBenchmark {
+    private EvmParams params;
+    private String resultJson;
+    private Hash hash;
+    private String hashJson;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        var invocation = Contracts.call(
+            Contracts.address(1), Contracts.address(2), BigInteger.TEN, Contracts.tokenTransfer(Contracts.address(3), 1));
+        params = new EvmParams(1, invocation, new EvmContext());
+        var result = new InvocationResult(new byte[32], BigInteger.valueOf(21000), "", false, null);
+        resultJson = Converter.toJson(result);
+        hash = Contracts.hash(0xc0ffee);
+        hashJson = Converter.toJson(hash);
+    }
+
+    @Benchmark
+    public String serializeEvmParams() {
+        return Converter.toJson(params);
+    }
+
+    @Benchmark
+    public InvocationResult deserializeInvocationResult() {
+        return Converter.fromJson(resultJson, InvocationResult.class);
+    }
+
+    @Benchmark
+    public String serializeHash() {
+        return Converter.toJson(hash);
+    }
+
+    @Benchmark
+    public Hash deserializeHash() {
+        return Converter.fromJson(hashJson, Hash.class);
+    }
+}
@@ -0,0 +1,86 @@
+package io.horizen.evm;
+
+import io.horizen.evm.results.InvocationResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evm.Apply for typical transactions on an in-memory state, including the JSON round trip of every call. Each
+ * benchmark keeps applying to the same state, changes are never committed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EvmApplyBenchmark {
+    private static final int RECIPIENTS = 1000;
+
+    private final Address sender = Contracts.address(0);
+    private final Address[] recipients = new Address[RECIPIENTS];
+
+    private MemoryDatabase db;
+    private StateDB statedb;
+    private EvmContext context;
+    private Address token;
+    private Address storage;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        db = new MemoryDatabase();
+        statedb = new StateDB(db, Hash.ZERO);
+        statedb.setBalance(sender, BigInteger.TEN.pow(30));
+        context = new EvmContext();
+        for (int i = 0; i < RECIPIENTS; i++) {
+            recipients[i] = Contracts.address(i + 1);
+        }
+        token = deploy(Contracts.TOKEN).contractAddress;
+        storage = deploy(Contracts.storageDeploy(1)).contractAddress;
+    }
+
+    private InvocationResult deploy(byte[] code) {
+        // the nonce is incremented by the SDK before every transaction, contract addresses depend on it
+        statedb.setNonce(sender, statedb.getNonceLong(sender) + 1);
+        return Evm.Apply(statedb, Contracts.deploy(sender, code), context);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        statedb.close();
+        db.close();
+    }
+
+    private Address nextRecipient() {
+        next = (next + 1) % RECIPIENTS;
+        return recipients[next];
+    }
+
+    @Benchmark
+    public InvocationResult transfer() {
+        return Evm.Apply(statedb, Contracts.call(sender, nextRecipient(), BigInteger.ONE, null), context);
+    }
+
+    @Benchmark
+    public InvocationResult tokenTransfer() {
+        return Evm.Apply(statedb, Contracts.call(sender, token, null, Contracts.tokenTransfer(nextRecipient(), 1)), context);
+    }
+
+    @Benchmark
+    public InvocationResult storageStore() {
+        return Evm.Apply(statedb, Contracts.call(sender, storage, null, Contracts.storageStore(next++)), context);
+    }
+
+    @Benchmark
+    public InvocationResult storageRetrieve() {
+        return Evm.Apply(statedb, Contracts.call(sender, storage, null, Contracts.STORAGE_RETRIEVE), context);
+    }
+
+    @Benchmark
+    public InvocationResult storageDeploy() {
+        return deploy(Contracts.storageDeploy(1));
+    }
+}
@@ -0,0 +1,189 @@
+package io.horizen.evm;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Replays a recorded workload, see {@link Workload}, block by block on a LevelDB database: every transaction is applied
+ * via {@link Evm#Apply} the same way the SDK does during block import and the state is committed after each block.
+ * The state root after every block is compared to the expected root of the workload, the replay fails on mismatch.
+ * Reports throughput in blocks, transactions and gas per second, the distribution of the latency per transaction and
+ * the commit time. Synthetic workloads can be created with the {@link WorkloadGenerator}.
+ * <p>
+ * Usage: {@code ReplayHarness <workload file> [database directory] [--warmup <blocks>] [--json <result file>]}
+ * <p>
+ * If no database directory is given a temporary directory is used and deleted afterwards. The first warmup blocks are
+ * executed and verified, but excluded from the results.
+ */
+public final class ReplayHarness {
+    private final Database db;
+    private final int warmup;
+
+    private int blocks;
+    private long transactions;
+    private long failed;
+    private long gasUsed;
+    private long elapsed;
+    private long[] latencies = new long[1024];
+    private long[] commits = new long[64];
+
+    private ReplayHarness(Database db, int warmup) {
+        this.db = db;
+        this.warmup = warmup;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path workload = null;
+        Path directory = null;
+        Path json = null;
+        var warmup = 0;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--warmup":
+                    warmup = Integer.parseInt(args[++i]);
+                    break;
+                case "--json":
+                    json = Path.of(args[++i]);
+                    break;
+                default:
+                    if (workload == null) {
+                        workload = Path.of(args[i]);
+                    } else if (directory == null) {
+                        directory = Path.of(args[i]);
+                    } else {
+                        usage();
+                    }
+            }
+        }
+        if (workload == null) {
+            usage();
+        }
+        var temporary = directory == null;
+        if (temporary) {
+            directory = Files.createTempDirectory("libevm-replay");
+        }
+        Map<String, Object> results = null;
+        try (var db = new LevelDBDatabase(directory.toString())) {
+            results = new ReplayHarness(db, warmup).replay(workload);
+        } catch (IllegalStateException e) {
+            System.err.println(e.getMessage());
+        } finally {
+            if (temporary) {
+                delete(directory);
+            }
+        }
+        if (results == null) {
+            System.exit(1);
+        }
+        results.forEach((key, value) -> System.out.printf("%-20s %s%n", key, value));
+        if (json != null) {
+            Files.writeString(json, Converter.toJson(results));
+        }
+    }
+
+    private static void usage() {
+        System.err.println(
+            "usage: ReplayHarness <workload file> [database directory] [--warmup <blocks>] [--json <result file>]");
+        System.exit(2);
+    }
+
+    private Map<String, Object> replay(Path workload) throws Exception {
+        try (var reader = Files.newBufferedReader(workload)) {
+            var header = Workload.readHeader(reader);
+            var root = Workload.genesis(db, header.alloc);
+            verify("genesis", header.genesisRoot, root);
+            Workload.Block block;
+            for (int number = 0; (block = Workload.readBlock(reader)) != null; number++) {
+                root = replay(root, block, number >= warmup);
+            }
+        }
+        return results();
+    }
+
+    private Hash replay(Hash root, Workload.Block block, boolean measure) throws Exception {
+        var context = block.context();
+        var start = System.nanoTime();
+        Hash committed;
+        try (var statedb = new StateDB(db, root)) {
+            for (var tx : block.transactions) {
+                var txStart = System.nanoTime();
+                var result = Workload.apply(statedb, context, tx);
+                var latency = System.nanoTime() - txStart;
+                if (measure) {
+                    latencies = record(latencies, transactions++, latency);
+                    gasUsed += tx.gas.subtract(result.leftOverGas).longValueExact();
+                    if (result.executionError != null && !result.executionError.isEmpty()) {
+                        failed++;
+                    }
+                }
+            }
+            var commitStart = System.nanoTime();
+            committed = statedb.commit();
+            if (measure) {
+                commits = record(commits, blocks++, System.nanoTime() - commitStart);
+                elapsed += System.nanoTime() - start;
+            }
+        }
+        verify("block " + block.number, block.expectedRoot, committed);
+        return committed;
+    }
+
+    private static void verify(String name, Hash expected, Hash actual) {
+        if (expected != null && !expected.equals(actual)) {
+            throw new IllegalStateException(
+                String.format("state root mismatch after %s: expected %s got %s", name, expected, actual));
+        }
+    }
+
+    private static long[] record(long[] values, long index, long value) {
+        if (index >= values.length) {
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+        values[(int) index] = value;
+        return values;
+    }
+
+    private Map<String, Object> results() {
+        var seconds = elapsed / 1e9;
+        var txLatencies = Arrays.copyOf(latencies, (int) transactions);
+        var commitTimes = Arrays.copyOf(commits, blocks);
+        Arrays.sort(txLatencies);
+        Arrays.sort(commitTimes);
+        var results = new LinkedHashMap<String, Object>();
+        results.put("blocks", blocks);
+        results.put("transactions", transactions);
+        results.put("failedTransactions", failed);
+        results.put("gasUsed", gasUsed);
+        results.put("seconds", seconds);
+        results.put("blocksPerSecond", blocks / seconds);
+        results.put("txPerSecond", transactions / seconds);
+        results.put("gasPerSecond", gasUsed / seconds);
+        results.put("txLatencyP50Micros", percentile(txLatencies, 0.5) / 1000);
+        results.put("txLatencyP99Micros", percentile(txLatencies, 0.99) / 1000);
+        results.put("txLatencyMaxMicros", percentile(txLatencies, 1) / 1000);
+        results.put("commitAvgMillis", blocks == 0 ? 0 : Arrays.stream(commitTimes).average().orElse(0) / 1e6);
+        results.put("commitP50Millis", percentile(commitTimes, 0.5) / 1e6);
+        results.put("commitP99Millis", percentile(commitTimes, 0.99) / 1e6);
+        return results;
+    }
+
+    /**
+     * Nearest-rank percentile of the given sorted values.
+     */
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        var rank = (int) Math.ceil(p * sorted.length);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (var files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package io.horizen.evm;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop scalability benchmark: 1..N threads each run a mix of StateDB reads, Evm.Apply calls and calls that
+ * trigger a callback to Java as fast as possible, either on a database per thread ("independent") or all on the same
+ * database ("shared"). For every number of threads the throughput is reported along with a contention profile:
+ * <ul>
+ *     <li>time Java threads were blocked on monitors, e.g. the monitor of the callback registry</li>
+ *     <li>time goroutines waited for mutexes inside libevm, e.g. the locks of the native handle tables</li>
+ *     <li>time spent in native calls as seen from Java compared to the time spent inside libevm, the difference is
+ *     the overhead of JNA, string conversion and the Go runtime</li>
+ * </ul>
+ * <p>
+ * Usage: {@code ScalabilityBenchmark [--threads 1,2,4,8] [--mix reads,applies,callbacks] [--duration <seconds>]
+ * [--warmup <seconds>] [--mode independent|shared|both] [--database memory|leveldb] [--json <result file>]}
+ */
+public final class ScalabilityBenchmark {
+    private static final int ACCOUNTS = 1000;
+    private static final int OPS_PER_STATE = 1000;
+    private static final BigInteger BLOCK_NUMBER = BigInteger.valueOf(1000);
+
+    private static final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    private final int[] mix;
+    private final String database;
+    private final LongAdder reads = new LongAdder();
+    private final LongAdder applies = new LongAdder();
+    private final LongAdder callbacks = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private volatile boolean running;
+
+    private ScalabilityBenchmark(int[] mix, String database) {
+        this.mix = mix;
+        this.database = database;
+    }
+
+    public static void main(String[] args) throws Exception {
+        var maxThreads = 2 * Runtime.getRuntime().availableProcessors();
+        var threadCounts = new ArrayList<Integer>();
+        for (int n = 1; n <= maxThreads; n *= 2) {
+            threadCounts.add(n);
+        }
+        var mix = new int[] { 60, 30, 10 };
+        var duration = 10;
+        var warmup = 3;
+        var modes = List.of("independent", "shared");
+        var database = "memory";
+        Path json = null;
+        for (int i = 0; i < args.length; i++) {
+            if (i + 1 >= args.length) usage();
+            var value = args[++i];
+            switch (args[i - 1]) {
+                case "--threads":
+                    threadCounts.clear();
+                    for (var n : value.split(",")) threadCounts.add(Integer.parseInt(n));
+                    break;
+                case "--mix":
+                    var parts = value.split(",");
+                    if (parts.length != 3) usage();
+                    for (int j = 0; j < 3; j++) mix[j] = Integer.parseInt(parts[j]);
+                    break;
+                case "--duration":
+                    duration = Integer.parseInt(value);
+                    break;
+                case "--warmup":
+                    warmup = Integer.parseInt(value);
+                    break;
+                case "--mode":
+                    modes = value.equals("both") ? List.of("independent", "shared") : List.of(value);
+                    break;
+                case "--database":
+                    database = value;
+                    break;
+                case "--json":
+                    json = Path.of(value);
+                    break;
+                default:
+                    usage();
+            }
+        }
+        if (threads.isThreadContentionMonitoringSupported()) {
+            threads.setThreadContentionMonitoringEnabled(true);
+        }
+
+        var benchmark = new ScalabilityBenchmark(mix, database);
+        var results = new ArrayList<Map<String, Object>>();
+        System.out.printf(
+            "%-12s %7s %12s %8s %10s %10s %12s %12s %12s %12s %9s%n",
+            "mode", "threads", "ops/s", "speedup", "efficiency", "blocked", "blocked ms", "mutex ms",
+            "native ms", "libevm ms", "gc cycles");
+        for (var mode : modes) {
+            double baseline = 0;
+            for (var n : threadCounts) {
+                var result = benchmark.run(mode, n, warmup, duration);
+                var throughput = (double) result.get("opsPerSecond");
+                if (baseline == 0) {
+                    baseline = throughput / n;
+                }
+                result.put("speedup", throughput / baseline);
+                result.put("efficiency", throughput / (baseline * n));
+                results.add(result);
+                System.out.printf(
+                    "%-12s %7d %12.0f %8.2f %10.2f %10d %12d %12.1f %12.1f %12.1f %9d%n",
+                    mode, n, throughput, result.get("speedup"), result.get("efficiency"),
+                    result.get("blockedCount"), result.get("blockedMillis"), result.get("mutexWaitMillis"),
+                    result.get("nativeCallMillis"), result.get("libevmMillis"), result.get("gcCycles"));
+            }
+        }
+        if (json != null) {
+            Files.writeString(json, Converter.toJson(results));
+        }
+    }
+
+    private static void usage() {
+        System.err.println("usage: ScalabilityBenchmark [--threads 1,2,4,8] [--mix reads,applies,callbacks] "
+            + "[--duration <seconds>] [--warmup <seconds>] [--mode independent|shared|both] "
+            + "[--database memory|leveldb] [--json <result file>]");
+        System.exit(2);
+    }
+
+    /**
+     * State shared by all workers using the same database: funded accounts, a token with balances and the OpCodes
+     * contract, committed to the database.
+     */
+    private static final class Fixture implements AutoCloseable {
+        final BenchmarkDatabase db;
+        final Address[] accounts = new Address[ACCOUNTS];
+        final Address token;
+        final Address opcodes;
+        final Hash root;
+
+        Fixture(String type) throws Exception {
+            db = new BenchmarkDatabase(type);
+            var deployer = Contracts.address(0);
+            var context = new EvmContext();
+            try (var statedb = new StateDB(db.db, Hash.ZERO)) {
+                statedb.setBalance(deployer, BigInteger.TEN.pow(30));
+                for (int i = 0; i < ACCOUNTS; i++) {
+                    accounts[i] = Contracts.address(i + 1);
+                    statedb.setBalance(accounts[i], BigInteger.TEN.pow(30));
+                }
+                statedb.setNonce(deployer, 1);
+                token = Evm.Apply(statedb, Contracts.deploy(deployer, Contracts.TOKEN), context).contractAddress;
+                statedb.setNonce(deployer, 2);
+                opcodes = Evm.Apply(statedb, Contracts.deploy(deployer, Contracts.OPCODES), context).contractAddress;
+                for (var account : accounts) {
+                    var transfer = Contracts.tokenTransfer(account, 1_000_000_000);
+                    Evm.Apply(statedb, Contracts.call(deployer, token, null, transfer), context);
+                }
+                root = statedb.commit();
+            }
+        }
+
+        @Override
+        public void close() throws Exception {
+            db.close();
+        }
+    }
+
+    private final class Worker extends Thread implements AutoCloseable {
+        private final Fixture fixture;
+        private final Address sender;
+        private final Random random;
+        private final EvmContext context;
+        private final EvmContext callbackContext;
+        private final BlockHashCallback callback;
+        private StateDB statedb;
+        private int ops;
+
+        Worker(Fixture fixture, int index) {
+            this.fixture = fixture;
+            sender = fixture.accounts[index % ACCOUNTS];
+            random = new Random(index);
+            context = blockContext();
+            callback = new BlockHashCallback() {
+                @Override
+                protected Hash getBlockHash(BigInteger blockNumber) {
+                    return Contracts.hash(blockNumber.longValue());
+                }
+            };
+            callbackContext = blockContext();
+            callbackContext.setBlockHashCallback(callback);
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    // changes are never committed, start over regularly to limit the size of the state journal
+                    if (statedb == null || ops++ % OPS_PER_STATE == 0) {
+                        if (statedb != null) statedb.close();
+                        statedb = new StateDB(fixture.db.db, fixture.root);
+                    }
+                    var account = fixture.accounts[random.nextInt(ACCOUNTS)];
+                    var kind = random.nextInt(mix[0] + mix[1] + mix[2]);
+                    if (kind < mix[0]) {
+                        statedb.getBalance(account);
+                        statedb.getStorage(fixture.token, new Hash(Contracts.pad(account.toBytes())));
+                        reads.increment();
+                    } else if (kind < mix[0] + mix[1]) {
+                        var transfer = Contracts.tokenTransfer(account, 1);
+                        Evm.Apply(statedb, Contracts.call(sender, fixture.token, null, transfer), context);
+                        applies.increment();
+                    } else {
+                        var call = Contracts.call(sender, fixture.opcodes, null, Contracts.OPCODES_BLOCKHASH);
+                        Evm.Apply(statedb, call, callbackContext);
+                        callbacks.increment();
+                    }
+                }
+            } catch (Exception e) {
+                errors.increment();
+                e.printStackTrace();
+            }
+        }
+
+        @Override
+        public void close() throws Exception {
+            join();
+            if (statedb != null) statedb.close();
+            callback.close();
+        }
+    }
+
+    private static EvmContext blockContext() {
+        return new EvmContext(
+            BigInteger.ZERO,
+            Address.ZERO,
+            BigInteger.ZERO,
+            BigInteger.ZERO,
+            BLOCK_NUMBER,
+            BigInteger.ZERO,
+            BigInteger.ZERO,
+            Hash.ZERO,
+            new ForkRules(true)
+        );
+    }
+
+    private Map<String, Object> run(String mode, int n, int warmup, int duration) throws Exception {
+        var fixtures = new ArrayList<Fixture>();
+        var workers = new ArrayList<Worker>();
+        try {
+            for (int i = 0; i < n; i++) {
+                if (i == 0 || mode.equals("independent")) {
+                    fixtures.add(new Fixture(database));
+                }
+                workers.add(new Worker(fixtures.get(fixtures.size() - 1), i));
+            }
+            running = true;
+            workers.forEach(Thread::start);
+            Thread.sleep(warmup * 1000L);
+
+            reads.reset();
+            applies.reset();
+            callbacks.reset();
+            errors.reset();
+            LibEvmMetrics.reset();
+            var blockedBefore = blocked(workers);
+            var runtimeBefore = LibEvmMetrics.runtimeStats();
+            var start = System.nanoTime();
+            Thread.sleep(duration * 1000L);
+
+            var elapsed = (System.nanoTime() - start) / 1e9;
+            var ops = reads.sum() + applies.sum() + callbacks.sum();
+            var blockedAfter = blocked(workers);
+            var runtimeAfter = LibEvmMetrics.runtimeStats();
+            var metrics = LibEvmMetrics.snapshot();
+            running = false;
+
+            long nativeCall = 0;
+            long libevm = 0;
+            for (var method : metrics.methods.values()) {
+                nativeCall += method.nativeCall.sum;
+                if (method.execution != null) {
+                    // recorded by libevm in microseconds
+                    libevm += method.execution.latency.sum * 1000;
+                }
+            }
+            var result = new LinkedHashMap<String, Object>();
+            result.put("mode", mode);
+            result.put("threads", n);
+            result.put("database", database);
+            result.put("ops", ops);
+            result.put("reads", reads.sum());
+            result.put("applies", applies.sum());
+            result.put("callbacks", callbacks.sum());
+            result.put("errors", errors.sum());
+            result.put("opsPerSecond", ops / elapsed);
+            result.put("blockedCount", blockedAfter[0] - blockedBefore[0]);
+            result.put("blockedMillis", blockedAfter[1] - blockedBefore[1]);
+            result.put("mutexWaitMillis", (runtimeAfter.mutexWaitTime - runtimeBefore.mutexWaitTime) / 1e6);
+            result.put("nativeCallMillis", nativeCall / 1e6);
+            result.put("libevmMillis", libevm / 1e6);
+            result.put("gcCycles", runtimeAfter.gcCycles - runtimeBefore.gcCycles);
+            result.put("cgoCalls", runtimeAfter.cgoCalls - runtimeBefore.cgoCalls);
+            result.put("goroutines", runtimeAfter.goroutines);
+            return result;
+        } finally {
+            running = false;
+            for (var worker : workers) {
+                worker.close();
+            }
+            for (var fixture : fixtures) {
+                fixture.close();
+            }
+        }
+    }
+
+    /**
+     * Total number of times and milliseconds the given threads were blocked on a monitor, the time is only available
+     * if thread contention monitoring is supported by the JVM.
+     */
+    private static long[] blocked(List<Worker> workers) {
+        long count = 0;
+        long time = 0;
+        for (var worker : workers) {
+            var info = threads.getThreadInfo(worker.getId());
+            if (info == null) continue;
+            count += info.getBlockedCount();
+            time += Math.max(info.getBlockedTime(), 0);
+        }
+        return new long[] { count, time };
+    }
+}
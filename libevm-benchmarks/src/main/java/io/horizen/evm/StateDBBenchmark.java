@@ -0,0 +1,108 @@
+package io.horizen.evm;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads and writes of accounts and storage via StateDB. Reads are served from the state opened at the committed root,
+ * i.e. the first access of every account and slot goes to the database.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StateDBBenchmark {
+    private static final Address CONTRACT = Contracts.address(-1);
+
+    @Param({ "memory", "leveldb" })
+    public String database;
+
+    @Param({ "1000" })
+    public int accounts;
+
+    private BenchmarkDatabase db;
+    private Hash root;
+    private StateDB statedb;
+    private Address[] addresses;
+    private Hash[] keys;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setupDatabase() throws Exception {
+        db = new BenchmarkDatabase(database);
+        addresses = new Address[accounts];
+        keys = new Hash[accounts];
+        try (var statedb = new StateDB(db.db, Hash.ZERO)) {
+            for (int i = 0; i < accounts; i++) {
+                addresses[i] = Contracts.address(i);
+                keys[i] = Contracts.hash(i);
+                statedb.setBalance(addresses[i], BigInteger.valueOf(i + 1));
+                statedb.setNonce(addresses[i], BigInteger.ONE);
+                statedb.setStorage(CONTRACT, keys[i], Contracts.hash(i + 1));
+            }
+            statedb.setCode(CONTRACT, Contracts.TOKEN);
+            root = statedb.commit();
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void openState() {
+        statedb = new StateDB(db.db, root);
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeState() throws Exception {
+        statedb.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void closeDatabase() throws Exception {
+        db.close();
+    }
+
+    private int nextIndex() {
+        next = (next + 1) % accounts;
+        return next;
+    }
+
+    @Benchmark
+    public BigInteger getBalance() {
+        return statedb.getBalance(addresses[nextIndex()]);
+    }
+
+    @Benchmark
+    public void setBalance() {
+        var i = nextIndex();
+        statedb.setBalance(addresses[i], BigInteger.valueOf(i));
+    }
+
+    @Benchmark
+    public BigInteger getNonce() {
+        return statedb.getNonce(addresses[nextIndex()]);
+    }
+
+    @Benchmark
+    public long getNonceLong() {
+        return statedb.getNonceLong(addresses[nextIndex()]);
+    }
+
+    @Benchmark
+    public Hash getStorage() {
+        return statedb.getStorage(CONTRACT, keys[nextIndex()]);
+    }
+
+    @Benchmark
+    public void setStorage() {
+        var i = nextIndex();
+        statedb.setStorage(CONTRACT, keys[i], Contracts.hash(i));
+    }
+
+    @Benchmark
+    public byte[] getCode() {
+        return statedb.getCode(CONTRACT);
+    }
+}
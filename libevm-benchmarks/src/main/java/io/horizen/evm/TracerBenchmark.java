@@ -0,0 +1,77 @@
+package io.horizen.evm;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of tracing: a call to the Storage contract is executed with the given tracer and the result is retrieved,
+ * "none" executes without a tracer as the baseline.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TracerBenchmark {
+    @Param({ "none", "structLogger", "compact", "callTracer", "opcountTracerNative", "gasProfiler" })
+    public String tracer;
+
+    private final Address sender = Contracts.address(0);
+
+    private MemoryDatabase db;
+    private StateDB statedb;
+    private TraceOptions options;
+    private Address contract;
+    private long value;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        db = new MemoryDatabase();
+        statedb = new StateDB(db, Hash.ZERO);
+        contract = Evm.Apply(statedb, Contracts.deploy(sender, Contracts.storageDeploy(1)), new EvmContext())
+            .contractAddress;
+        switch (tracer) {
+            case "none":
+                options = null;
+                break;
+            case "structLogger":
+                options = new TraceOptions();
+                break;
+            case "compact":
+                options = new TraceOptions(false, false, false, false, null, null, null, true);
+                break;
+            case "gasProfiler":
+                // same as new GasProfiler(), created per invocation like all other tracers
+                options = new TraceOptions(false, false, false, false, tracer, JsonNodeFactory.instance.objectNode());
+                break;
+            default:
+                options = new TraceOptions(false, false, false, false, tracer, null);
+                break;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        statedb.close();
+        db.close();
+    }
+
+    @Benchmark
+    public Object apply() {
+        var invocation = Contracts.call(sender, contract, null, Contracts.storageStore(value++));
+        var context = new EvmContext();
+        if (options == null) {
+            return Evm.Apply(statedb, invocation, context);
+        }
+        try (var tracer = new Tracer(options)) {
+            context.setTracer(tracer);
+            tracer.CaptureTxStart(invocation.gas);
+            var result = Evm.Apply(statedb, invocation, context);
+            tracer.CaptureTxEnd(result.leftOverGas);
+            return tracer.getResult();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package io.horizen.evm;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TrieHasher.Root for lists of typical RLP-encoded transaction or receipt sizes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TrieHasherBenchmark {
+    @Param({ "1", "16", "256", "4096" })
+    public int size;
+
+    @Param({ "128" })
+    public int valueLength;
+
+    private byte[][] values;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        var random = new Random(1);
+        values = new byte[size][valueLength];
+        for (var value : values) {
+            random.nextBytes(value);
+        }
+    }
+
+    @Benchmark
+    public Hash root() {
+        return TrieHasher.Root(values);
+    }
+}
@@ -0,0 +1,153 @@
+package io.horizen.evm;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.horizen.evm.results.InvocationResult;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Objects;
+
+/**
+ * Recorded workload for the {@link ReplayHarness}, stored in JSON Lines format: the first line is the {@link Header},
+ * every following line is a {@link Block}. All values use the same JSON encoding as the calls into libevm.
+ */
+final class Workload {
+    static final int VERSION = 1;
+
+    private Workload() { }
+
+    /**
+     * Initial state of the workload.
+     */
+    static class Header {
+        public final int version;
+        public final Account[] alloc;
+
+        /**
+         * State root after applying the initial allocation.
+         */
+        public final Hash genesisRoot;
+
+        Header(
+            @JsonProperty("version") int version,
+            @JsonProperty("alloc") Account[] alloc,
+            @JsonProperty("genesisRoot") Hash genesisRoot
+        ) {
+            this.version = version;
+            this.alloc = Objects.requireNonNullElse(alloc, new Account[0]);
+            this.genesisRoot = genesisRoot;
+        }
+    }
+
+    static class Account {
+        public final Address address;
+        public final BigInteger balance;
+
+        Account(@JsonProperty("address") Address address, @JsonProperty("balance") BigInteger balance) {
+            this.address = address;
+            this.balance = balance;
+        }
+    }
+
+    static class Block {
+        public final BigInteger chainID;
+        public final BigInteger number;
+        public final BigInteger time;
+        public final BigInteger baseFee;
+        public final BigInteger gasLimit;
+        public final Address coinbase;
+        public final ForkRules rules;
+
+        /**
+         * Transactions in execution order, including their transaction context.
+         */
+        public final TransactionInvocation[] transactions;
+
+        /**
+         * State root after all transactions were applied and the state was committed.
+         */
+        public final Hash expectedRoot;
+
+        Block(
+            @JsonProperty("chainID") BigInteger chainID,
+            @JsonProperty("number") BigInteger number,
+            @JsonProperty("time") BigInteger time,
+            @JsonProperty("baseFee") BigInteger baseFee,
+            @JsonProperty("gasLimit") BigInteger gasLimit,
+            @JsonProperty("coinbase") Address coinbase,
+            @JsonProperty("rules") ForkRules rules,
+            @JsonProperty("transactions") TransactionInvocation[] transactions,
+            @JsonProperty("expectedRoot") Hash expectedRoot
+        ) {
+            this.chainID = Objects.requireNonNullElse(chainID, BigInteger.ZERO);
+            this.number = Objects.requireNonNullElse(number, BigInteger.ZERO);
+            this.time = Objects.requireNonNullElse(time, BigInteger.ZERO);
+            this.baseFee = Objects.requireNonNullElse(baseFee, BigInteger.ZERO);
+            this.gasLimit = Objects.requireNonNullElse(gasLimit, BigInteger.ZERO);
+            this.coinbase = Objects.requireNonNullElse(coinbase, Address.ZERO);
+            this.rules = Objects.requireNonNullElse(rules, new ForkRules(false));
+            this.transactions = Objects.requireNonNullElse(transactions, new TransactionInvocation[0]);
+            this.expectedRoot = expectedRoot;
+        }
+
+        EvmContext context() {
+            return new EvmContext(chainID, coinbase, gasLimit, BigInteger.ZERO, number, time, baseFee, Hash.ZERO, rules);
+        }
+    }
+
+    /**
+     * Apply the initial allocation to an empty state and commit it.
+     */
+    static Hash genesis(Database db, Account[] alloc) throws Exception {
+        try (var statedb = new StateDB(db, Hash.ZERO)) {
+            for (var account : alloc) {
+                statedb.setBalance(account.address, account.balance);
+            }
+            return statedb.commit();
+        }
+    }
+
+    /**
+     * Apply a single transaction the same way the SDK does during block import: set the transaction context,
+     * increment the nonce of the sender, prepare the access list, execute and finalize the changes.
+     */
+    static InvocationResult apply(StateDB statedb, EvmContext context, TransactionInvocation tx) {
+        statedb.setTxContext(tx.txHash, tx.txIndex);
+        statedb.setNonce(tx.caller, statedb.getNonceLong(tx.caller) + 1);
+        statedb.accessSetup(tx.caller, tx.callee, context.coinbase, context.rules, tx.accessList);
+        var result = Evm.Apply(statedb, tx, context);
+        statedb.finalizeChanges();
+        return result;
+    }
+
+    static Header readHeader(BufferedReader reader) throws IOException {
+        var line = reader.readLine();
+        if (line == null) {
+            throw new IOException("empty workload");
+        }
+        var header = Converter.fromJson(line, Header.class);
+        if (header.version != VERSION) {
+            throw new IOException("unsupported workload version: " + header.version);
+        }
+        return header;
+    }
+
+    /**
+     * Read the next block, returns null at the end of the workload.
+     */
+    static Block readBlock(BufferedReader reader) throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) return null;
+        } while (line.isBlank());
+        return Converter.fromJson(line, Block.class);
+    }
+
+    static void write(BufferedWriter writer, Object record) throws IOException {
+        writer.write(Converter.toJson(record));
+        writer.newLine();
+    }
+}
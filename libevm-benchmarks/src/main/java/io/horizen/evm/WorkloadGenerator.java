@@ -0,0 +1,162 @@
+package io.horizen.evm;
+
+import java.io.BufferedWriter;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Generates a synthetic workload for the {@link ReplayHarness}, based on the Storage contract from native/test and the
+ * token contract from {@link Contracts}, so that no recorded chain data is required. The first block deploys the
+ * contracts and distributes tokens to all senders, all following blocks consist of a mix of 40% value transfers, 40%
+ * token transfers and 20% calls of Storage.store. The workload is executed on an in-memory database while it is
+ * generated to record the expected state root of every block.
+ * <p>
+ * Usage: {@code WorkloadGenerator <output file> [blocks] [transactions per block] [accounts] [seed]}
+ */
+public final class WorkloadGenerator {
+    private static final BigInteger CHAIN_ID = BigInteger.valueOf(1997);
+    private static final BigInteger GAS_LIMIT = BigInteger.valueOf(30_000_000);
+    private static final BigInteger BASE_FEE = BigInteger.valueOf(1_000_000_000);
+    private static final BigInteger GENESIS_TIME = BigInteger.valueOf(1_700_000_000);
+    private static final BigInteger BALANCE = BigInteger.TEN.pow(30);
+    private static final Address COINBASE = Contracts.address(Integer.MAX_VALUE);
+
+    private final int accounts;
+    private final Random random;
+    private final Address deployer = Contracts.address(0);
+    private final Address[] senders;
+    private Address token;
+    private Address storage;
+
+    private WorkloadGenerator(int accounts, long seed) {
+        this.accounts = accounts;
+        random = new Random(seed);
+        senders = new Address[accounts];
+        for (int i = 0; i < accounts; i++) {
+            senders[i] = Contracts.address(i + 1);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("usage: WorkloadGenerator <output file> [blocks] [transactions per block] [accounts] [seed]");
+            System.exit(2);
+        }
+        var output = Path.of(args[0]);
+        var blocks = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        var transactions = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        var accounts = args.length > 3 ? Integer.parseInt(args[3]) : 10_000;
+        var seed = args.length > 4 ? Long.parseLong(args[4]) : 1;
+        var generator = new WorkloadGenerator(accounts, seed);
+        try (var writer = Files.newBufferedWriter(output)) {
+            generator.generate(writer, blocks, transactions);
+        }
+        System.out.printf("generated %d blocks with %d transactions each to %s%n", blocks, transactions, output);
+    }
+
+    private void generate(BufferedWriter writer, int blocks, int transactions) throws Exception {
+        var alloc = new Workload.Account[accounts + 1];
+        alloc[0] = new Workload.Account(deployer, BALANCE);
+        for (int i = 0; i < accounts; i++) {
+            alloc[i + 1] = new Workload.Account(senders[i], BALANCE);
+        }
+        try (var db = new MemoryDatabase()) {
+            var root = Workload.genesis(db, alloc);
+            Workload.write(writer, new Workload.Header(Workload.VERSION, alloc, root));
+            for (int number = 1; number <= blocks; number++) {
+                var block = block(number, number == 1 ? setup() : transactions(transactions), null);
+                var txs = block.transactions;
+                var context = block.context();
+                try (var statedb = new StateDB(db, root)) {
+                    for (var tx : txs) {
+                        var result = Workload.apply(statedb, context, tx);
+                        if (number == 1 && result.executionError != null && !result.executionError.isEmpty()) {
+                            throw new IllegalStateException("setup transaction failed: " + result.executionError);
+                        }
+                        if (number == 1 && tx.callee == null) {
+                            if (token == null) {
+                                token = result.contractAddress;
+                            } else {
+                                storage = result.contractAddress;
+                            }
+                        }
+                    }
+                    root = statedb.commit();
+                }
+                Workload.write(writer, block(number, txs, root));
+            }
+        }
+    }
+
+    private Workload.Block block(int number, TransactionInvocation[] transactions, Hash root) {
+        return new Workload.Block(
+            CHAIN_ID,
+            BigInteger.valueOf(number),
+            GENESIS_TIME.add(BigInteger.valueOf(12L * number)),
+            BASE_FEE,
+            GAS_LIMIT,
+            COINBASE,
+            new ForkRules(true),
+            transactions,
+            root
+        );
+    }
+
+    /**
+     * Deploy the token and the Storage contract and transfer tokens to all senders.
+     */
+    private TransactionInvocation[] setup() {
+        var txs = new ArrayList<Invocation>();
+        txs.add(Contracts.deploy(deployer, Contracts.TOKEN));
+        txs.add(Contracts.deploy(deployer, Contracts.storageDeploy(1)));
+        // contract addresses only depend on the deployer and its nonce, i.e. they are known before execution
+        var tokenAddress = contractAddress(1);
+        for (var sender : senders) {
+            txs.add(Contracts.call(deployer, tokenAddress, null, Contracts.tokenTransfer(sender, 1_000_000_000)));
+        }
+        return transactions(txs);
+    }
+
+    private TransactionInvocation[] transactions(int count) {
+        var txs = new ArrayList<Invocation>(count);
+        for (int i = 0; i < count; i++) {
+            var sender = senders[random.nextInt(accounts)];
+            var recipient = senders[random.nextInt(accounts)];
+            var kind = random.nextInt(10);
+            if (kind < 4) {
+                txs.add(Contracts.call(sender, recipient, BigInteger.valueOf(1 + random.nextInt(1000)), null));
+            } else if (kind < 8) {
+                txs.add(Contracts.call(sender, token, null, Contracts.tokenTransfer(recipient, 1 + random.nextInt(1000))));
+            } else {
+                txs.add(Contracts.call(sender, storage, null, Contracts.storageStore(random.nextLong())));
+            }
+        }
+        return transactions(txs);
+    }
+
+    private TransactionInvocation[] transactions(ArrayList<Invocation> invocations) {
+        var txs = new TransactionInvocation[invocations.size()];
+        for (int i = 0; i < txs.length; i++) {
+            var hash = new byte[Hash.LENGTH];
+            random.nextBytes(hash);
+            txs[i] = new TransactionInvocation(invocations.get(i), new Hash(hash), i, null);
+        }
+        return txs;
+    }
+
+    /**
+     * Address of a contract created by the deployer with the given nonce, i.e. keccak256(rlp([deployer, nonce])).
+     * Determined by executing the deployment on an empty state, to avoid an RLP and Keccak implementation here.
+     */
+    private Address contractAddress(int nonce) {
+        try (var db = new MemoryDatabase(); var statedb = new StateDB(db, Hash.ZERO)) {
+            statedb.setNonce(deployer, nonce);
+            return Evm.Apply(statedb, Contracts.deploy(deployer, Contracts.TOKEN), new EvmContext()).contractAddress;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
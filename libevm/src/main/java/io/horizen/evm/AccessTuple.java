@@ -0,0 +1,40 @@
+package io.horizen.evm;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Entry of an EIP-2930 access list: an account and the storage slots of that account.
+ */
+public class AccessTuple {
+    public final Address address;
+    public final Hash[] storageKeys;
+
+    public AccessTuple(
+        @JsonProperty("address") Address address,
+        @JsonProperty("storageKeys") Hash[] storageKeys
+    ) {
+        this.address = address;
+        this.storageKeys = Objects.requireNonNullElse(storageKeys, new Hash[0]);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        AccessTuple that = (AccessTuple) o;
+        return Objects.equals(address, that.address) && Arrays.equals(storageKeys, that.storageKeys);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Objects.hashCode(address) + Arrays.hashCode(storageKeys);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AccessTuple{address=%s, storageKeys=%s}", address, Arrays.toString(storageKeys));
+    }
+}
@@ -10,6 +10,7 @@ import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 @JsonSerialize(using = Address.Serializer.class)
 @JsonDeserialize(using = Address.Deserializer.class)
@@ -29,12 +30,30 @@ public class Address extends FixedSizeByteArray {
         super(LENGTH, hex);
     }
 
+    /**
+     * Copy the {@value LENGTH} bytes starting at the given offset of a larger buffer.
+     */
+    public Address(byte[] buffer, int offset) {
+        super(LENGTH, buffer, offset);
+    }
+
+    /**
+     * Read {@value LENGTH} bytes from the current position of the given buffer, the position is advanced.
+     */
+    public Address(ByteBuffer buffer) {
+        super(LENGTH, buffer);
+    }
+
+    private Address(CharSequence hex) {
+        super(LENGTH, hex);
+    }
+
     public static class Serializer extends JsonSerializer<Address> {
         @Override
         public void serialize(
             Address address, JsonGenerator jsonGenerator, SerializerProvider serializerProvider
         ) throws IOException {
-            jsonGenerator.writeString(address.toString());
+            address.writeHex(jsonGenerator);
         }
     }
 
@@ -43,7 +62,9 @@ public class Address extends FixedSizeByteArray {
         public Address deserialize(
             JsonParser jsonParser, DeserializationContext deserializationContext
         ) throws IOException {
-            return new Address(jsonParser.getText());
+            var hex = readHex(jsonParser);
+            // the zero address is common, e.g. as default coinbase
+            return isZeroHex(hex, LENGTH) ? ZERO : new Address(hex);
         }
     }
 }
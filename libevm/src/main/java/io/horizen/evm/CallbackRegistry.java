@@ -35,6 +35,10 @@ class CallbackRegistry {
         logger.trace("unregistered callback with handle {}: {}", handle, callback);
     }
 
+    static synchronized int size() {
+        return callbacks.size();
+    }
+
     static synchronized LibEvmCallback get(int handle) {
         if (!callbacks.containsKey(handle)) {
             logger.warn("received callback with invalid handle: {}", handle);
@@ -1,12 +1,34 @@
 package io.horizen.evm;
 
 import io.horizen.evm.params.DatabaseParams;
+import io.horizen.evm.params.DatabaseReadTimingParams;
+import io.horizen.evm.results.DatabaseStats;
 
 public abstract class Database extends ResourceHandle {
     public Database(int handle) {
         super(handle);
     }
 
+    /**
+     * Get counters of all operations on the underlying key-value store since the database was opened.
+     *
+     * @return database counters
+     */
+    public DatabaseStats getStats() {
+        return LibEvm.invoke("DatabaseGetStats", new DatabaseParams(handle), DatabaseStats.class);
+    }
+
+    /**
+     * Measure the time of all reads from the underlying key-value store, see {@link DatabaseStats#readTime}. Timing is
+     * disabled by default because it adds two clock reads to every database read, reads during invocations that
+     * request execution stats are always timed.
+     *
+     * @param enabled true to time all reads
+     */
+    public void setReadTiming(boolean enabled) {
+        LibEvm.invoke("DatabaseSetReadTiming", new DatabaseReadTimingParams(handle, enabled));
+    }
+
     @Override
     public void close() {
         LibEvm.invoke("DatabaseClose", new DatabaseParams(handle));
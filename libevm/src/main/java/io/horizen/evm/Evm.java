@@ -1,7 +1,16 @@
 package io.horizen.evm;
 
+import io.horizen.evm.params.EvmCallManyParams;
+import io.horizen.evm.params.EvmEstimateGasParams;
 import io.horizen.evm.params.EvmParams;
+import io.horizen.evm.params.EvmTraceBlockParams;
+import io.horizen.evm.results.AccessListResult;
+import io.horizen.evm.results.EstimateGasResult;
 import io.horizen.evm.results.InvocationResult;
+import io.horizen.evm.results.TracerResult;
+
+import java.math.BigInteger;
+import java.util.List;
 
 public final class Evm {
     private Evm() { }
@@ -10,4 +19,232 @@ public final class Evm {
         var params = new EvmParams(stateDBHandle.handle, invocation, context);
         return LibEvm.invoke("EvmApply", params, InvocationResult.class);
     }
+
+    /**
+     * Same as {@link #Apply(ResourceHandle, Invocation, EvmContext)}, but only the handle of a registered context is
+     * sent instead of the whole context, see {@link EvmContext#register()}.
+     *
+     * @param stateDBHandle state to apply the invocation to
+     * @param invocation    invocation to execute
+     * @param context       registered context to use
+     * @return result of the invocation
+     */
+    public static InvocationResult applyRegistered(
+        ResourceHandle stateDBHandle,
+        Invocation invocation,
+        RegisteredEvmContext context
+    ) {
+        return applyRegistered(stateDBHandle, invocation, context, false);
+    }
+
+    /**
+     * Same as {@link #Apply(ResourceHandle, Invocation, EvmContext)}, but optionally measures where time is spent
+     * during the invocation, e.g. reading accounts and storage. The measurements are available via
+     * {@link InvocationResult#stats}.
+     *
+     * @param stateDBHandle state to apply the invocation to
+     * @param invocation    invocation to execute
+     * @param context       context to use
+     * @param stats         true to include measurements in the result
+     * @return result of the invocation
+     */
+    public static InvocationResult Apply(
+        ResourceHandle stateDBHandle,
+        Invocation invocation,
+        EvmContext context,
+        boolean stats
+    ) {
+        var params = new EvmParams(stateDBHandle.handle, invocation, context, stats);
+        return LibEvm.invoke("EvmApply", params, InvocationResult.class);
+    }
+
+    /**
+     * Same as {@link #Apply(ResourceHandle, Invocation, EvmContext, boolean)} with a registered context.
+     *
+     * @param stateDBHandle state to apply the invocation to
+     * @param invocation    invocation to execute
+     * @param context       registered context to use
+     * @param stats         true to include measurements in the result
+     * @return result of the invocation
+     */
+    public static InvocationResult applyRegistered(
+        ResourceHandle stateDBHandle,
+        Invocation invocation,
+        RegisteredEvmContext context,
+        boolean stats
+    ) {
+        var params = new EvmParams(stateDBHandle.handle, invocation, context.handle, stats);
+        return LibEvm.invoke("EvmApply", params, InvocationResult.class);
+    }
+
+    /**
+     * Execute multiple invocations against the state at the given root. Every invocation runs on an isolated copy of
+     * the same state, i.e. invocations do not see the changes of each other and all changes are discarded. The
+     * invocations are executed in parallel on the native side, results are returned in the same order as the given
+     * invocations.
+     * <p>
+     * Note: Tracing is not supported and callbacks given in the context may be invoked concurrently.
+     *
+     * @param db          database to open the state from
+     * @param root        state root to execute the invocations on
+     * @param invocations invocations to execute
+     * @param context     context to use for all invocations
+     * @return results of all invocations
+     */
+    public static InvocationResult[] callMany(Database db, Hash root, Invocation[] invocations, EvmContext context) {
+        var params = new EvmCallManyParams(
+            db.handle, root.equals(Hash.ZERO) ? StateDB.EMPTY_ROOT_HASH : root, invocations, context);
+        return LibEvm.invoke("EvmCallMany", params, InvocationResult[].class);
+    }
+
+    /**
+     * Same as {@link #callMany(Database, Hash, Invocation[], EvmContext)} with a registered context.
+     *
+     * @param db          database to open the state from
+     * @param root        state root to execute the invocations on
+     * @param invocations invocations to execute
+     * @param context     registered context to use for all invocations
+     * @return results of all invocations
+     */
+    public static InvocationResult[] callManyRegistered(
+        Database db,
+        Hash root,
+        Invocation[] invocations,
+        RegisteredEvmContext context
+    ) {
+        var params = new EvmCallManyParams(
+            db.handle, root.equals(Hash.ZERO) ? StateDB.EMPTY_ROOT_HASH : root, invocations, context.handle);
+        return LibEvm.invoke("EvmCallMany", params, InvocationResult[].class);
+    }
+
+    /**
+     * Estimate the lowest amount of gas the given invocation succeeds with. The binary search is performed natively,
+     * all executions are reverted and the state is not modified. Just like {@link #Apply} the estimate does not include
+     * the intrinsic gas of a transaction. If the invocation fails even with the maximum amount of gas, the error and
+     * revert reason of that execution are returned.
+     *
+     * @param stateDBHandle state to execute the invocation on
+     * @param invocation    invocation to estimate, the gas limit of the invocation is ignored if a cap is given
+     * @param context       context to use for execution, tracing is not supported
+     * @param cap           upper limit for the estimate, may be null to use the gas limit of the invocation or block
+     * @return estimated amount of gas
+     */
+    public static EstimateGasResult estimateGas(
+        ResourceHandle stateDBHandle,
+        Invocation invocation,
+        EvmContext context,
+        BigInteger cap
+    ) {
+        var params = new EvmEstimateGasParams(stateDBHandle.handle, invocation, context, cap);
+        return LibEvm.invoke("EvmEstimateGas", params, EstimateGasResult.class);
+    }
+
+    /**
+     * Same as {@link #estimateGas(ResourceHandle, Invocation, EvmContext, BigInteger)} with a registered context.
+     *
+     * @param stateDBHandle state to execute the invocation on
+     * @param invocation    invocation to estimate, the gas limit of the invocation is ignored if a cap is given
+     * @param context       registered context to use for execution, tracing is not supported
+     * @param cap           upper limit for the estimate, may be null to use the gas limit of the invocation or block
+     * @return estimated amount of gas
+     */
+    public static EstimateGasResult estimateGasRegistered(
+        ResourceHandle stateDBHandle,
+        Invocation invocation,
+        RegisteredEvmContext context,
+        BigInteger cap
+    ) {
+        var params = new EvmEstimateGasParams(stateDBHandle.handle, invocation, context.handle, cap);
+        return LibEvm.invoke("EvmEstimateGas", params, EstimateGasResult.class);
+    }
+
+    /**
+     * Generate the access list for the given invocation, see eth_createAccessList. The invocation is executed
+     * repeatedly on the native side until the access list does not change anymore, at most 16 times, otherwise a
+     * LibEvmException is thrown. All executions are performed on copies of the given state, the state is not modified.
+     * Just like {@link #Apply} the gas used does not include the intrinsic gas of a transaction.
+     *
+     * @param stateDBHandle state to execute the invocation on
+     * @param invocation    invocation to generate the access list for
+     * @param context       context to use for execution, tracing is not supported
+     * @return access list and gas used when executing with that access list
+     */
+    public static AccessListResult createAccessList(
+        ResourceHandle stateDBHandle,
+        Invocation invocation,
+        EvmContext context
+    ) {
+        var params = new EvmParams(stateDBHandle.handle, invocation, context);
+        return LibEvm.invoke("EvmCreateAccessList", params, AccessListResult.class);
+    }
+
+    /**
+     * Same as {@link #createAccessList(ResourceHandle, Invocation, EvmContext)} with a registered context.
+     *
+     * @param stateDBHandle state to execute the invocation on
+     * @param invocation    invocation to generate the access list for
+     * @param context       registered context to use for execution, tracing is not supported
+     * @return access list and gas used when executing with that access list
+     */
+    public static AccessListResult createAccessListRegistered(
+        ResourceHandle stateDBHandle,
+        Invocation invocation,
+        RegisteredEvmContext context
+    ) {
+        var params = new EvmParams(stateDBHandle.handle, invocation, context.handle, false);
+        return LibEvm.invoke("EvmCreateAccessList", params, AccessListResult.class);
+    }
+
+    /**
+     * Trace all transactions of a block, see debug_traceBlock. The transactions are first executed sequentially without
+     * a tracer on the native side, the intermediate states are then used to trace the transactions concurrently on a
+     * pool of workers. Every transaction is traced with a separate tracer created from the given options, results are
+     * returned in the same order as the given transactions. All changes to the state are discarded.
+     * <p>
+     * Just like the SDK does before {@link #Apply}, the nonce of the sender is incremented before each transaction.
+     * Other parts of the state transition, e.g. buying gas and paying fees, are not applied.
+     * <p>
+     * Note: Trace output streams and trace files are not supported and callbacks given in the context may be invoked
+     * concurrently.
+     *
+     * @param db           database to open the state from
+     * @param parentRoot   state root of the parent block
+     * @param transactions transactions of the block in order
+     * @param context      context to use for all transactions, must not have a tracer set
+     * @param options      options to create the tracer of each transaction
+     * @return trace results of all transactions
+     */
+    public static TracerResult[] traceBlock(
+        Database db,
+        Hash parentRoot,
+        List<TransactionInvocation> transactions,
+        EvmContext context,
+        TraceOptions options
+    ) {
+        var root = parentRoot.equals(Hash.ZERO) ? StateDB.EMPTY_ROOT_HASH : parentRoot;
+        var params = new EvmTraceBlockParams(db.handle, root, transactions, context, options);
+        return LibEvm.invoke("EvmTraceBlock", params, TracerResult[].class);
+    }
+
+    /**
+     * Same as {@link #traceBlock(Database, Hash, List, EvmContext, TraceOptions)} with a registered context.
+     *
+     * @param db           database to open the state from
+     * @param parentRoot   state root of the parent block
+     * @param transactions transactions of the block in order
+     * @param context      registered context to use for all transactions, must not have a tracer set
+     * @param options      options to create the tracer of each transaction
+     * @return trace results of all transactions
+     */
+    public static TracerResult[] traceBlockRegistered(
+        Database db,
+        Hash parentRoot,
+        List<TransactionInvocation> transactions,
+        RegisteredEvmContext context,
+        TraceOptions options
+    ) {
+        var root = parentRoot.equals(Hash.ZERO) ? StateDB.EMPTY_ROOT_HASH : parentRoot;
+        var params = new EvmTraceBlockParams(db.handle, root, transactions, context.handle, options);
+        return LibEvm.invoke("EvmTraceBlock", params, TracerResult[].class);
+    }
 }
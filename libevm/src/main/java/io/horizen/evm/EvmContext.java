@@ -13,6 +13,7 @@ public class EvmContext {
     public final Hash random;
     public final ForkRules rules;
     private BlockHashCallback blockHashCallback;
+    private Hash[] blockHashes;
     private Address[] externalContracts;
     private InvocationCallback externalCallback;
     private Tracer tracer;
@@ -60,6 +61,22 @@ public class EvmContext {
         this.blockHashCallback = blockHashCallback;
     }
 
+    public Hash[] getBlockHashes() {
+        return blockHashes;
+    }
+
+    /**
+     * Pre-populate the native block hash cache, e.g. once per block in combination with {@link #register()}. The
+     * BLOCKHASH opcode is served from the cache and the BlockHashCallback is only invoked for blocks that are not
+     * contained in it. At most the 256 most recent hashes are used, as older ones are not accessible by the EVM.
+     *
+     * @param blockHashes hashes of the blocks before blockNumber, the most recent one first, i.e. blockHashes[0] is the
+     *                    hash of block blockNumber - 1
+     */
+    public void setBlockHashes(Hash[] blockHashes) {
+        this.blockHashes = blockHashes;
+    }
+
     public Address[] getExternalContracts() {
         return externalContracts;
     }
@@ -91,4 +108,17 @@ public class EvmContext {
     public void setInitialDepth(int initialDepth) {
         this.initialDepth = initialDepth;
     }
+
+    /**
+     * Register this context on the native side, e.g. once per block, so that subsequent calls to
+     * {@link Evm#applyRegistered(ResourceHandle, Invocation, RegisteredEvmContext)} and the other methods of
+     * {@link Evm} with the suffix "Registered" only need to pass a handle instead of the whole context. The context is
+     * captured at the time of registration, later changes to this instance, like setting a different tracer, do not
+     * affect the registered context.
+     *
+     * @return registered copy of this context, must be closed when not in use anymore
+     */
+    public RegisteredEvmContext register() {
+        return new RegisteredEvmContext(this);
+    }
 }
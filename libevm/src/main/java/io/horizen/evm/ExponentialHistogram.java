@@ -0,0 +1,38 @@
+package io.horizen.evm;
+
+import io.horizen.evm.results.RequestStats;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram with the same exponential buckets as the histograms recorded by libevm, see
+ * {@link RequestStats.Histogram}.
+ */
+class ExponentialHistogram {
+    static final int BUCKETS = 32;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+
+    void record(long value) {
+        var bucket = Math.min(Long.SIZE - Long.numberOfLeadingZeros(Math.max(value, 0)), BUCKETS - 1);
+        buckets.incrementAndGet(bucket);
+        sum.add(value);
+    }
+
+    RequestStats.Histogram snapshot() {
+        var values = new long[BUCKETS];
+        long count = 0;
+        int length = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            values[i] = buckets.get(i);
+            count += values[i];
+            if (values[i] > 0) length = i + 1;
+        }
+        // trailing empty buckets are omitted
+        var trimmed = new long[length];
+        System.arraycopy(values, 0, trimmed, 0, length);
+        return new RequestStats.Histogram(trimmed, count, sum.sum());
+    }
+}
@@ -1,12 +1,27 @@
 package io.horizen.evm;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.util.Arrays;
+import java.util.Objects;
 
 public class FixedSizeByteArray {
     private static final String PREFIX = "0x";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final ThreadLocal<char[]> hexBuffer = ThreadLocal.withInitial(() -> new char[128]);
+
     private final int length;
     private final byte[] bytes;
 
+    // computed lazily and cached: concurrent threads might compute the same value, but never see a partial one
+    private int hash;
+    private String hex;
+
     protected FixedSizeByteArray(int length, byte[] bytes) {
         if (bytes.length != length) {
             throw new IllegalArgumentException(String.format(
@@ -20,8 +35,30 @@ public class FixedSizeByteArray {
         this.bytes = Arrays.copyOf(bytes, length);
     }
 
+    /**
+     * Copy the bytes from a slice of a larger buffer, without creating an intermediate array.
+     */
+    protected FixedSizeByteArray(int length, byte[] buffer, int offset) {
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        this.length = length;
+        this.bytes = Arrays.copyOfRange(buffer, offset, offset + length);
+    }
+
+    /**
+     * Read the bytes from the current position of the given buffer, the position is advanced.
+     */
+    protected FixedSizeByteArray(int length, ByteBuffer buffer) {
+        this.length = length;
+        this.bytes = new byte[length];
+        buffer.get(bytes);
+    }
+
     protected FixedSizeByteArray(int length, String hex) {
-        if (!hex.startsWith(PREFIX)) {
+        this(length, (CharSequence) hex);
+    }
+
+    protected FixedSizeByteArray(int length, CharSequence hex) {
+        if (hex.length() < PREFIX.length() || hex.charAt(0) != '0' || hex.charAt(1) != 'x') {
             throw new IllegalArgumentException("hex string must be prefixed with " + PREFIX);
         }
         if (hex.length() != length * 2 + PREFIX.length()) {
@@ -32,22 +69,111 @@ public class FixedSizeByteArray {
             ));
         }
         this.length = length;
-        this.bytes = Converter.fromHexString(hex.substring(2));
+        this.bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            var pos = PREFIX.length() + i * 2;
+            bytes[i] = (byte) (nibble(hex.charAt(pos)) << 4 | nibble(hex.charAt(pos + 1)));
+        }
+    }
+
+    private static int nibble(char c) {
+        if (c >= '0' && c <= '9') return c - '0';
+        if (c >= 'a' && c <= 'f') return c - 'a' + 10;
+        if (c >= 'A' && c <= 'F') return c - 'A' + 10;
+        throw new IllegalArgumentException("invalid hex character: " + c);
+    }
+
+    /**
+     * Check if the given hex string is the prefixed zero value of the given length in bytes, e.g. to return a shared
+     * constant instead of a new instance.
+     */
+    protected static boolean isZeroHex(CharSequence hex, int length) {
+        if (hex.length() != PREFIX.length() + length * 2 || hex.charAt(0) != '0' || hex.charAt(1) != 'x') return false;
+        for (int i = PREFIX.length(); i < hex.length(); i++) {
+            if (hex.charAt(i) != '0') return false;
+        }
+        return true;
+    }
+
+    /**
+     * Get the characters of the current string token without creating a String, if possible.
+     */
+    protected static CharSequence readHex(JsonParser jsonParser) throws IOException {
+        if (jsonParser.currentToken() == JsonToken.VALUE_STRING && jsonParser.hasTextCharacters()) {
+            return CharBuffer.wrap(
+                jsonParser.getTextCharacters(),
+                jsonParser.getTextOffset(),
+                jsonParser.getTextLength()
+            );
+        }
+        return jsonParser.getText();
+    }
+
+    /**
+     * Write the prefixed hex representation to the given generator, without creating an intermediate String.
+     */
+    protected void writeHex(JsonGenerator jsonGenerator) throws IOException {
+        if (hex != null) {
+            jsonGenerator.writeString(hex);
+            return;
+        }
+        var count = PREFIX.length() + length * 2;
+        var chars = hexBuffer.get();
+        if (chars.length < count) {
+            chars = new char[count];
+        }
+        encodeHex(chars);
+        jsonGenerator.writeString(chars, 0, count);
+    }
+
+    private void encodeHex(char[] chars) {
+        chars[0] = '0';
+        chars[1] = 'x';
+        for (int i = 0; i < length; i++) {
+            chars[PREFIX.length() + i * 2] = HEX[(bytes[i] >> 4) & 0xf];
+            chars[PREFIX.length() + i * 2 + 1] = HEX[bytes[i] & 0xf];
+        }
     }
 
     @Override
     public String toString() {
-        return PREFIX + Converter.toHexString(bytes);
+        var result = hex;
+        if (result == null) {
+            var chars = new char[PREFIX.length() + length * 2];
+            encodeHex(chars);
+            result = new String(chars);
+            hex = result;
+        }
+        return result;
     }
 
     public String toStringNoPrefix() {
-        return Converter.toHexString(bytes);
+        return toString().substring(PREFIX.length());
     }
 
     public byte[] toBytes() {
         return Arrays.copyOf(bytes, length);
     }
 
+    /**
+     * Write the bytes to the given buffer, without the defensive copy of {@link #toBytes()}.
+     */
+    public void writeTo(ByteBuffer buffer) {
+        buffer.put(bytes);
+    }
+
+    /**
+     * Compare to a slice of the given buffer, without creating an instance from the buffer.
+     *
+     * @param buffer buffer to compare to
+     * @param offset start of the slice
+     * @return true if the slice contains the same bytes
+     */
+    public boolean contentEquals(byte[] buffer, int offset) {
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        return Arrays.equals(bytes, 0, length, buffer, offset, offset + length);
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (obj == null) return false;
@@ -59,6 +185,24 @@ public class FixedSizeByteArray {
 
     @Override
     public int hashCode() {
-        return Arrays.hashCode(bytes);
+        var result = hash;
+        if (result == 0) {
+            result = Arrays.hashCode(bytes);
+            hash = result;
+        }
+        return result;
+    }
+
+    /**
+     * Same as {@link Arrays#hashCode(byte[])} of the given slice, i.e. equal to {@link #hashCode()} of an instance
+     * with the same bytes. Can be used for lookups in custom hash tables directly from a buffer.
+     */
+    public static int hashCode(byte[] buffer, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        int result = 1;
+        for (int i = offset; i < offset + length; i++) {
+            result = 31 * result + buffer[i];
+        }
+        return result;
     }
 }
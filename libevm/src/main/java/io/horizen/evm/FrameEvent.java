@@ -0,0 +1,67 @@
+package io.horizen.evm;
+
+import java.math.BigInteger;
+
+/**
+ * Event of entering or exiting a call frame, see {@link Tracer#captureFrames(java.util.List)}.
+ */
+public class FrameEvent {
+    public static class Enter {
+        public final String opCode;
+        public final Address from;
+        public final Address to;
+        public final byte[] input;
+        public final BigInteger gas;
+        public final BigInteger value;
+
+        private Enter(TracerOpCode opCode, Address from, Address to, byte[] input, BigInteger gas, BigInteger value) {
+            this.opCode = opCode.getName();
+            this.from = from;
+            this.to = to;
+            this.input = input;
+            this.gas = gas;
+            this.value = value;
+        }
+    }
+
+    public static class Exit {
+        public final byte[] output;
+        public final BigInteger gasUsed;
+        public final String err;
+
+        private Exit(byte[] output, BigInteger gasUsed, String err) {
+            this.output = output;
+            this.gasUsed = gasUsed;
+            this.err = err;
+        }
+    }
+
+    public final Enter enter;
+    public final Exit exit;
+
+    private FrameEvent(Enter enter, Exit exit) {
+        this.enter = enter;
+        this.exit = exit;
+    }
+
+    /**
+     * Event of entering a call frame, equivalent to {@link Tracer#CaptureEnter}.
+     */
+    public static FrameEvent enter(
+        TracerOpCode opCode,
+        Address from,
+        Address to,
+        byte[] input,
+        BigInteger gas,
+        BigInteger value
+    ) {
+        return new FrameEvent(new Enter(opCode, from, to, input, gas, value), null);
+    }
+
+    /**
+     * Event of exiting a call frame, equivalent to {@link Tracer#CaptureExit}.
+     */
+    public static FrameEvent exit(byte[] output, BigInteger gasUsed, String err) {
+        return new FrameEvent(null, new Exit(output, gasUsed, err));
+    }
+}
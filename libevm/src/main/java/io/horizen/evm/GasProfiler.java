@@ -0,0 +1,49 @@
+package io.horizen.evm;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import io.horizen.evm.params.TracerSnapshotParams;
+import io.horizen.evm.results.GasProfile;
+import io.horizen.evm.results.TracerResult;
+
+/**
+ * Tracer that aggregates executed steps and gas per opcode, per contract and per code location across any number of
+ * executions, e.g. to find gas hot-spots on a running node. Instead of a full trace only a compact histogram is kept in
+ * libevm, which can be retrieved and reset periodically via {@link #snapshot(boolean)}. Memory usage is bounded
+ * regardless of the number of executions. The same instance can be attached to concurrent executions.
+ */
+public class GasProfiler extends Tracer {
+    /**
+     * Create a gas profiler that records every step.
+     */
+    public GasProfiler() {
+        this(1);
+    }
+
+    /**
+     * Create a gas profiler that records only every n-th step to reduce the overhead.
+     *
+     * @param sampleRate record every n-th step, must be at least 1
+     */
+    public GasProfiler(int sampleRate) {
+        super(options(sampleRate));
+    }
+
+    private static TraceOptions options(int sampleRate) {
+        if (sampleRate < 1) {
+            throw new IllegalArgumentException("sample rate must be at least 1");
+        }
+        var config = JsonNodeFactory.instance.objectNode().put("sampleRate", sampleRate);
+        return new TraceOptions(false, false, false, false, "gasProfiler", config);
+    }
+
+    /**
+     * Retrieve the profile aggregated so far.
+     *
+     * @param reset clear all aggregated data after taking the snapshot
+     * @return current profile
+     */
+    public GasProfile snapshot(boolean reset) {
+        var result = LibEvm.invoke("TracerSnapshot", new TracerSnapshotParams(handle, reset), TracerResult.class);
+        return Converter.fromJson(result.result.toString(), GasProfile.class);
+    }
+}
@@ -4,20 +4,53 @@ import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.Logger;
 
 import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Receives log records from libevm and writes them to log4j. Records are forwarded asynchronously in batches of JSON
+ * lines by a background goroutine in libevm. If libevm produces records faster than they can be forwarded, records are
+ * dropped instead of blocking the EVM, the number of dropped records is reported in the batch and counted here.
+ */
 class GlogCallback extends LibEvmCallback {
     private final Logger logger;
+    private final AtomicLong droppedRecords = new AtomicLong();
 
     GlogCallback(Logger logger) {
         this.logger = logger;
     }
 
+    /**
+     * Total number of log records dropped by libevm because the buffer was full.
+     */
+    long getDroppedRecords() {
+        return droppedRecords.get();
+    }
+
     @Override
     public String invoke(String args) {
+        int start = 0;
+        while (start < args.length()) {
+            var end = args.indexOf('\n', start);
+            if (end < 0) end = args.length();
+            if (end > start) {
+                logRecord(args.substring(start, end));
+            }
+            start = end + 1;
+        }
+        return null;
+    }
+
+    private void logRecord(String record) {
         try {
-            var data = Converter.fromJson(args, HashMap.class);
+            var data = Converter.fromJson(record, HashMap.class);
             // parse and remove known properties from the map
             var level = glogToLog4jLevel((String) data.remove("lvl"));
+            var dropped = data.remove("libevm.dropped");
+            if (dropped instanceof Number) {
+                droppedRecords.addAndGet(((Number) dropped).longValue());
+            }
+            // skip formatting if the level is not enabled
+            if (!logger.isEnabled(level)) return;
             var file = data.remove("file");
             var line = data.remove("line");
             var fn = data.remove("fn");
@@ -25,14 +58,13 @@ class GlogCallback extends LibEvmCallback {
             // ignore the timestamp supplied by go
             data.remove("t");
             // write to log4j logger
-            logger.log(level, String.format("[%s:%s] (%s) %s %s", file, line, fn, msg, data));
+            logger.log(level, "[{}:{}] ({}) {} {}", file, line, fn, msg, data);
         } catch (Exception e) {
             // note: make sure we do not throw any exception here because this callback is called by native code
             // for diagnostics we log the exception here, if it is caused by malformed json it will also include
             // the raw json string itself
             logger.warn("received invalid log message data", e);
         }
-        return null;
     }
 
     static Level glogToLog4jLevel(String glogLevel) {
@@ -10,6 +10,7 @@ import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 @JsonSerialize(using = Hash.Serializer.class)
 @JsonDeserialize(using = Hash.Deserializer.class)
@@ -29,12 +30,30 @@ public class Hash extends FixedSizeByteArray {
         super(LENGTH, hex);
     }
 
+    /**
+     * Copy the {@value LENGTH} bytes starting at the given offset of a larger buffer.
+     */
+    public Hash(byte[] buffer, int offset) {
+        super(LENGTH, buffer, offset);
+    }
+
+    /**
+     * Read {@value LENGTH} bytes from the current position of the given buffer, the position is advanced.
+     */
+    public Hash(ByteBuffer buffer) {
+        super(LENGTH, buffer);
+    }
+
+    private Hash(CharSequence hex) {
+        super(LENGTH, hex);
+    }
+
     public static class Serializer extends JsonSerializer<Hash> {
         @Override
         public void serialize(
             Hash hash, JsonGenerator jsonGenerator, SerializerProvider serializerProvider
         ) throws IOException {
-            jsonGenerator.writeString(hash.toString());
+            hash.writeHex(jsonGenerator);
         }
     }
 
@@ -43,7 +62,9 @@ public class Hash extends FixedSizeByteArray {
         public Hash deserialize(
             JsonParser jsonParser, DeserializationContext deserializationContext
         ) throws IOException {
-            return new Hash(jsonParser.getText());
+            var hex = readHex(jsonParser);
+            // the zero value is very common, e.g. for empty storage slots
+            return isZeroHex(hex, LENGTH) ? ZERO : new Hash(hex);
         }
     }
 }
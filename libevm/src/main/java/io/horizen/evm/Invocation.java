@@ -1,6 +1,8 @@
 package io.horizen.evm;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import io.horizen.evm.utils.Uint64Serializer;
 
 import java.math.BigInteger;
 
@@ -9,7 +11,13 @@ public class Invocation {
     public final Address callee;
     public final BigInteger value;
     public final byte[] input;
+
+    /**
+     * Gas limit of the invocation, transferred as a plain number instead of a hex string.
+     */
+    @JsonSerialize(using = Uint64Serializer.class)
     public final BigInteger gas;
+
     public final boolean readOnly;
 
     public Invocation(
@@ -27,4 +35,11 @@ public class Invocation {
         this.gas = gas;
         this.readOnly = readOnly;
     }
+
+    /**
+     * Same as the primary constructor, with the gas limit given as long, which must not be negative.
+     */
+    public Invocation(Address caller, Address callee, BigInteger value, byte[] input, long gas, boolean readOnly) {
+        this(caller, callee, value, input, BigInteger.valueOf(gas), readOnly);
+    }
 }
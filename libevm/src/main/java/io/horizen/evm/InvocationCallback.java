@@ -4,9 +4,18 @@ import io.horizen.evm.results.InvocationResult;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
 public abstract class InvocationCallback extends LibEvmCallback {
     private static final Logger logger = LogManager.getLogger();
 
+    // fixed size part of the binary encoding of an invocation: caller, callee, value, gas, depth and readOnly
+    private static final int INVOCATION_HEADER_SIZE = Address.LENGTH * 2 + Hash.LENGTH + Long.BYTES + Integer.BYTES + 1;
+    // fixed size part of the binary encoding of a result: reverted, leftOverGas and length of returnData
+    private static final int RESULT_HEADER_SIZE = 1 + Long.BYTES + Integer.BYTES;
+
     protected abstract InvocationResult execute(ExternalInvocation args);
 
     @Override
@@ -22,4 +31,74 @@ public abstract class InvocationCallback extends LibEvmCallback {
         }
         return null;
     }
+
+    /**
+     * Binary variant of invoke(), used by libevm instead of the JSON encoding if available. The given buffer is a view
+     * of native memory that is only valid for the duration of the callback. All integers are big-endian, the invocation
+     * is encoded as: caller (20 bytes), callee (20 bytes), value (32 bytes), gas (uint64), depth (int32), readOnly (1
+     * byte), input (all remaining bytes).
+     * <p>
+     * This is not zero-copy: every field, including the input, is copied once out of the native buffer into the
+     * ExternalInvocation, as it has to outlive the callback. Likewise the result is encoded once into a buffer
+     * allocated on the native side, which libevm copies once more before freeing it. Compared to the JSON encoding
+     * this saves the hex and string conversions and the intermediate Strings on both sides.
+     */
+    InvocationResult invokeBinary(ByteBuffer args) {
+        logger.debug("received binary external contract callback");
+        try {
+            return execute(decodeInvocation(args));
+        } catch (Exception e) {
+            // note: make sure we do not throw any exception here because this callback is called by native code
+            // for diagnostics we log the exception here
+            logger.warn("received invalid binary external contract callback", e);
+        }
+        return null;
+    }
+
+    static ExternalInvocation decodeInvocation(ByteBuffer args) {
+        if (args.remaining() < INVOCATION_HEADER_SIZE) {
+            throw new IllegalArgumentException("invalid binary invocation");
+        }
+        var caller = new byte[Address.LENGTH];
+        var callee = new byte[Address.LENGTH];
+        var value = new byte[Hash.LENGTH];
+        args.get(caller).get(callee).get(value);
+        var gas = args.getLong();
+        var depth = args.getInt();
+        var readOnly = args.get() != 0;
+        var input = new byte[args.remaining()];
+        args.get(input);
+        return new ExternalInvocation(
+            new Address(caller),
+            new Address(callee),
+            new BigInteger(1, value),
+            input,
+            new BigInteger(Long.toUnsignedString(gas)),
+            readOnly,
+            depth
+        );
+    }
+
+    /**
+     * Size of the binary encoding of the given result, see encodeResult().
+     */
+    static int encodedSize(InvocationResult result) {
+        return RESULT_HEADER_SIZE + result.returnData.length + errorBytes(result).length;
+    }
+
+    /**
+     * Binary encoding of a result: reverted (1 byte), leftOverGas (uint64), length of returnData (uint32), returnData,
+     * executionError (all remaining bytes as UTF-8).
+     */
+    static void encodeResult(InvocationResult result, ByteBuffer buffer) {
+        buffer.put((byte) (result.reverted ? 1 : 0));
+        buffer.putLong(result.leftOverGas == null ? 0 : result.leftOverGas.longValue());
+        buffer.putInt(result.returnData.length);
+        buffer.put(result.returnData);
+        buffer.put(errorBytes(result));
+    }
+
+    private static byte[] errorBytes(InvocationResult result) {
+        return result.executionError == null ? new byte[0] : result.executionError.getBytes(StandardCharsets.UTF_8);
+    }
 }
@@ -1,5 +1,7 @@
 package io.horizen.evm;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.type.TypeFactory;
 import com.sun.jna.Callback;
 import com.sun.jna.Native;
@@ -8,6 +10,7 @@ import com.sun.jna.Pointer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 
 final class LibEvm {
@@ -17,6 +20,8 @@ final class LibEvm {
 
     private static native void SetCallbackProxy(CallbackProxy callback);
 
+    private static native void SetBinaryCallbackProxy(BinaryCallbackProxy callback);
+
     private static native void SetupLogging(int callbackHandle, String level);
 
     private static native Pointer Invoke(String method, String args);
@@ -28,6 +33,7 @@ final class LibEvm {
     // the static reference here will also prevent the callback instance from being garbage collected,
     // because without it the only reference might be from native code (libevm) and the GC does not know about that
     private static final CallbackProxy proxy = new CallbackProxy();
+    private static final BinaryCallbackProxy binaryProxy = new BinaryCallbackProxy();
 
     static {
         logger.info("loading libevm for platform {}", Platform.RESOURCE_PREFIX);
@@ -35,6 +41,7 @@ final class LibEvm {
         Native.register("evm");
         // register callback
         SetCallbackProxy(proxy);
+        SetBinaryCallbackProxy(binaryProxy);
         // propagate log4j log level to glog
         SetupLogging(logCallback.handle, GlogCallback.log4jToGlogLevel(logger.getLevel()));
     }
@@ -43,6 +50,16 @@ final class LibEvm {
         // prevent instantiation of this class
     }
 
+    /**
+     * Total number of log records dropped by libevm, see {@link GlogCallback}.
+     */
+    static long getDroppedLogRecords() {
+        return logCallback.getDroppedRecords();
+    }
+
+    // error returned by libevm for methods that do not exist, see interop.ErrMethodNotFound
+    private static final String METHOD_NOT_FOUND = "method not found";
+
     private static class InteropResult<R> {
         public String error;
         public R result;
@@ -79,16 +96,48 @@ final class LibEvm {
      * Invoke function that has arguments and a return value.
      */
     static <R> R invoke(String method, Object args, Class<R> responseType) {
+        return invoke(method, args, TypeFactory.defaultInstance().constructType(responseType));
+    }
+
+    /**
+     * Invoke function that has arguments and a generic return value.
+     */
+    static <R> R invoke(String method, Object args, TypeReference<R> responseType) {
+        return invoke(method, args, TypeFactory.defaultInstance().constructType(responseType));
+    }
+
+    private static <R> R invoke(String method, Object args, JavaType responseType) {
+        var start = System.nanoTime();
         var argsJson = args == null ? null : Converter.toJson(args);
+        var serialized = System.nanoTime();
         var ptr = Invoke(method, argsJson);
         var json = readNativeString(ptr);
-        // build type information to deserialize to generic type InteropResult<R>
-        var type = TypeFactory.defaultInstance().constructParametricType(InteropResult.class, responseType);
-        InteropResult<R> response = Converter.fromJson(json, type);
-        if (response.isError()) {
-            throw new LibEvmException(response.error, method, argsJson);
+        var returned = System.nanoTime();
+        var failed = true;
+        var recordedMethod = method;
+        try {
+            // build type information to deserialize to generic type InteropResult<R>
+            var type = TypeFactory.defaultInstance().constructParametricType(InteropResult.class, responseType);
+            InteropResult<R> response = Converter.fromJson(json, type);
+            if (response.isError()) {
+                if (response.error.startsWith(METHOD_NOT_FOUND)) {
+                    recordedMethod = LibEvmMetrics.UNKNOWN_METHOD;
+                }
+                throw new LibEvmException(response.error, method, argsJson);
+            }
+            failed = false;
+            return response.result;
+        } finally {
+            LibEvmMetrics.recordInvoke(
+                recordedMethod,
+                serialized - start,
+                returned - serialized,
+                System.nanoTime() - returned,
+                argsJson == null ? 0 : argsJson.length(),
+                json == null ? 0 : json.length(),
+                failed
+            );
         }
-        return response.result;
     }
 
     /**
@@ -98,6 +147,13 @@ final class LibEvm {
         return invoke(method, null, responseType);
     }
 
+    /**
+     * Invoke function that has no arguments, but a generic return value.
+     */
+    static <R> R invoke(String method, TypeReference<R> responseType) {
+        return invoke(method, null, responseType);
+    }
+
     /**
      * Invoke function that has arguments, but no return value.
      */
@@ -117,6 +173,7 @@ final class LibEvm {
             try {
                 var callback = CallbackRegistry.get(handle);
                 if (callback == null) return null;
+                LibEvmMetrics.recordCallback(callback);
                 // we do not need to free the Pointer here, as it is freed on the libevm side when the callback returns
                 var result = callback.invoke(msg.getString(0));
                 if (result == null) return null;
@@ -138,4 +195,39 @@ final class LibEvm {
             return null;
         }
     }
+
+    /**
+     * Binary variant of the callback proxy, currently only used for InvocationCallback. The arguments are read directly
+     * from native memory and the result is written directly to a native buffer, prefixed by its length as a big-endian
+     * uint32, without any intermediate JSON or String representation.
+     */
+    private static class BinaryCallbackProxy implements Callback {
+        public Pointer callback(int handle, Pointer args, int length) {
+            try {
+                var callback = CallbackRegistry.get(handle);
+                if (!(callback instanceof InvocationCallback)) {
+                    logger.warn("binary callback is not supported for handle: {}", handle);
+                    return null;
+                }
+                LibEvmMetrics.recordCallback(callback);
+                // we do not need to free the Pointer here, it is owned by libevm and only valid during this call
+                var argsBuffer = length == 0 ? ByteBuffer.allocate(0) : args.getByteBuffer(0, length);
+                var result = ((InvocationCallback) callback).invokeBinary(argsBuffer);
+                if (result == null) return null;
+                var size = InvocationCallback.encodedSize(result);
+                // allocate buffer on native side and encode the result directly into it
+                var buffer = LibEvm.CreateBuffer(Integer.BYTES + size);
+                var resultBuffer = buffer.getByteBuffer(0, Integer.BYTES + size);
+                resultBuffer.putInt(size);
+                InvocationCallback.encodeResult(result, resultBuffer);
+                // note: this buffer is expected to be freed on the native side
+                return buffer;
+            } catch (Exception e) {
+                // note: make sure we do not throw any exception here because this callback is called by native code
+                // for diagnostics we log the exception here
+                logger.warn("error while handling binary callback", e);
+            }
+            return null;
+        }
+    }
 }
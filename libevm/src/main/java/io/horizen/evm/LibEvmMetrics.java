@@ -0,0 +1,186 @@
+package io.horizen.evm;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.horizen.evm.results.MetricsSnapshot;
+import io.horizen.evm.results.RequestStats;
+import io.horizen.evm.results.RuntimeStats;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of all calls into libevm and all callbacks from libevm. Recording only consists of a few atomic increments
+ * per call, so it is always enabled. Metrics can either be polled via {@link #snapshot()} or pushed to a metrics system
+ * by adding a {@link Listener}.
+ */
+public final class LibEvmMetrics {
+    /**
+     * Calls to methods that libevm does not know are all recorded with this name, on both sides, so that the number of
+     * tracked methods stays bounded.
+     */
+    public static final String UNKNOWN_METHOD = "unknown";
+
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final Map<String, MethodRecorder> methods = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> callbacks = new ConcurrentHashMap<>();
+    private static final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * The kind of a callback is the name of the class directly extending LibEvmCallback, e.g. "BlockHashCallback" for
+     * any implementation of a BlockHashCallback.
+     */
+    private static final ClassValue<String> callbackKinds = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            var kind = type;
+            while (kind.getSuperclass() != null && kind.getSuperclass() != LibEvmCallback.class) {
+                kind = kind.getSuperclass();
+            }
+            return kind.getSimpleName();
+        }
+    };
+
+    private LibEvmMetrics() { }
+
+    /**
+     * Receives every recorded call and callback, e.g. to export them to Micrometer or Prometheus. Listeners are called
+     * synchronously on the calling thread, also from within callbacks invoked by native code, so they must be fast
+     * and must not throw.
+     */
+    public interface Listener {
+        /**
+         * Called after every call into libevm, all durations are in nanoseconds.
+         *
+         * @param method          name of the native method, or {@link #UNKNOWN_METHOD} if libevm does not know it
+         * @param serialization   time spent serializing args to JSON
+         * @param nativeCall      time spent in the native call
+         * @param deserialization time spent deserializing the JSON response
+         * @param argsSize        number of characters of the JSON args
+         * @param responseSize    number of characters of the JSON response
+         * @param failed          true if the call failed
+         */
+        void onInvoke(
+            String method,
+            long serialization,
+            long nativeCall,
+            long deserialization,
+            int argsSize,
+            int responseSize,
+            boolean failed
+        );
+
+        /**
+         * Called for every callback from libevm.
+         *
+         * @param kind kind of callback, e.g. "BlockHashCallback"
+         */
+        default void onCallback(String kind) { }
+    }
+
+    public static void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public static void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    private static class MethodRecorder {
+        final LongAdder errors = new LongAdder();
+        final ExponentialHistogram serialization = new ExponentialHistogram();
+        final ExponentialHistogram nativeCall = new ExponentialHistogram();
+        final ExponentialHistogram deserialization = new ExponentialHistogram();
+        final ExponentialHistogram argsSize = new ExponentialHistogram();
+        final ExponentialHistogram responseSize = new ExponentialHistogram();
+    }
+
+    static void recordInvoke(
+        String method,
+        long serialization,
+        long nativeCall,
+        long deserialization,
+        int argsSize,
+        int responseSize,
+        boolean failed
+    ) {
+        var recorder = methods.computeIfAbsent(method, k -> new MethodRecorder());
+        if (failed) recorder.errors.increment();
+        recorder.serialization.record(serialization);
+        recorder.nativeCall.record(nativeCall);
+        recorder.deserialization.record(deserialization);
+        recorder.argsSize.record(argsSize);
+        recorder.responseSize.record(responseSize);
+        for (var listener : listeners) {
+            try {
+                listener.onInvoke(method, serialization, nativeCall, deserialization, argsSize, responseSize, failed);
+            } catch (Exception e) {
+                logger.warn("error in metrics listener", e);
+            }
+        }
+    }
+
+    static void recordCallback(LibEvmCallback callback) {
+        var kind = callbackKinds.get(callback.getClass());
+        callbacks.computeIfAbsent(kind, k -> new LongAdder()).increment();
+        for (var listener : listeners) {
+            try {
+                listener.onCallback(kind);
+            } catch (Exception e) {
+                logger.warn("error in metrics listener", e);
+            }
+        }
+    }
+
+    /**
+     * Get the current metrics. This includes statistics recorded by libevm, which are retrieved with native calls that
+     * are recorded as well.
+     */
+    public static MetricsSnapshot snapshot() {
+        var nativeStats = RequestLog.getStats(false).methods;
+        var handles = new HashMap<String, Integer>();
+        handles.putAll(LibEvm.invoke("HandleStats", new TypeReference<Map<String, Integer>>() { }));
+        handles.put("callbacks", CallbackRegistry.size());
+
+        var methodMetrics = new HashMap<String, MetricsSnapshot.MethodMetrics>();
+        methods.forEach((method, recorder) -> {
+            var serialization = recorder.serialization.snapshot();
+            methodMetrics.put(method, new MetricsSnapshot.MethodMetrics(
+                serialization.count,
+                recorder.errors.sum(),
+                serialization,
+                recorder.nativeCall.snapshot(),
+                recorder.deserialization.snapshot(),
+                recorder.argsSize.snapshot(),
+                recorder.responseSize.snapshot(),
+                nativeStats.get(method)
+            ));
+        });
+        var callbackCounts = new HashMap<String, Long>();
+        callbacks.forEach((kind, count) -> callbackCounts.put(kind, count.sum()));
+        return new MetricsSnapshot(methodMetrics, callbackCounts, handles, LibEvm.getDroppedLogRecords());
+    }
+
+    /**
+     * Get the current counters of the Go runtime inside libevm, e.g. to determine the time spent waiting for locks.
+     */
+    public static RuntimeStats runtimeStats() {
+        return LibEvm.invoke("RuntimeStats", RuntimeStats.class);
+    }
+
+    /**
+     * Clear all recorded metrics, including the statistics recorded by libevm. Handle occupancy and dropped log records
+     * are not affected.
+     */
+    public static void reset() {
+        methods.clear();
+        callbacks.clear();
+        RequestLog.getStats(true);
+    }
+}
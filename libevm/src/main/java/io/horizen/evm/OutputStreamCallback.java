@@ -0,0 +1,29 @@
+package io.horizen.evm;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Callback that writes all data received from libevm as-is to an OutputStream. The stream is not closed by this
+ * callback, it remains in the ownership of the caller.
+ */
+public final class OutputStreamCallback extends LibEvmCallback {
+    private final OutputStream stream;
+
+    OutputStreamCallback(OutputStream stream) {
+        this.stream = stream;
+    }
+
+    @Override
+    public String invoke(String args) {
+        try {
+            stream.write(args.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            // note: make sure we do not throw any exception here because this callback is called by native code,
+            // the error message is passed back to libevm instead
+            return String.format("failed to write to output stream: %s", e.getMessage());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,25 @@
+package io.horizen.evm;
+
+import io.horizen.evm.params.EvmContextParams;
+
+/**
+ * Handle to a copy of an EvmContext that was registered on the native side, see {@link EvmContext#register()}. Pass it
+ * to {@link Evm#applyRegistered(ResourceHandle, Invocation, RegisteredEvmContext)} or one of the other methods of
+ * {@link Evm} with the suffix "Registered" to only send the handle to libevm instead of the whole context. The handle
+ * needs to be released when not in use anymore, call close() - or better - use the try-with-resources syntax.
+ */
+public class RegisteredEvmContext extends ResourceHandle {
+    RegisteredEvmContext(EvmContext context) {
+        super(LibEvm.invoke("EvmContextCreate", context, int.class));
+    }
+
+    @Override
+    public void close() {
+        LibEvm.invoke("EvmContextRemove", new EvmContextParams(handle));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RegisteredEvmContext{handle=%d}", handle);
+    }
+}
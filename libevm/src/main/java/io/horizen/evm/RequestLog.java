@@ -0,0 +1,44 @@
+package io.horizen.evm;
+
+import io.horizen.evm.params.RequestLogParams;
+import io.horizen.evm.params.RequestStatsParams;
+import io.horizen.evm.results.RequestStats;
+
+/**
+ * Controls the sampled request log of libevm and gives access to per-method latency and size histograms of all
+ * invocations. The settings can be changed at any time without reloading the library. Logged requests are written at
+ * the INFO level, including args and response truncated to the configured length.
+ */
+public final class RequestLog {
+    private RequestLog() { }
+
+    /**
+     * Log every n-th invocation.
+     *
+     * @param sampleRate log 1 in sampleRate invocations, 1 logs every invocation
+     * @param maxPayload maximum number of UTF-8 bytes of args and response to include in the log, zero for the default,
+     *                   the payload is cut at the last complete character within the limit
+     */
+    public static void enable(long sampleRate, int maxPayload) {
+        if (sampleRate < 1) {
+            throw new IllegalArgumentException("sample rate must be at least 1");
+        }
+        LibEvm.invoke("RequestLogSetup", new RequestLogParams(sampleRate, maxPayload));
+    }
+
+    /**
+     * Stop logging invocations, statistics are still recorded.
+     */
+    public static void disable() {
+        LibEvm.invoke("RequestLogSetup", new RequestLogParams(0, 0));
+    }
+
+    /**
+     * Get statistics of all invocations since the library was loaded or the last reset.
+     *
+     * @param reset clear statistics after retrieving them
+     */
+    public static RequestStats getStats(boolean reset) {
+        return LibEvm.invoke("RequestStats", new RequestStatsParams(reset), RequestStats.class);
+    }
+}
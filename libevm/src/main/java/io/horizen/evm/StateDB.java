@@ -149,6 +149,17 @@ public class StateDB extends ResourceHandle {
         return LibEvm.invoke("StateGetNonce", new AccountParams(handle, address), BigInteger.class);
     }
 
+    /**
+     * Get account nonce, without the overhead of a BigInteger.
+     *
+     * @param address account address
+     * @return account nonce
+     * @throws IllegalArgumentException if the nonce exceeds Long.MAX_VALUE
+     */
+    public long getNonceLong(Address address) {
+        return LibEvm.invoke("StateGetNonce", new AccountParams(handle, address), long.class);
+    }
+
     /**
      * Set account nonce.
      *
@@ -159,6 +170,19 @@ public class StateDB extends ResourceHandle {
         LibEvm.invoke("StateSetNonce", new NonceParams(handle, address, nonce));
     }
 
+    /**
+     * Set account nonce, without the overhead of a BigInteger.
+     *
+     * @param address account address
+     * @param nonce   value to set account nonce to, must not be negative
+     */
+    public void setNonce(Address address, long nonce) {
+        if (nonce < 0) {
+            throw new IllegalArgumentException("nonce must not be negative");
+        }
+        LibEvm.invoke("StateSetNonce", new NonceParams(handle, address, nonce));
+    }
+
     /**
      * Get account code hash.
      *
@@ -197,6 +221,18 @@ public class StateDB extends ResourceHandle {
         LibEvm.invoke("RefundAdd", new RefundParams(handle, gas), void.class);
     }
 
+    /**
+     * Add gas refund.
+     *
+     * @param gas amount to add to refund counter, must not be negative
+     */
+    public void addRefund(long gas) {
+        if (gas < 0) {
+            throw new IllegalArgumentException("gas must not be negative");
+        }
+        LibEvm.invoke("RefundAdd", new RefundParams(handle, gas), void.class);
+    }
+
     /**
      * Remove gas refund.
      *
@@ -206,6 +242,18 @@ public class StateDB extends ResourceHandle {
         LibEvm.invoke("RefundSub", new RefundParams(handle, gas), void.class);
     }
 
+    /**
+     * Remove gas refund.
+     *
+     * @param gas amount to remove from refund counter, must not be negative
+     */
+    public void subRefund(long gas) {
+        if (gas < 0) {
+            throw new IllegalArgumentException("gas must not be negative");
+        }
+        LibEvm.invoke("RefundSub", new RefundParams(handle, gas), void.class);
+    }
+
     /**
      * Get refunded gas.
      *
@@ -215,6 +263,16 @@ public class StateDB extends ResourceHandle {
         return LibEvm.invoke("RefundGet", new HandleParams(handle), BigInteger.class);
     }
 
+    /**
+     * Get refunded gas, without the overhead of a BigInteger.
+     *
+     * @return refunded gas
+     * @throws IllegalArgumentException if the refund exceeds Long.MAX_VALUE
+     */
+    public long getRefundLong() {
+        return LibEvm.invoke("RefundGet", new HandleParams(handle), long.class);
+    }
+
     /**
      * Read storage trie of given account.
      *
@@ -323,6 +381,25 @@ public class StateDB extends ResourceHandle {
         LibEvm.invoke("AccessSetup", new AccessParams(handle, sender, destination, coinbase, rules));
     }
 
+    /**
+     * Reset and prepare account access list, including the given EIP-2930 access list.
+     *
+     * @param sender      sender account
+     * @param destination destination account
+     * @param coinbase    coinbase of the block, which is warm since EIP-3651 (Shanghai)
+     * @param rules       fork rules of the block
+     * @param accessList  access list of the transaction
+     */
+    public void accessSetup(
+        Address sender,
+        Address destination,
+        Address coinbase,
+        ForkRules rules,
+        AccessTuple[] accessList
+    ) {
+        LibEvm.invoke("AccessSetup", new AccessParams(handle, sender, destination, coinbase, rules, accessList));
+    }
+
     /**
      * Add the given account to the access list.
      *
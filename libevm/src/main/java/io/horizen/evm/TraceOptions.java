@@ -1,8 +1,11 @@
 package io.horizen.evm;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.JsonNode;
 
+import java.util.Objects;
+
 public class TraceOptions {
     public final boolean enableMemory;
     public final boolean disableStack;
@@ -10,7 +13,10 @@ public class TraceOptions {
     public final boolean enableReturnData;
 
     /**
-     * Name of the tracer to use, e.g. "callTracer" or "4byteTracer".
+     * Name of the tracer to use, e.g. "callTracer" or "4byteTracer". Native equivalents of the JavaScript tracers
+     * "opcountTracer", "unigramTracer", "bigramTracer" and "trigramTracer" are available with the suffix "Native",
+     * e.g. "opcountTracerNative", and should be preferred as they are considerably faster. For a gas profile per
+     * opcode use "opGasTracerNative". To aggregate a gas profile across many executions use {@link GasProfiler}.
      */
     public final String tracer;
 
@@ -19,6 +25,20 @@ public class TraceOptions {
      */
     public final JsonNode tracerConfig;
 
+    /**
+     * Optional path to a file the trace is written to by libevm directly, without passing it through the JVM. The
+     * trace is appended to the file in JSON Lines format: the default struct logger writes one line per captured
+     * opcode, all other tracers write their result as a single line when the result is retrieved. In this mode
+     * {@link Tracer#getResult()} returns only the path and the number of bytes written.
+     */
+    public final String traceFile;
+
+    /**
+     * Use a compact binary encoding for the default struct logger, the result can be decoded with
+     * {@link io.horizen.evm.results.CompactTraceResult}. Has no effect when a named tracer is used.
+     */
+    public final boolean compact;
+
     public TraceOptions() {
         enableMemory = false;
         disableStack = false;
@@ -26,15 +46,43 @@ public class TraceOptions {
         enableReturnData = false;
         tracer = null;
         tracerConfig = null;
+        traceFile = null;
+        compact = false;
     }
 
+    public TraceOptions(
+        boolean enableMemory,
+        boolean disableStack,
+        boolean disableStorage,
+        boolean enableReturnData,
+        String tracer,
+        JsonNode tracerConfig
+    ) {
+        this(enableMemory, disableStack, disableStorage, enableReturnData, tracer, tracerConfig, null);
+    }
+
+    public TraceOptions(
+        boolean enableMemory,
+        boolean disableStack,
+        boolean disableStorage,
+        boolean enableReturnData,
+        String tracer,
+        JsonNode tracerConfig,
+        String traceFile
+    ) {
+        this(enableMemory, disableStack, disableStorage, enableReturnData, tracer, tracerConfig, traceFile, false);
+    }
+
+    @JsonCreator
     public TraceOptions(
         @JsonProperty("enableMemory") boolean enableMemory,
         @JsonProperty("disableStack") boolean disableStack,
         @JsonProperty("disableStorage") boolean disableStorage,
         @JsonProperty("enableReturnData") boolean enableReturnData,
         @JsonProperty("tracer") String tracer,
-        @JsonProperty("tracerConfig") JsonNode tracerConfig
+        @JsonProperty("tracerConfig") JsonNode tracerConfig,
+        @JsonProperty("traceFile") String traceFile,
+        @JsonProperty("compact") boolean compact
     ) {
         this.enableMemory = enableMemory;
         this.disableStack = disableStack;
@@ -42,5 +90,36 @@ public class TraceOptions {
         this.enableReturnData = enableReturnData;
         this.tracer = tracer;
         this.tracerConfig = tracerConfig;
+        this.traceFile = traceFile;
+        this.compact = compact;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TraceOptions that = (TraceOptions) o;
+        return enableMemory == that.enableMemory &&
+            disableStack == that.disableStack &&
+            disableStorage == that.disableStorage &&
+            enableReturnData == that.enableReturnData &&
+            compact == that.compact &&
+            Objects.equals(tracer, that.tracer) &&
+            Objects.equals(tracerConfig, that.tracerConfig) &&
+            Objects.equals(traceFile, that.traceFile);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(
+            enableMemory,
+            disableStack,
+            disableStorage,
+            enableReturnData,
+            tracer,
+            tracerConfig,
+            traceFile,
+            compact
+        );
     }
 }
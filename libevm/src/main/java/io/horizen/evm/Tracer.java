@@ -3,22 +3,80 @@ package io.horizen.evm;
 import io.horizen.evm.params.*;
 import io.horizen.evm.results.TracerResult;
 
+import java.io.OutputStream;
 import java.math.BigInteger;
+import java.util.List;
 
 public class Tracer extends ResourceHandle {
+    final TraceOptions options;
+    private final OutputStreamCallback output;
+
     public Tracer(TraceOptions options) {
         super(LibEvm.invoke("TracerCreate", new TracerCreateParams(options), int.class));
+        this.options = options;
+        output = null;
+    }
+
+    /**
+     * Create a tracer that streams the trace to the given OutputStream instead of returning it via getResult(). The
+     * trace is written in chunks while the execution proceeds, so memory usage is bounded regardless of the size of
+     * the trace. The output is JSON Lines with one line per captured opcode. Writing to the stream happens on the
+     * thread executing the traced call and blocks it until the stream accepted the data.
+     * <p>
+     * Only the default struct logger can be streamed: named tracers, see {@link TraceOptions#tracer}, and the compact
+     * encoding build their result in memory and are rejected. To write their result without passing it through the
+     * JVM, use {@link TraceOptions#traceFile} instead.
+     * <p>
+     * The stream is not closed by the tracer, but all buffered data is flushed to it on getResult() and close().
+     *
+     * @param options trace options, must not select a named tracer or the compact encoding
+     * @param output  stream to write the trace to
+     * @throws LibEvmException if the options select a tracer that cannot be streamed
+     */
+    public Tracer(TraceOptions options, OutputStream output) {
+        this(options, new OutputStreamCallback(output));
+    }
+
+    private Tracer(TraceOptions options, OutputStreamCallback output) {
+        super(create(options, output));
+        this.options = options;
+        this.output = output;
+    }
+
+    private static int create(TraceOptions options, OutputStreamCallback output) {
+        try {
+            return LibEvm.invoke("TracerCreate", new TracerCreateParams(options, output), int.class);
+        } catch (RuntimeException e) {
+            // release the callback handle, the tracer is never returned to the caller so nobody else could close it
+            output.close();
+            throw e;
+        }
     }
 
     @Override
     public void close() {
         LibEvm.invoke("TracerRemove", new TracerParams(handle));
+        if (output != null) {
+            output.close();
+        }
     }
 
     public TracerResult getResult() {
         return LibEvm.invoke("TracerResult", new TracerParams(handle), TracerResult.class);
     }
 
+    /**
+     * Discard all captured data so that the tracer can be reused for another execution, e.g. the next transaction of
+     * a block. This is cheaper than closing the tracer and creating a new one: native tracers and the default struct
+     * logger are cleared in place and keep their configuration. JavaScript tracers are recreated internally, which
+     * includes compiling the code again, but the handle stays valid. If the tracer has a trace file, the file is
+     * truncated so that it only contains the next trace. If the tracer has an output stream, data not yet written to
+     * the stream is discarded. The tracer must not be in use by any execution while it is reset.
+     */
+    public void reset() {
+        LibEvm.invoke("TracerReset", new TracerParams(handle));
+    }
+
     // Transaction level
     public void CaptureTxStart(BigInteger gasLimit) {
         LibEvm.invoke("TracerCaptureTxStart", new TracerTxStartParams(handle, gasLimit));
@@ -70,4 +128,15 @@ public class Tracer extends ResourceHandle {
     public void CaptureExit(byte[] output, BigInteger gasUsed, String err) {
         LibEvm.invoke("TracerCaptureExit", new TracerExitParams(handle, output, gasUsed, err));
     }
+
+    /**
+     * Capture a sequence of call frame events in a single call to libevm, e.g. a whole sub-tree of calls performed by
+     * a native contract. The events are captured in the given order, exactly as if CaptureEnter and CaptureExit were
+     * called for each of them.
+     *
+     * @param frames sequence of enter and exit events
+     */
+    public void captureFrames(List<FrameEvent> frames) {
+        LibEvm.invoke("TracerCaptureFrames", new TracerFramesParams(handle, frames));
+    }
 }
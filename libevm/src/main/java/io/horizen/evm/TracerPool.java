@@ -0,0 +1,108 @@
+package io.horizen.evm;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Pool of prepared tracers keyed by their TraceOptions, e.g. to trace all transactions of a block without creating and
+ * configuring a new tracer for each of them. Released tracers are reset and kept for the next acquire() with equal
+ * options, up to a limit of idle tracers per set of options. All methods are thread-safe.
+ * <p>
+ * Only native tracers and the default struct logger are reset in place and actually save the setup cost. JavaScript
+ * tracers are recreated on every reset, which includes compiling the code again, so pooling them gives no benefit
+ * over creating a new tracer. Options with a trace file cannot be pooled, as tracers with equal options would write
+ * to the same file.
+ */
+public class TracerPool implements AutoCloseable {
+    private final int maxIdle;
+    private final Map<TraceOptions, ArrayDeque<Tracer>> idle = new HashMap<>();
+    private final Set<Tracer> acquired = Collections.newSetFromMap(new IdentityHashMap<>());
+    private boolean closed;
+
+    /**
+     * Create a pool that keeps up to 4 idle tracers per set of options.
+     */
+    public TracerPool() {
+        this(4);
+    }
+
+    /**
+     * Create a pool that keeps up to the given number of idle tracers per set of options.
+     *
+     * @param maxIdle maximum number of idle tracers per set of options
+     */
+    public TracerPool(int maxIdle) {
+        if (maxIdle < 1) {
+            throw new IllegalArgumentException("maximum number of idle tracers must be at least 1");
+        }
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * Get a tracer for the given options, either a previously released one or a new instance. The tracer must be
+     * returned via release() after use instead of being closed.
+     *
+     * @param options trace options, must not have a trace file
+     * @return tracer without any captured data
+     * @throws IllegalArgumentException if the options have a trace file
+     */
+    public synchronized Tracer acquire(TraceOptions options) {
+        if (closed) {
+            throw new IllegalStateException("tracer pool is closed");
+        }
+        if (options.traceFile != null) {
+            throw new IllegalArgumentException("tracers with a trace file cannot be pooled");
+        }
+        var tracers = idle.get(options);
+        var tracer = tracers == null ? null : tracers.poll();
+        if (tracer == null) {
+            tracer = new Tracer(options);
+        }
+        acquired.add(tracer);
+        return tracer;
+    }
+
+    /**
+     * Return a tracer acquired from this pool. The tracer is reset and kept for reuse, or closed if there are already
+     * enough idle tracers with the same options. The tracer must not be used anymore after it was released.
+     *
+     * @param tracer tracer acquired from this pool
+     */
+    public synchronized void release(Tracer tracer) {
+        if (!acquired.remove(tracer)) {
+            throw new IllegalArgumentException("tracer was not acquired from this pool");
+        }
+        if (closed) {
+            tracer.close();
+            return;
+        }
+        var tracers = idle.computeIfAbsent(tracer.options, k -> new ArrayDeque<>());
+        if (tracers.size() >= maxIdle) {
+            tracer.close();
+            return;
+        }
+        try {
+            tracer.reset();
+        } catch (LibEvmException e) {
+            tracer.close();
+            throw e;
+        }
+        tracers.push(tracer);
+    }
+
+    /**
+     * Close all idle tracers. Tracers that are currently acquired are closed when they are released.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        for (var tracers : idle.values()) {
+            tracers.forEach(Tracer::close);
+        }
+        idle.clear();
+    }
+}
@@ -0,0 +1,49 @@
+package io.horizen.evm;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigInteger;
+
+/**
+ * Invocation along with the transaction it belongs to, see {@link Evm#traceBlock}.
+ */
+public class TransactionInvocation extends Invocation {
+    public final Hash txHash;
+    public final int txIndex;
+
+    /**
+     * Optional EIP-2930 access list of the transaction.
+     */
+    public final AccessTuple[] accessList;
+
+    public TransactionInvocation(
+        @JsonProperty("caller") Address caller,
+        @JsonProperty("callee") Address callee,
+        @JsonProperty("value") BigInteger value,
+        @JsonProperty("input") byte[] input,
+        @JsonProperty("gas") BigInteger gas,
+        @JsonProperty("readOnly") boolean readOnly,
+        @JsonProperty("txHash") Hash txHash,
+        @JsonProperty("txIndex") int txIndex,
+        @JsonProperty("accessList") AccessTuple[] accessList
+    ) {
+        super(caller, callee, value, input, gas, readOnly);
+        this.txHash = txHash;
+        this.txIndex = txIndex;
+        this.accessList = accessList;
+    }
+
+    public TransactionInvocation(Invocation invocation, Hash txHash, int txIndex, AccessTuple[] accessList) {
+        this(
+            invocation.caller,
+            invocation.callee,
+            invocation.value,
+            invocation.input,
+            invocation.gas,
+            invocation.readOnly,
+            txHash,
+            txIndex,
+            accessList
+        );
+    }
+}
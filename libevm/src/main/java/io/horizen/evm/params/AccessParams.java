@@ -1,5 +1,6 @@
 package io.horizen.evm.params;
 
+import io.horizen.evm.AccessTuple;
 import io.horizen.evm.Address;
 import io.horizen.evm.ForkRules;
 
@@ -7,11 +8,24 @@ public class AccessParams extends AccountParams {
     public final Address destination;
     public final Address coinbase;
     public final ForkRules rules;
+    public final AccessTuple[] accessList;
 
     public AccessParams(int handle, Address sender, Address destination, Address coinbase, ForkRules rules) {
+        this(handle, sender, destination, coinbase, rules, null);
+    }
+
+    public AccessParams(
+        int handle,
+        Address sender,
+        Address destination,
+        Address coinbase,
+        ForkRules rules,
+        AccessTuple[] accessList
+    ) {
         super(handle, sender);
         this.destination = destination;
         this.coinbase = coinbase;
         this.rules = rules;
+        this.accessList = accessList;
     }
 }
@@ -0,0 +1,10 @@
+package io.horizen.evm.params;
+
+public class DatabaseReadTimingParams extends DatabaseParams {
+    public final boolean enabled;
+
+    public DatabaseReadTimingParams(int databaseHandle, boolean enabled) {
+        super(databaseHandle);
+        this.enabled = enabled;
+    }
+}
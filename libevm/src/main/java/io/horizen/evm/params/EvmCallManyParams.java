@@ -0,0 +1,37 @@
+package io.horizen.evm.params;
+
+import io.horizen.evm.EvmContext;
+import io.horizen.evm.Hash;
+import io.horizen.evm.Invocation;
+
+public class EvmCallManyParams extends DatabaseParams {
+    public final Hash root;
+    public final Invocation[] invocations;
+    public final EvmContext context;
+    /**
+     * Handle of a registered context, given instead of the context.
+     */
+    public final Integer contextHandle;
+
+    public EvmCallManyParams(int databaseHandle, Hash root, Invocation[] invocations, EvmContext context) {
+        this(databaseHandle, root, invocations, context, null);
+    }
+
+    public EvmCallManyParams(int databaseHandle, Hash root, Invocation[] invocations, int contextHandle) {
+        this(databaseHandle, root, invocations, null, contextHandle);
+    }
+
+    private EvmCallManyParams(
+        int databaseHandle,
+        Hash root,
+        Invocation[] invocations,
+        EvmContext context,
+        Integer contextHandle
+    ) {
+        super(databaseHandle);
+        this.root = root;
+        this.invocations = invocations;
+        this.context = context;
+        this.contextHandle = contextHandle;
+    }
+}
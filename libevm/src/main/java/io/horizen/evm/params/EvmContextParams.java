@@ -0,0 +1,9 @@
+package io.horizen.evm.params;
+
+public class EvmContextParams {
+    public final int contextHandle;
+
+    public EvmContextParams(int contextHandle) {
+        this.contextHandle = contextHandle;
+    }
+}
@@ -0,0 +1,20 @@
+package io.horizen.evm.params;
+
+import io.horizen.evm.EvmContext;
+import io.horizen.evm.Invocation;
+
+import java.math.BigInteger;
+
+public class EvmEstimateGasParams extends EvmParams {
+    public final BigInteger cap;
+
+    public EvmEstimateGasParams(int handle, Invocation invocation, EvmContext context, BigInteger cap) {
+        super(handle, invocation, context);
+        this.cap = cap;
+    }
+
+    public EvmEstimateGasParams(int handle, Invocation invocation, int contextHandle, BigInteger cap) {
+        super(handle, invocation, contextHandle, false);
+        this.cap = cap;
+    }
+}
@@ -6,10 +6,35 @@ import io.horizen.evm.Invocation;
 public class EvmParams extends HandleParams {
     public final Invocation invocation;
     public final EvmContext context;
+    /**
+     * Handle of a registered context, given instead of the context.
+     */
+    public final Integer contextHandle;
+    public final boolean stats;
 
     public EvmParams(int handle, Invocation invocation, EvmContext context) {
+        this(handle, invocation, context, false);
+    }
+
+    public EvmParams(int handle, Invocation invocation, EvmContext context, boolean stats) {
+        this(handle, invocation, context, null, stats);
+    }
+
+    public EvmParams(int handle, Invocation invocation, int contextHandle, boolean stats) {
+        this(handle, invocation, null, contextHandle, stats);
+    }
+
+    private EvmParams(
+        int handle,
+        Invocation invocation,
+        EvmContext context,
+        Integer contextHandle,
+        boolean stats
+    ) {
         super(handle);
         this.invocation = invocation;
         this.context = context;
+        this.contextHandle = contextHandle;
+        this.stats = stats;
     }
 }
@@ -0,0 +1,55 @@
+package io.horizen.evm.params;
+
+import io.horizen.evm.EvmContext;
+import io.horizen.evm.Hash;
+import io.horizen.evm.TraceOptions;
+import io.horizen.evm.TransactionInvocation;
+
+import java.util.List;
+
+public class EvmTraceBlockParams extends DatabaseParams {
+    public final Hash root;
+    public final List<TransactionInvocation> transactions;
+    public final EvmContext context;
+    /**
+     * Handle of a registered context, given instead of the context.
+     */
+    public final Integer contextHandle;
+    public final TraceOptions traceOptions;
+
+    public EvmTraceBlockParams(
+        int databaseHandle,
+        Hash root,
+        List<TransactionInvocation> transactions,
+        EvmContext context,
+        TraceOptions traceOptions
+    ) {
+        this(databaseHandle, root, transactions, context, null, traceOptions);
+    }
+
+    public EvmTraceBlockParams(
+        int databaseHandle,
+        Hash root,
+        List<TransactionInvocation> transactions,
+        int contextHandle,
+        TraceOptions traceOptions
+    ) {
+        this(databaseHandle, root, transactions, null, contextHandle, traceOptions);
+    }
+
+    private EvmTraceBlockParams(
+        int databaseHandle,
+        Hash root,
+        List<TransactionInvocation> transactions,
+        EvmContext context,
+        Integer contextHandle,
+        TraceOptions traceOptions
+    ) {
+        super(databaseHandle);
+        this.root = root;
+        this.transactions = transactions;
+        this.context = context;
+        this.contextHandle = contextHandle;
+        this.traceOptions = traceOptions;
+    }
+}
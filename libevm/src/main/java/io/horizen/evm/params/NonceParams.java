@@ -1,13 +1,23 @@
 package io.horizen.evm.params;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import io.horizen.evm.Address;
+import io.horizen.evm.utils.Uint64Serializer;
 
 import java.math.BigInteger;
 
 public class NonceParams extends AccountParams {
-    public final BigInteger nonce;
+    /**
+     * Nonce as unsigned 64-bit integer.
+     */
+    @JsonSerialize(using = Uint64Serializer.class)
+    public final long nonce;
 
     public NonceParams(int handle, Address address, BigInteger nonce) {
+        this(handle, address, Uint64Serializer.toLong(nonce));
+    }
+
+    public NonceParams(int handle, Address address, long nonce) {
         super(handle, address);
         this.nonce = nonce;
     }
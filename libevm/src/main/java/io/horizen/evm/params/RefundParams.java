@@ -1,11 +1,22 @@
 package io.horizen.evm.params;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import io.horizen.evm.utils.Uint64Serializer;
+
 import java.math.BigInteger;
 
 public class RefundParams extends HandleParams {
-    public final BigInteger gas;
+    /**
+     * Gas as unsigned 64-bit integer.
+     */
+    @JsonSerialize(using = Uint64Serializer.class)
+    public final long gas;
 
     public RefundParams(int handle, BigInteger gas) {
+        this(handle, Uint64Serializer.toLong(gas));
+    }
+
+    public RefundParams(int handle, long gas) {
         super(handle);
         this.gas = gas;
     }
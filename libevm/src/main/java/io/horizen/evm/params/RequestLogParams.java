@@ -0,0 +1,11 @@
+package io.horizen.evm.params;
+
+public class RequestLogParams {
+    public final long sampleRate;
+    public final int maxPayload;
+
+    public RequestLogParams(long sampleRate, int maxPayload) {
+        this.sampleRate = sampleRate;
+        this.maxPayload = maxPayload;
+    }
+}
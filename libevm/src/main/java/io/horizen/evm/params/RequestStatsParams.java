@@ -0,0 +1,9 @@
+package io.horizen.evm.params;
+
+public class RequestStatsParams {
+    public final boolean reset;
+
+    public RequestStatsParams(boolean reset) {
+        this.reset = reset;
+    }
+}
@@ -1,13 +1,20 @@
 package io.horizen.evm.params;
 
 import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import io.horizen.evm.OutputStreamCallback;
 import io.horizen.evm.TraceOptions;
 
 public class TracerCreateParams {
     @JsonUnwrapped
     public final TraceOptions traceOptions;
+    public final OutputStreamCallback output;
 
     public TracerCreateParams(TraceOptions traceOptions) {
+        this(traceOptions, null);
+    }
+
+    public TracerCreateParams(TraceOptions traceOptions, OutputStreamCallback output) {
         this.traceOptions = traceOptions;
+        this.output = output;
     }
 }
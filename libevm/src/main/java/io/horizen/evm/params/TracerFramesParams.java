@@ -0,0 +1,14 @@
+package io.horizen.evm.params;
+
+import io.horizen.evm.FrameEvent;
+
+import java.util.List;
+
+public class TracerFramesParams extends TracerParams {
+    public final List<FrameEvent> frames;
+
+    public TracerFramesParams(int tracerHandle, List<FrameEvent> frames) {
+        super(tracerHandle);
+        this.frames = frames;
+    }
+}
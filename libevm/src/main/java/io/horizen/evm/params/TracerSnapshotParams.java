@@ -0,0 +1,10 @@
+package io.horizen.evm.params;
+
+public class TracerSnapshotParams extends TracerParams {
+    public final boolean reset;
+
+    public TracerSnapshotParams(int tracerHandle, boolean reset) {
+        super(tracerHandle);
+        this.reset = reset;
+    }
+}
@@ -0,0 +1,26 @@
+package io.horizen.evm.results;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.horizen.evm.AccessTuple;
+
+import java.math.BigInteger;
+import java.util.Objects;
+
+public class AccessListResult {
+    public final AccessTuple[] accessList;
+    public final BigInteger gasUsed;
+    public final String executionError;
+    public final boolean reverted;
+
+    public AccessListResult(
+        @JsonProperty("accessList") AccessTuple[] accessList,
+        @JsonProperty("gasUsed") BigInteger gasUsed,
+        @JsonProperty("executionError") String executionError,
+        @JsonProperty("reverted") boolean reverted
+    ) {
+        this.accessList = Objects.requireNonNullElse(accessList, new AccessTuple[0]);
+        this.gasUsed = gasUsed;
+        this.executionError = Objects.requireNonNullElse(executionError, "");
+        this.reverted = reverted;
+    }
+}
@@ -0,0 +1,163 @@
+package io.horizen.evm.results;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Result of the default struct logger using the compact binary encoding, see TraceOptions.compact. The struct logs are
+ * decoded lazily while iterating, so only the current step has to be kept in memory.
+ */
+public class CompactTraceResult implements Iterable<StructLog> {
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int FLAG_ERROR = 1;
+    private static final int FLAG_STACK = 1 << 1;
+    private static final int FLAG_MEMORY = 1 << 2;
+    private static final int FLAG_STORAGE = 1 << 3;
+    private static final int FLAG_RETURN_DATA = 1 << 4;
+
+    private static final int WORD_LENGTH = 32;
+
+    public final long gas;
+    public final boolean failed;
+    public final byte[] returnValue;
+    public final long steps;
+    private final byte[] structLogs;
+
+    public CompactTraceResult(long gas, boolean failed, byte[] returnValue, long steps, byte[] structLogs) {
+        if (structLogs == null || structLogs.length == 0 || structLogs[0] != FORMAT_VERSION) {
+            throw new IllegalArgumentException("unsupported compact struct log format");
+        }
+        this.gas = gas;
+        this.failed = failed;
+        this.returnValue = Objects.requireNonNullElse(returnValue, new byte[0]);
+        this.steps = steps;
+        this.structLogs = structLogs;
+    }
+
+    /**
+     * Parse the result of a tracer created with the compact option.
+     */
+    public static CompactTraceResult from(TracerResult tracerResult) {
+        var result = tracerResult.result;
+        try {
+            return new CompactTraceResult(
+                result.path("gas").asLong(),
+                result.path("failed").asBoolean(),
+                result.path("returnValue").binaryValue(),
+                result.path("steps").asLong(),
+                result.path("structLogs").binaryValue()
+            );
+        } catch (IOException e) {
+            throw new IllegalArgumentException("invalid compact trace result", e);
+        }
+    }
+
+    /**
+     * Size of the encoded struct logs in bytes.
+     */
+    public int size() {
+        return structLogs.length;
+    }
+
+    @Override
+    public Iterator<StructLog> iterator() {
+        return new Decoder(ByteBuffer.wrap(structLogs, 1, structLogs.length - 1));
+    }
+
+    private static class Decoder implements Iterator<StructLog> {
+        private final ByteBuffer buffer;
+        private long pc;
+        private long gas;
+        private BigInteger[] stack = new BigInteger[0];
+        private byte[] memory = new byte[0];
+        private byte[] returnData = new byte[0];
+
+        private Decoder(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return buffer.hasRemaining();
+        }
+
+        @Override
+        public StructLog next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            var op = buffer.get() & 0xff;
+            var flags = buffer.get() & 0xff;
+            pc += readVarint();
+            gas += readVarint();
+            var gasCost = readUvarint();
+            var depth = (int) readUvarint();
+            var refund = readUvarint();
+            if ((flags & FLAG_STACK) != 0) {
+                var removed = (int) readUvarint();
+                var pushed = (int) readUvarint();
+                var keep = stack.length - removed;
+                stack = Arrays.copyOf(stack, keep + pushed);
+                for (int i = keep; i < stack.length; i++) {
+                    stack[i] = readWord();
+                }
+            }
+            if ((flags & FLAG_MEMORY) != 0) {
+                memory = Arrays.copyOf(memory, (int) readUvarint());
+                var index = 0;
+                for (var changed = readUvarint(); changed > 0; changed--) {
+                    index += (int) readUvarint();
+                    buffer.get(memory, index * WORD_LENGTH, WORD_LENGTH);
+                }
+            }
+            BigInteger storageKey = null;
+            BigInteger storageValue = null;
+            if ((flags & FLAG_STORAGE) != 0) {
+                storageKey = readWord();
+                storageValue = readWord();
+            }
+            if ((flags & FLAG_RETURN_DATA) != 0) {
+                returnData = readBytes();
+            }
+            String error = null;
+            if ((flags & FLAG_ERROR) != 0) {
+                error = new String(readBytes(), StandardCharsets.UTF_8);
+            }
+            return new StructLog(
+                pc, op, gas, gasCost, depth, refund, stack, memory, storageKey, storageValue, returnData, error);
+        }
+
+        private long readUvarint() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                var b = buffer.get();
+                value |= (long) (b & 0x7f) << shift;
+                if ((b & 0x80) == 0) return value;
+            }
+        }
+
+        private long readVarint() {
+            // zig-zag decoding, see encoding/binary in Go
+            var value = readUvarint();
+            var decoded = value >>> 1;
+            return (value & 1) != 0 ? ~decoded : decoded;
+        }
+
+        private BigInteger readWord() {
+            var bytes = new byte[buffer.get() & 0xff];
+            buffer.get(bytes);
+            return new BigInteger(1, bytes);
+        }
+
+        private byte[] readBytes() {
+            var bytes = new byte[(int) readUvarint()];
+            buffer.get(bytes);
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package io.horizen.evm.results;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.horizen.evm.Database;
+
+/**
+ * Counters of all operations on the underlying key-value store of a database since it was opened, all durations are
+ * in nanoseconds.
+ */
+public class DatabaseStats {
+    /**
+     * Total number of values read, i.e. that were not served from a cache.
+     */
+    public final long reads;
+
+    /**
+     * Number of reads for keys that do not exist.
+     */
+    public final long readMisses;
+
+    public final long readBytes;
+
+    /**
+     * Time spent reading, only includes reads while read timing was enabled, see {@link Database#setReadTiming}, or
+     * during invocations that requested execution stats.
+     */
+    public final long readTime;
+
+    /**
+     * Number of trie nodes read, i.e. misses of the trie node cache.
+     */
+    public final long trieNodeReads;
+
+    /**
+     * Number of contract codes read, i.e. misses of the code cache.
+     */
+    public final long codeReads;
+
+    public final long writes;
+    public final long writeBytes;
+
+    /**
+     * Number of state commits.
+     */
+    public final long commits;
+
+    public final long commitTime;
+
+    public DatabaseStats(
+        @JsonProperty("reads") long reads,
+        @JsonProperty("readMisses") long readMisses,
+        @JsonProperty("readBytes") long readBytes,
+        @JsonProperty("readTime") long readTime,
+        @JsonProperty("trieNodeReads") long trieNodeReads,
+        @JsonProperty("codeReads") long codeReads,
+        @JsonProperty("writes") long writes,
+        @JsonProperty("writeBytes") long writeBytes,
+        @JsonProperty("commits") long commits,
+        @JsonProperty("commitTime") long commitTime
+    ) {
+        this.reads = reads;
+        this.readMisses = readMisses;
+        this.readBytes = readBytes;
+        this.readTime = readTime;
+        this.trieNodeReads = trieNodeReads;
+        this.codeReads = codeReads;
+        this.writes = writes;
+        this.writeBytes = writeBytes;
+        this.commits = commits;
+        this.commitTime = commitTime;
+    }
+}
@@ -0,0 +1,25 @@
+package io.horizen.evm.results;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigInteger;
+import java.util.Objects;
+
+public class EstimateGasResult {
+    public final BigInteger gas;
+    public final byte[] returnData;
+    public final String executionError;
+    public final boolean reverted;
+
+    public EstimateGasResult(
+        @JsonProperty("gas") BigInteger gas,
+        @JsonProperty("returnData") byte[] returnData,
+        @JsonProperty("executionError") String executionError,
+        @JsonProperty("reverted") boolean reverted
+    ) {
+        this.gas = gas;
+        this.returnData = Objects.requireNonNullElse(returnData, new byte[0]);
+        this.executionError = Objects.requireNonNullElse(executionError, "");
+        this.reverted = reverted;
+    }
+}
@@ -0,0 +1,66 @@
+package io.horizen.evm.results;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Measurements taken during a single invocation, all durations are in nanoseconds. Database counters are shared by all
+ * users of a database, if the database is used concurrently they also include operations of other invocations.
+ */
+public class ExecutionStats {
+    /**
+     * Total execution time of the invocation.
+     */
+    public final long time;
+
+    /**
+     * Time spent reading accounts from the state, including cached and database reads.
+     */
+    public final long accountReadTime;
+
+    /**
+     * Time spent reading storage slots from the state, including cached and database reads.
+     */
+    public final long storageReadTime;
+
+    /**
+     * Number of values read from the database, i.e. that were not served from a cache.
+     */
+    public final long databaseReads;
+
+    public final long databaseReadTime;
+
+    /**
+     * Number of trie nodes read from the database, i.e. misses of the trie node cache.
+     */
+    public final long trieNodeReads;
+
+    /**
+     * Number of contract codes read from the database, i.e. misses of the code cache.
+     */
+    public final long codeReads;
+
+    public ExecutionStats(
+        @JsonProperty("time") long time,
+        @JsonProperty("accountReadTime") long accountReadTime,
+        @JsonProperty("storageReadTime") long storageReadTime,
+        @JsonProperty("databaseReads") long databaseReads,
+        @JsonProperty("databaseReadTime") long databaseReadTime,
+        @JsonProperty("trieNodeReads") long trieNodeReads,
+        @JsonProperty("codeReads") long codeReads
+    ) {
+        this.time = time;
+        this.accountReadTime = accountReadTime;
+        this.storageReadTime = storageReadTime;
+        this.databaseReads = databaseReads;
+        this.databaseReadTime = databaseReadTime;
+        this.trieNodeReads = trieNodeReads;
+        this.codeReads = codeReads;
+    }
+
+    /**
+     * Time not spent loading accounts and storage, i.e. mostly interpretation.
+     */
+    public long getExecutionTime() {
+        return Math.max(0, time - accountReadTime - storageReadTime);
+    }
+}
@@ -0,0 +1,98 @@
+package io.horizen.evm.results;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.horizen.evm.Address;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Aggregated gas profile of all executions captured by a {@link io.horizen.evm.GasProfiler}. If sampling is enabled
+ * only every n-th step is recorded, i.e. counts and gas are approximately 1/sampleRate of the actual values.
+ */
+public class GasProfile {
+    public final long sampleRate;
+
+    /**
+     * Total number of executed steps.
+     */
+    public final long steps;
+
+    /**
+     * Number of steps that were recorded.
+     */
+    public final long sampled;
+
+    /**
+     * Number of recorded steps that could not be attributed to a contract or code location because the configured
+     * limits were reached. These steps are still included in the opcode counters.
+     */
+    public final long dropped;
+
+    /**
+     * Counters per opcode name, e.g. "SSTORE".
+     */
+    public final Map<String, Counter> opcodes;
+
+    /**
+     * Counters per contract, for delegate calls the steps are attributed to the contract the code belongs to.
+     */
+    public final Map<Address, Counter> contracts;
+
+    /**
+     * Counters per code location, in no particular order.
+     */
+    public final Location[] locations;
+
+    public GasProfile(
+        @JsonProperty("sampleRate") long sampleRate,
+        @JsonProperty("steps") long steps,
+        @JsonProperty("sampled") long sampled,
+        @JsonProperty("dropped") long dropped,
+        @JsonProperty("opcodes") Map<String, Counter> opcodes,
+        @JsonProperty("contracts") Map<Address, Counter> contracts,
+        @JsonProperty("locations") Location[] locations
+    ) {
+        this.sampleRate = sampleRate;
+        this.steps = steps;
+        this.sampled = sampled;
+        this.dropped = dropped;
+        this.opcodes = Objects.requireNonNullElse(opcodes, Map.of());
+        this.contracts = Objects.requireNonNullElse(contracts, Map.of());
+        this.locations = Objects.requireNonNullElse(locations, new Location[0]);
+    }
+
+    public static class Counter {
+        public final long count;
+
+        /**
+         * Accumulated gas cost, opcodes that call or create other contracts do not include the gas passed to the
+         * callee.
+         */
+        public final long gas;
+
+        public Counter(@JsonProperty("count") long count, @JsonProperty("gas") long gas) {
+            this.count = count;
+            this.gas = gas;
+        }
+    }
+
+    public static class Location extends Counter {
+        public final Address address;
+        public final long pc;
+        public final String op;
+
+        public Location(
+            @JsonProperty("address") Address address,
+            @JsonProperty("pc") long pc,
+            @JsonProperty("op") String op,
+            @JsonProperty("count") long count,
+            @JsonProperty("gas") long gas
+        ) {
+            super(count, gas);
+            this.address = address;
+            this.pc = pc;
+            this.op = op;
+        }
+    }
+}
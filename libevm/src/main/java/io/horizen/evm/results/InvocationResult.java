@@ -1,29 +1,51 @@
 package io.horizen.evm.results;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import io.horizen.evm.Address;
+import io.horizen.evm.utils.Uint64Serializer;
 
 import java.math.BigInteger;
 import java.util.Objects;
 
 public class InvocationResult {
     public final byte[] returnData;
+    @JsonSerialize(using = Uint64Serializer.class)
     public final BigInteger leftOverGas;
     public final String executionError;
     public final boolean reverted;
     public final Address contractAddress;
 
+    /**
+     * Measurements taken during the invocation, only available if requested.
+     */
+    public final ExecutionStats stats;
+
+    public InvocationResult(
+        byte[] returnData,
+        BigInteger leftOverGas,
+        String executionError,
+        boolean reverted,
+        Address contractAddress
+    ) {
+        this(returnData, leftOverGas, executionError, reverted, contractAddress, null);
+    }
+
+    @JsonCreator
     public InvocationResult(
         @JsonProperty("returnData") byte[] returnData,
         @JsonProperty("leftOverGas") BigInteger leftOverGas,
         @JsonProperty("executionError") String executionError,
         @JsonProperty("reverted") boolean reverted,
-        @JsonProperty("contractAddress") Address contractAddress
+        @JsonProperty("contractAddress") Address contractAddress,
+        @JsonProperty("stats") ExecutionStats stats
     ) {
         this.returnData = Objects.requireNonNullElse(returnData, new byte[0]);
         this.leftOverGas = leftOverGas;
         this.executionError = executionError;
         this.reverted = reverted;
         this.contractAddress = contractAddress;
+        this.stats = stats;
     }
 }
@@ -0,0 +1,98 @@
+package io.horizen.evm.results;
+
+import java.util.Map;
+
+/**
+ * Point-in-time view of the metrics recorded for calls into libevm, see {@link io.horizen.evm.LibEvmMetrics}.
+ */
+public class MetricsSnapshot {
+    /**
+     * Metrics per native method, only methods that were invoked at least once are included.
+     */
+    public final Map<String, MethodMetrics> methods;
+
+    /**
+     * Number of callbacks from libevm per kind of callback, e.g. "BlockHashCallback".
+     */
+    public final Map<String, Long> callbacks;
+
+    /**
+     * Number of objects currently held per handle table, e.g. "statedbs", including registered "callbacks".
+     */
+    public final Map<String, Integer> handles;
+
+    /**
+     * Total number of log records dropped by libevm because they could not be forwarded fast enough.
+     */
+    public final long droppedLogRecords;
+
+    public MetricsSnapshot(
+        Map<String, MethodMetrics> methods,
+        Map<String, Long> callbacks,
+        Map<String, Integer> handles,
+        long droppedLogRecords
+    ) {
+        this.methods = methods;
+        this.callbacks = callbacks;
+        this.handles = handles;
+        this.droppedLogRecords = droppedLogRecords;
+    }
+
+    /**
+     * Metrics of a single native method as seen from Java. All durations are in nanoseconds, payload sizes are the
+     * number of characters of the JSON args and response.
+     */
+    public static class MethodMetrics {
+        public final long calls;
+
+        /**
+         * Number of calls that failed, either with an error returned by libevm or an invalid response.
+         */
+        public final long errors;
+
+        /**
+         * Time spent serializing args to JSON.
+         */
+        public final RequestStats.Histogram serialization;
+
+        /**
+         * Time spent in the native call, including copying the response from native memory.
+         */
+        public final RequestStats.Histogram nativeCall;
+
+        /**
+         * Time spent deserializing the JSON response.
+         */
+        public final RequestStats.Histogram deserialization;
+
+        public final RequestStats.Histogram argsSize;
+        public final RequestStats.Histogram responseSize;
+
+        /**
+         * Statistics recorded by libevm itself, e.g. the time spent inside the library in microseconds. The difference
+         * to nativeCall is the overhead of JNA and the conversion of strings. May be null if libevm did not record
+         * the method yet.
+         */
+        public final RequestStats.MethodStats execution;
+
+        public MethodMetrics(
+            long calls,
+            long errors,
+            RequestStats.Histogram serialization,
+            RequestStats.Histogram nativeCall,
+            RequestStats.Histogram deserialization,
+            RequestStats.Histogram argsSize,
+            RequestStats.Histogram responseSize,
+            RequestStats.MethodStats execution
+        ) {
+            this.calls = calls;
+            this.errors = errors;
+            this.serialization = serialization;
+            this.nativeCall = nativeCall;
+            this.deserialization = deserialization;
+            this.argsSize = argsSize;
+            this.responseSize = responseSize;
+            this.execution = execution;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package io.horizen.evm.results;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Latency and size histograms of native invocations per method, as recorded by libevm.
+ */
+public class RequestStats {
+    /**
+     * Statistics per method name, only methods that were invoked at least once are included.
+     */
+    public final Map<String, MethodStats> methods;
+
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public RequestStats(Map<String, MethodStats> methods) {
+        this.methods = Objects.requireNonNullElse(methods, Map.of());
+    }
+
+    public static class MethodStats {
+        /**
+         * Number of invocations that returned an error.
+         */
+        public final long errors;
+
+        /**
+         * Time spent in libevm in microseconds, including deserialization of args and serialization of the result.
+         */
+        public final Histogram latency;
+
+        /**
+         * Length of the JSON args in bytes.
+         */
+        public final Histogram argsSize;
+
+        /**
+         * Length of the JSON response in bytes.
+         */
+        public final Histogram resultSize;
+
+        public MethodStats(
+            @JsonProperty("errors") long errors,
+            @JsonProperty("latency") Histogram latency,
+            @JsonProperty("argsSize") Histogram argsSize,
+            @JsonProperty("resultSize") Histogram resultSize
+        ) {
+            this.errors = errors;
+            this.latency = latency;
+            this.argsSize = argsSize;
+            this.resultSize = resultSize;
+        }
+
+        /**
+         * Total number of invocations.
+         */
+        public long getCount() {
+            return latency.count;
+        }
+    }
+
+    /**
+     * Histogram with exponential buckets: bucket 0 counts zero values, bucket i counts values in the range
+     * [2^(i-1), 2^i). Trailing empty buckets are omitted.
+     */
+    public static class Histogram {
+        public final long[] buckets;
+        public final long count;
+        public final long sum;
+
+        public Histogram(
+            @JsonProperty("buckets") long[] buckets,
+            @JsonProperty("count") long count,
+            @JsonProperty("sum") long sum
+        ) {
+            this.buckets = Objects.requireNonNullElse(buckets, new long[0]);
+            this.count = count;
+            this.sum = sum;
+        }
+
+        /**
+         * Upper bound of the bucket containing the given percentile, e.g. 0.99 for the 99th percentile. Returns zero
+         * if the histogram is empty.
+         */
+        public long percentile(double percentile) {
+            var target = (long) Math.ceil(count * percentile);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= target && seen > 0) {
+                    return i == 0 ? 0 : (1L << i) - 1;
+                }
+            }
+            return 0;
+        }
+    }
+}
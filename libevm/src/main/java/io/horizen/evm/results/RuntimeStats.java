@@ -0,0 +1,40 @@
+package io.horizen.evm.results;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Counters of the Go runtime inside libevm, all durations are in nanoseconds.
+ */
+public class RuntimeStats {
+    public final long goroutines;
+    public final long goMaxProcs;
+
+    /**
+     * Approximate total time goroutines spent blocked on a mutex, e.g. the locks of the native handle tables.
+     */
+    public final long mutexWaitTime;
+
+    public final long gcCycles;
+    public final long heapBytes;
+
+    /**
+     * Total number of calls from Go to C, e.g. callbacks to Java.
+     */
+    public final long cgoCalls;
+
+    public RuntimeStats(
+        @JsonProperty("goroutines") long goroutines,
+        @JsonProperty("goMaxProcs") long goMaxProcs,
+        @JsonProperty("mutexWaitTime") long mutexWaitTime,
+        @JsonProperty("gcCycles") long gcCycles,
+        @JsonProperty("heapBytes") long heapBytes,
+        @JsonProperty("cgoCalls") long cgoCalls
+    ) {
+        this.goroutines = goroutines;
+        this.goMaxProcs = goMaxProcs;
+        this.mutexWaitTime = mutexWaitTime;
+        this.gcCycles = gcCycles;
+        this.heapBytes = heapBytes;
+        this.cgoCalls = cgoCalls;
+    }
+}
@@ -0,0 +1,51 @@
+package io.horizen.evm.results;
+
+import java.math.BigInteger;
+
+/**
+ * Single step of a struct log trace as decoded from the compact encoding, see {@link CompactTraceResult}.
+ * Note: To keep decoding cheap, the stack and memory arrays are shared between consecutive steps as long as they do not
+ * change and must not be modified.
+ */
+public class StructLog {
+    public final long pc;
+    public final int op;
+    public final long gas;
+    public final long gasCost;
+    public final int depth;
+    public final long refund;
+    public final BigInteger[] stack;
+    public final byte[] memory;
+    public final BigInteger storageKey;
+    public final BigInteger storageValue;
+    public final byte[] returnData;
+    public final String error;
+
+    public StructLog(
+        long pc,
+        int op,
+        long gas,
+        long gasCost,
+        int depth,
+        long refund,
+        BigInteger[] stack,
+        byte[] memory,
+        BigInteger storageKey,
+        BigInteger storageValue,
+        byte[] returnData,
+        String error
+    ) {
+        this.pc = pc;
+        this.op = op;
+        this.gas = gas;
+        this.gasCost = gasCost;
+        this.depth = depth;
+        this.refund = refund;
+        this.stack = stack;
+        this.memory = memory;
+        this.storageKey = storageKey;
+        this.storageValue = storageValue;
+        this.returnData = returnData;
+        this.error = error;
+    }
+}
@@ -1,12 +1,37 @@
 package io.horizen.evm.results;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.JsonNode;
 
 public class TracerResult {
+    /**
+     * Result of the tracer, null if the trace was written to an output stream or a trace file.
+     */
     public final JsonNode result;
 
-    public TracerResult(@JsonProperty("result") JsonNode result) {
+    /**
+     * Path of the trace file if the trace was written to a file, otherwise null.
+     */
+    public final String file;
+
+    /**
+     * Total number of bytes written to the output stream or trace file, otherwise zero.
+     */
+    public final long size;
+
+    public TracerResult(JsonNode result) {
+        this(result, null, 0);
+    }
+
+    @JsonCreator
+    public TracerResult(
+        @JsonProperty("result") JsonNode result,
+        @JsonProperty("file") String file,
+        @JsonProperty("size") long size
+    ) {
         this.result = result;
+        this.file = file;
+        this.size = size;
     }
 }
@@ -1,15 +1,26 @@
 package io.horizen.evm.utils;
 
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
 
 import java.io.IOException;
 import java.math.BigInteger;
 
+/**
+ * Deserializes hex encoded quantities, e.g. "0x1234", as well as plain JSON numbers, which libevm uses for values that
+ * fit into an uint64 like nonces and gas.
+ */
 public class BigIntegerDeserializer extends JsonDeserializer<BigInteger> {
     @Override
     public BigInteger deserialize(JsonParser jsonParser, DeserializationContext ctx) throws IOException {
+        if (jsonParser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+            if (jsonParser.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+                return jsonParser.getBigIntegerValue();
+            }
+            return BigInteger.valueOf(jsonParser.getLongValue());
+        }
         var text = jsonParser.getText();
         if (text == null || !text.startsWith("0x")) {
             throw new IOException("quantity must start with \"0x\" but received: " + text);
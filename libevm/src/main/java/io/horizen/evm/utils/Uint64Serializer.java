@@ -0,0 +1,44 @@
+package io.horizen.evm.utils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+import java.math.BigInteger;
+
+/**
+ * Serializes an uint64 as a plain JSON number instead of a hex encoded string, for fields that libevm accepts in both
+ * representations. A long is interpreted as unsigned, i.e. negative values represent values above Long.MAX_VALUE.
+ */
+public class Uint64Serializer extends JsonSerializer<Number> {
+    @Override
+    public void serialize(
+        Number number, JsonGenerator jsonGenerator, SerializerProvider serializerProvider
+    ) throws IOException {
+        if (number instanceof BigInteger) {
+            jsonGenerator.writeNumber((BigInteger) number);
+            return;
+        }
+        var value = number.longValue();
+        if (value >= 0) {
+            jsonGenerator.writeNumber(value);
+        } else {
+            jsonGenerator.writeNumber(Long.toUnsignedString(value));
+        }
+    }
+
+    /**
+     * Convert the given value to a long with the same bits, i.e. to be interpreted as unsigned.
+     *
+     * @param value value in the range of an uint64
+     * @return long with the same bits
+     * @throws IllegalArgumentException if the value is negative or exceeds 64 bits
+     */
+    public static long toLong(BigInteger value) {
+        if (value.signum() < 0 || value.bitLength() > Long.SIZE) {
+            throw new IllegalArgumentException("value out of range for uint64: " + value);
+        }
+        return value.longValue();
+    }
+}
@@ -0,0 +1,35 @@
+package io.horizen.evm;
+
+import io.horizen.evm.params.NonceParams;
+import io.horizen.evm.results.InvocationResult;
+import org.junit.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+public class ConverterTest extends LibEvmTestBase {
+    @Test
+    public void uint64() {
+        var maxUint64 = new BigInteger("ffffffffffffffff", 16);
+        // gas and nonces are transferred as plain numbers, other quantities as hex strings
+        var invocation = new Invocation(Address.ZERO, null, BigInteger.TEN, null, 21000, false);
+        assertEquals(
+            "{\"caller\":\"0x0000000000000000000000000000000000000000\",\"value\":\"0xa\",\"gas\":21000,\"readOnly\":false}",
+            Converter.toJson(invocation)
+        );
+        var nonceJson = "{\"handle\":1,\"address\":\"0x0000000000000000000000000000000000000000\",\"nonce\":18446744073709551615}";
+        assertEquals(nonceJson, Converter.toJson(new NonceParams(1, Address.ZERO, maxUint64)));
+        // a long is interpreted as unsigned
+        assertEquals(nonceJson, Converter.toJson(new NonceParams(1, Address.ZERO, -1L)));
+        assertThrows(IllegalArgumentException.class, () -> new NonceParams(1, Address.ZERO, BigInteger.ONE.negate()));
+
+        // quantities can be deserialized from both representations
+        assertEquals(BigInteger.valueOf(21000), Converter.fromJson("21000", BigInteger.class));
+        assertEquals(BigInteger.valueOf(21000), Converter.fromJson("\"0x5208\"", BigInteger.class));
+        assertEquals(maxUint64, Converter.fromJson("18446744073709551615", BigInteger.class));
+        var result = Converter.fromJson("{\"leftOverGas\":18446744073709551615}", InvocationResult.class);
+        assertEquals(maxUint64, result.leftOverGas);
+    }
+}
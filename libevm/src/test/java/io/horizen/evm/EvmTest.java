@@ -1,9 +1,18 @@
 package io.horizen.evm;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import io.horizen.evm.results.CompactTraceResult;
 import io.horizen.evm.results.InvocationResult;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.Assert.*;
 
@@ -176,6 +185,588 @@ public class EvmTest extends LibEvmTestBase {
         }
     }
 
+    @Test
+    public void blockHashCache() throws Exception {
+        // compiled OpCodes.sol
+        final var contractCode = bytes(
+            "608060405234801561001057600080fd5b50610157806100206000396000f3fe608060405234801561001057600080fd5b50600436106100935760003560e01c8063557ed1ba11610066578063557ed1ba146100bf578063564b81ef146100c55780639663f88f146100cb578063aacc5a17146100d3578063d1a82a9d146100d957600080fd5b806315e812ad146100985780631a93d1c3146100ad57806342cbb15c146100b3578063455259cb146100b9575b600080fd5b485b6040519081526020015b60405180910390f35b4561009a565b4361009a565b3a61009a565b4261009a565b4661009a565b61009a6100e7565b4461009a565b6040514181526020016100a4565b60006100f46001436100fa565b40905090565b8181038181111561011b57634e487b7160e01b600052601160045260246000fd5b9291505056fea2646970667358221220a629106cbdbc0017022eedc70f72757902db9dc7881e188747a544aaa638345d64736f6c63430008120033");
+        // signature for getBlockHash()
+        final var funcBlockHash = bytes("9663f88f");
+        final var blockHash = randomHash();
+        final var height = BigInteger.valueOf(2345);
+
+        class BlockHashGetter extends BlockHashCallback {
+            private int calls;
+
+            @Override
+            protected Hash getBlockHash(BigInteger blockNumber) {
+                calls++;
+                assertEquals("unexpected block hash requested", height.subtract(BigInteger.ONE), blockNumber);
+                return blockHash;
+            }
+        }
+
+        try (
+            var db = new MemoryDatabase();
+            var statedb = new StateDB(db, Hash.ZERO);
+            var blockHashGetter = new BlockHashGetter()
+        ) {
+            var createResult = Evm.Apply(statedb, create(addr1, contractCode), null);
+            assertEquals("", createResult.executionError);
+            var contractAddress = createResult.contractAddress;
+
+            var context = new EvmContext(
+                BigInteger.ZERO,
+                Address.ZERO,
+                BigInteger.ZERO,
+                BigInteger.ZERO,
+                height,
+                BigInteger.ZERO,
+                BigInteger.ZERO,
+                Hash.ZERO,
+                new ForkRules(true)
+            );
+            context.setBlockHashCallback(blockHashGetter);
+            context.setBlockHashes(new Hash[] { blockHash, randomHash() });
+            try (var registered = context.register()) {
+                for (int i = 0; i < 3; i++) {
+                    var result = Evm.applyRegistered(
+                        statedb, call(addr1, contractAddress, null, funcBlockHash), registered);
+                    assertEquals("unexpected error message", "", result.executionError);
+                    assertEquals("unexpected block hash", blockHash, new Hash(result.returnData));
+                }
+            }
+            assertEquals("block hashes should be served from the cache", 0, blockHashGetter.calls);
+
+            // without pre-populated hashes the callback is invoked only once per registered context
+            context.setBlockHashes(null);
+            try (var registered = context.register()) {
+                for (int i = 0; i < 3; i++) {
+                    var result = Evm.applyRegistered(
+                        statedb, call(addr1, contractAddress, null, funcBlockHash), registered);
+                    assertEquals("unexpected block hash", blockHash, new Hash(result.returnData));
+                }
+            }
+            assertEquals("block hash should be cached after the first miss", 1, blockHashGetter.calls);
+        }
+    }
+
+    @Test
+    public void registeredContext() throws Exception {
+        // compiled OpCodes.sol
+        final var contractCode = bytes(
+            "608060405234801561001057600080fd5b50610157806100206000396000f3fe608060405234801561001057600080fd5b50600436106100935760003560e01c8063557ed1ba11610066578063557ed1ba146100bf578063564b81ef146100c55780639663f88f146100cb578063aacc5a17146100d3578063d1a82a9d146100d957600080fd5b806315e812ad146100985780631a93d1c3146100ad57806342cbb15c146100b3578063455259cb146100b9575b600080fd5b485b6040519081526020015b60405180910390f35b4561009a565b4361009a565b3a61009a565b4261009a565b4661009a565b61009a6100e7565b4461009a565b6040514181526020016100a4565b60006100f46001436100fa565b40905090565b8181038181111561011b57634e487b7160e01b600052601160045260246000fd5b9291505056fea2646970667358221220a629106cbdbc0017022eedc70f72757902db9dc7881e188747a544aaa638345d64736f6c63430008120033");
+        // signature for getBlockHash()
+        final var funcBlockHash = bytes("9663f88f");
+        final var blockHash = randomHash();
+        final var height = BigInteger.valueOf(4321);
+
+        class BlockHashGetter extends BlockHashCallback {
+            @Override
+            protected Hash getBlockHash(BigInteger blockNumber) {
+                assertEquals("unexpected block hash requested", height.subtract(BigInteger.ONE), blockNumber);
+                return blockHash;
+            }
+        }
+
+        try (
+            var db = new MemoryDatabase();
+            var statedb = new StateDB(db, Hash.ZERO);
+            var blockHashGetter = new BlockHashGetter()
+        ) {
+            var context = new EvmContext(
+                BigInteger.ZERO,
+                Address.ZERO,
+                BigInteger.ZERO,
+                BigInteger.ZERO,
+                height,
+                BigInteger.ZERO,
+                BigInteger.ZERO,
+                Hash.ZERO,
+                new ForkRules(true)
+            );
+            context.setBlockHashCallback(blockHashGetter);
+            Address contractAddress;
+            try (var registered = context.register()) {
+                // later changes to the original context should not affect the registered one
+                context.setBlockHashCallback(null);
+
+                // deploy OpCode test contract
+                var createResult = Evm.applyRegistered(statedb, create(addr1, contractCode), registered);
+                assertEquals("", createResult.executionError);
+                contractAddress = createResult.contractAddress;
+
+                // the registered context should behave exactly like the original one
+                for (int i = 0; i < 3; i++) {
+                    var result = Evm.applyRegistered(
+                        statedb, call(addr1, contractAddress, null, funcBlockHash), registered);
+                    assertEquals("unexpected error message", "", result.executionError);
+                    assertEquals("unexpected block hash", blockHash, new Hash(result.returnData));
+                }
+            }
+            // the registered context should not be usable after it was closed
+            context.setBlockHashCallback(blockHashGetter);
+            final var closed = context.register();
+            closed.close();
+            assertThrows(
+                LibEvmException.class,
+                () -> Evm.applyRegistered(statedb, call(addr1, contractAddress, null, funcBlockHash), closed)
+            );
+        }
+    }
+
+    @Test
+    public void callMany() throws Exception {
+        // compiled Storage.sol
+        final var contractCode = bytes(
+            "608060405234801561001057600080fd5b5060405161023638038061023683398101604081905261002f916100f6565b6000819055604051339060008051602061021683398151915290610073906020808252600c908201526b48656c6c6f20576f726c642160a01b604082015260600190565b60405180910390a2336001600160a01b03166000805160206102168339815191526040516100bf906020808252600a908201526948656c6c6f2045564d2160b01b604082015260600190565b60405180910390a26040517ffe1a3ad11e425db4b8e6af35d11c50118826a496df73006fc724cb27f2b9994690600090a15061010f565b60006020828403121561010857600080fd5b5051919050565b60f98061011d6000396000f3fe60806040526004361060305760003560e01c80632e64cec1146035578063371303c01460565780636057361d14606a575b600080fd5b348015604057600080fd5b5060005460405190815260200160405180910390f35b348015606157600080fd5b506068607a565b005b606860753660046086565b600055565b6000546075906001609e565b600060208284031215609757600080fd5b5035919050565b6000821982111560be57634e487b7160e01b600052601160045260246000fd5b50019056fea2646970667358221220769e4dd8320afae06d27e8e201c885728883af2ea321d02071c47704c1b3c24f64736f6c634300080e00330738f4da267a110d810e6e89fc59e46be6de0c37b1d5cd559b267dc3688e74e0");
+        final var initialValue = new Hash("0x00000000000000000000000000000000000000000000000000000000000015b3");
+        final var funcStore = bytes("6057361d");
+        final var funcRetrieve = bytes("2e64cec1");
+
+        try (var db = new MemoryDatabase()) {
+            Address contractAddress;
+            Hash root;
+            try (var statedb = new StateDB(db, Hash.ZERO)) {
+                var createResult = Evm.Apply(statedb, create(addr1, concat(contractCode, initialValue.toBytes())), null);
+                assertEquals("", createResult.executionError);
+                contractAddress = createResult.contractAddress;
+                root = statedb.commit();
+            }
+
+            // mix modifying and read-only calls: changes of one call must not be visible to any other call
+            var invocations = new Invocation[16];
+            for (int i = 0; i < invocations.length; i++) {
+                var calldata = i % 2 == 0 ? concat(funcStore, padToHash(new byte[] { (byte) i }).toBytes()) : funcRetrieve;
+                invocations[i] = call(addr1, contractAddress, null, calldata);
+            }
+            var results = Evm.callMany(db, root, invocations, new EvmContext());
+            assertEquals("unexpected number of results", invocations.length, results.length);
+            for (int i = 0; i < results.length; i++) {
+                assertEquals("unexpected error message", "", results[i].executionError);
+                if (i % 2 == 1) {
+                    assertEquals("unexpected value", initialValue, new Hash(results[i].returnData));
+                }
+            }
+
+            // the state at the given root must be unchanged
+            try (var statedb = new StateDB(db, root)) {
+                var result = Evm.Apply(statedb, call(addr1, contractAddress, null, funcRetrieve), null);
+                assertEquals(initialValue, new Hash(result.returnData));
+            }
+        }
+    }
+
+    @Test
+    public void executionStats() throws Exception {
+        // compiled Storage.sol
+        final var contractCode = bytes(
+            "608060405234801561001057600080fd5b5060405161023638038061023683398101604081905261002f916100f6565b6000819055604051339060008051602061021683398151915290610073906020808252600c908201526b48656c6c6f20576f726c642160a01b604082015260600190565b60405180910390a2336001600160a01b03166000805160206102168339815191526040516100bf906020808252600a908201526948656c6c6f2045564d2160b01b604082015260600190565b60405180910390a26040517ffe1a3ad11e425db4b8e6af35d11c50118826a496df73006fc724cb27f2b9994690600090a15061010f565b60006020828403121561010857600080fd5b5051919050565b60f98061011d6000396000f3fe60806040526004361060305760003560e01c80632e64cec1146035578063371303c01460565780636057361d14606a575b600080fd5b348015604057600080fd5b5060005460405190815260200160405180910390f35b348015606157600080fd5b506068607a565b005b606860753660046086565b600055565b6000546075906001609e565b600060208284031215609757600080fd5b5035919050565b6000821982111560be57634e487b7160e01b600052601160045260246000fd5b50019056fea2646970667358221220769e4dd8320afae06d27e8e201c885728883af2ea321d02071c47704c1b3c24f64736f6c634300080e00330738f4da267a110d810e6e89fc59e46be6de0c37b1d5cd559b267dc3688e74e0");
+        final var initialValue = new Hash("0x00000000000000000000000000000000000000000000000000000000000015b3");
+        final var funcRetrieve = bytes("2e64cec1");
+
+        try (var db = new MemoryDatabase()) {
+            Address contractAddress;
+            Hash root;
+            try (var statedb = new StateDB(db, Hash.ZERO)) {
+                var createResult = Evm.Apply(statedb, create(addr1, concat(contractCode, initialValue.toBytes())), null);
+                assertEquals("", createResult.executionError);
+                assertNull("stats should only be included if requested", createResult.stats);
+                contractAddress = createResult.contractAddress;
+                root = statedb.commit();
+            }
+
+            // on a freshly opened state accounts and storage have to be loaded
+            try (var statedb = new StateDB(db, root)) {
+                var result = Evm.Apply(statedb, call(addr1, contractAddress, null, funcRetrieve), null, true);
+                assertEquals(initialValue, new Hash(result.returnData));
+                assertNotNull(result.stats);
+                assertTrue(result.stats.time > 0);
+                assertTrue(result.stats.accountReadTime > 0);
+                assertTrue(result.stats.storageReadTime > 0);
+                assertTrue(result.stats.getExecutionTime() <= result.stats.time);
+            }
+
+            var stats = db.getStats();
+            assertEquals(1, stats.commits);
+            assertTrue(stats.writes > 0);
+            assertTrue(stats.writeBytes > 0);
+        }
+    }
+
+    @Test
+    public void traceBlock() throws Exception {
+        // compiled Storage.sol
+        final var contractCode = bytes(
+            "608060405234801561001057600080fd5b5060405161023638038061023683398101604081905261002f916100f6565b6000819055604051339060008051602061021683398151915290610073906020808252600c908201526b48656c6c6f20576f726c642160a01b604082015260600190565b60405180910390a2336001600160a01b03166000805160206102168339815191526040516100bf906020808252600a908201526948656c6c6f2045564d2160b01b604082015260600190565b60405180910390a26040517ffe1a3ad11e425db4b8e6af35d11c50118826a496df73006fc724cb27f2b9994690600090a15061010f565b60006020828403121561010857600080fd5b5051919050565b60f98061011d6000396000f3fe60806040526004361060305760003560e01c80632e64cec1146035578063371303c01460565780636057361d14606a575b600080fd5b348015604057600080fd5b5060005460405190815260200160405180910390f35b348015606157600080fd5b506068607a565b005b606860753660046086565b600055565b6000546075906001609e565b600060208284031215609757600080fd5b5035919050565b6000821982111560be57634e487b7160e01b600052601160045260246000fd5b50019056fea2646970667358221220769e4dd8320afae06d27e8e201c885728883af2ea321d02071c47704c1b3c24f64736f6c634300080e00330738f4da267a110d810e6e89fc59e46be6de0c37b1d5cd559b267dc3688e74e0");
+        final var initialValue = new Hash("0x00000000000000000000000000000000000000000000000000000000000015b3");
+        final var funcStore = bytes("6057361d");
+        final var funcRetrieve = bytes("2e64cec1");
+
+        try (var db = new MemoryDatabase()) {
+            Address contractAddress;
+            Hash root;
+            try (var statedb = new StateDB(db, Hash.ZERO)) {
+                var createResult = Evm.Apply(statedb, create(addr1, concat(contractCode, initialValue.toBytes())), null);
+                assertEquals("", createResult.executionError);
+                contractAddress = createResult.contractAddress;
+                root = statedb.commit();
+            }
+
+            // alternate between storing and retrieving: every transaction must see the changes of the previous ones
+            var transactions = new ArrayList<TransactionInvocation>();
+            for (int i = 0; i < 16; i++) {
+                var calldata = i % 2 == 0 ? concat(funcStore, padToHash(new byte[] { (byte) i }).toBytes()) : funcRetrieve;
+                var invocation = call(addr1, contractAddress, null, calldata);
+                transactions.add(new TransactionInvocation(invocation, randomHash(), i, null));
+            }
+            var options = new TraceOptions(false, false, false, false, "callTracer", null);
+            var results = Evm.traceBlock(db, root, transactions, new EvmContext(), options);
+            assertEquals("unexpected number of results", transactions.size(), results.length);
+            for (int i = 0; i < results.length; i++) {
+                var trace = results[i].result;
+                assertEquals("CALL", trace.get("type").asText());
+                assertFalse("unexpected error", trace.has("error"));
+                if (i % 2 == 1) {
+                    var expected = padToHash(new byte[] { (byte) (i - 1) });
+                    assertEquals("unexpected value", expected, new Hash(trace.get("output").asText()));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void estimateGas() throws Exception {
+        // compiled Storage.sol
+        final var contractCode = bytes(
+            "608060405234801561001057600080fd5b5060405161023638038061023683398101604081905261002f916100f6565b6000819055604051339060008051602061021683398151915290610073906020808252600c908201526b48656c6c6f20576f726c642160a01b604082015260600190565b60405180910390a2336001600160a01b03166000805160206102168339815191526040516100bf906020808252600a908201526948656c6c6f2045564d2160b01b604082015260600190565b60405180910390a26040517ffe1a3ad11e425db4b8e6af35d11c50118826a496df73006fc724cb27f2b9994690600090a15061010f565b60006020828403121561010857600080fd5b5051919050565b60f98061011d6000396000f3fe60806040526004361060305760003560e01c80632e64cec1146035578063371303c01460565780636057361d14606a575b600080fd5b348015604057600080fd5b5060005460405190815260200160405180910390f35b348015606157600080fd5b506068607a565b005b606860753660046086565b600055565b6000546075906001609e565b600060208284031215609757600080fd5b5035919050565b6000821982111560be57634e487b7160e01b600052601160045260246000fd5b50019056fea2646970667358221220769e4dd8320afae06d27e8e201c885728883af2ea321d02071c47704c1b3c24f64736f6c634300080e00330738f4da267a110d810e6e89fc59e46be6de0c37b1d5cd559b267dc3688e74e0");
+        final var funcStore = bytes("6057361d");
+        final var cap = BigInteger.valueOf(1000000);
+
+        try (var db = new MemoryDatabase(); var statedb = new StateDB(db, Hash.ZERO)) {
+            var createResult = Evm.Apply(statedb, create(addr1, concat(contractCode, Hash.ZERO.toBytes())), null);
+            assertEquals("", createResult.executionError);
+            var contractAddress = createResult.contractAddress;
+            var rootBefore = statedb.getIntermediateRoot();
+
+            var calldata = concat(funcStore, padToHash(bytes("42")).toBytes());
+            var estimate = Evm.estimateGas(statedb, call(addr1, contractAddress, null, calldata), null, cap);
+            assertEquals("unexpected error message", "", estimate.executionError);
+            assertEquals("state should not be modified", rootBefore, statedb.getIntermediateRoot());
+            try (var registered = new EvmContext().register()) {
+                var registeredEstimate = Evm.estimateGasRegistered(
+                    statedb, call(addr1, contractAddress, null, calldata), registered, cap);
+                assertEquals(estimate.gas, registeredEstimate.gas);
+            }
+
+            // the estimate should be the exact lower bound
+            var revisionId = statedb.snapshot();
+            var invocation = new Invocation(addr1, contractAddress, null, calldata, estimate.gas, false);
+            assertEquals("", Evm.Apply(statedb, invocation, null).executionError);
+            statedb.revertToSnapshot(revisionId);
+            var insufficientGas = estimate.gas.subtract(BigInteger.ONE);
+            invocation = new Invocation(addr1, contractAddress, null, calldata, insufficientGas, false);
+            assertNotEquals("", Evm.Apply(statedb, invocation, null).executionError);
+            statedb.revertToSnapshot(revisionId);
+
+            // calling an unknown function should revert even with the maximum amount of gas
+            estimate = Evm.estimateGas(statedb, call(addr1, contractAddress, null, bytes("12345678")), null, cap);
+            assertTrue("expected revert", estimate.reverted);
+            assertEquals(cap, estimate.gas);
+        }
+    }
+
+    @Test
+    public void createAccessList() throws Exception {
+        // compiled Storage.sol
+        final var contractCode = bytes(
+            "608060405234801561001057600080fd5b5060405161023638038061023683398101604081905261002f916100f6565b6000819055604051339060008051602061021683398151915290610073906020808252600c908201526b48656c6c6f20576f726c642160a01b604082015260600190565b60405180910390a2336001600160a01b03166000805160206102168339815191526040516100bf906020808252600a908201526948656c6c6f2045564d2160b01b604082015260600190565b60405180910390a26040517ffe1a3ad11e425db4b8e6af35d11c50118826a496df73006fc724cb27f2b9994690600090a15061010f565b60006020828403121561010857600080fd5b5051919050565b60f98061011d6000396000f3fe60806040526004361060305760003560e01c80632e64cec1146035578063371303c01460565780636057361d14606a575b600080fd5b348015604057600080fd5b5060005460405190815260200160405180910390f35b348015606157600080fd5b506068607a565b005b606860753660046086565b600055565b6000546075906001609e565b600060208284031215609757600080fd5b5035919050565b6000821982111560be57634e487b7160e01b600052601160045260246000fd5b50019056fea2646970667358221220769e4dd8320afae06d27e8e201c885728883af2ea321d02071c47704c1b3c24f64736f6c634300080e00330738f4da267a110d810e6e89fc59e46be6de0c37b1d5cd559b267dc3688e74e0");
+        final var funcStore = bytes("6057361d");
+
+        try (var db = new MemoryDatabase(); var statedb = new StateDB(db, Hash.ZERO)) {
+            var createResult = Evm.Apply(statedb, create(addr1, concat(contractCode, Hash.ZERO.toBytes())), null);
+            assertEquals("", createResult.executionError);
+            var contractAddress = createResult.contractAddress;
+            var rootBefore = statedb.getIntermediateRoot();
+
+            var calldata = concat(funcStore, padToHash(bytes("42")).toBytes());
+            var result = Evm.createAccessList(statedb, call(addr1, contractAddress, null, calldata), null);
+            assertEquals("unexpected error message", "", result.executionError);
+            assertArrayEquals(
+                "unexpected access list",
+                new AccessTuple[] { new AccessTuple(contractAddress, new Hash[] { Hash.ZERO }) },
+                result.accessList
+            );
+            assertTrue("gas used should be positive", result.gasUsed.signum() > 0);
+            assertEquals("state should not be modified", rootBefore, statedb.getIntermediateRoot());
+            try (var registered = new EvmContext().register()) {
+                var registeredResult = Evm.createAccessListRegistered(
+                    statedb, call(addr1, contractAddress, null, calldata), registered);
+                assertArrayEquals(result.accessList, registeredResult.accessList);
+            }
+        }
+    }
+
+    @Test
+    public void streamingTracer() throws Exception {
+        // compiled Storage.sol
+        final var contractCode = bytes(
+            "608060405234801561001057600080fd5b5060405161023638038061023683398101604081905261002f916100f6565b6000819055604051339060008051602061021683398151915290610073906020808252600c908201526b48656c6c6f20576f726c642160a01b604082015260600190565b60405180910390a2336001600160a01b03166000805160206102168339815191526040516100bf906020808252600a908201526948656c6c6f2045564d2160b01b604082015260600190565b60405180910390a26040517ffe1a3ad11e425db4b8e6af35d11c50118826a496df73006fc724cb27f2b9994690600090a15061010f565b60006020828403121561010857600080fd5b5051919050565b60f98061011d6000396000f3fe60806040526004361060305760003560e01c80632e64cec1146035578063371303c01460565780636057361d14606a575b600080fd5b348015604057600080fd5b5060005460405190815260200160405180910390f35b348015606157600080fd5b506068607a565b005b606860753660046086565b600055565b6000546075906001609e565b600060208284031215609757600080fd5b5035919050565b6000821982111560be57634e487b7160e01b600052601160045260246000fd5b50019056fea2646970667358221220769e4dd8320afae06d27e8e201c885728883af2ea321d02071c47704c1b3c24f64736f6c634300080e00330738f4da267a110d810e6e89fc59e46be6de0c37b1d5cd559b267dc3688e74e0");
+
+        try (var db = new MemoryDatabase(); var statedb = new StateDB(db, Hash.ZERO)) {
+            var output = new ByteArrayOutputStream();
+            try (var tracer = new Tracer(new TraceOptions(), output)) {
+                var context = new EvmContext();
+                context.setTracer(tracer);
+                var result = Evm.Apply(statedb, create(addr1, concat(contractCode, Hash.ZERO.toBytes())), context);
+                assertEquals("", result.executionError);
+                assertNull("result should be written to the output", tracer.getResult().result);
+            }
+            // every line is one JSON object, each captured opcode gives one line
+            var lines = output.toString(StandardCharsets.UTF_8).split("\n");
+            assertTrue("unexpected number of trace lines", lines.length > 100);
+            for (var line : lines) {
+                assertTrue("every line should be a JSON object", Converter.fromJson(line, JsonNode.class).isObject());
+            }
+        }
+        // only the default struct logger can be streamed
+        var callTracer = new TraceOptions(false, false, false, false, "callTracer", null);
+        assertThrows(LibEvmException.class, () -> new Tracer(callTracer, new ByteArrayOutputStream()));
+        // the output callback is released if the tracer cannot be created
+        var callbacks = CallbackRegistry.size();
+        var invalid = new TraceOptions(false, false, false, false, "thisTracerDoesNotExist", null);
+        assertThrows(LibEvmException.class, () -> new Tracer(invalid, new ByteArrayOutputStream()));
+        assertEquals(callbacks, CallbackRegistry.size());
+    }
+
+    @Test
+    public void traceFile() throws Exception {
+        // compiled Storage.sol
+        final var contractCode = bytes(
+            "608060405234801561001057600080fd5b5060405161023638038061023683398101604081905261002f916100f6565b6000819055604051339060008051602061021683398151915290610073906020808252600c908201526b48656c6c6f20576f726c642160a01b604082015260600190565b60405180910390a2336001600160a01b03166000805160206102168339815191526040516100bf906020808252600a908201526948656c6c6f2045564d2160b01b604082015260600190565b60405180910390a26040517ffe1a3ad11e425db4b8e6af35d11c50118826a496df73006fc724cb27f2b9994690600090a15061010f565b60006020828403121561010857600080fd5b5051919050565b60f98061011d6000396000f3fe60806040526004361060305760003560e01c80632e64cec1146035578063371303c01460565780636057361d14606a575b600080fd5b348015604057600080fd5b5060005460405190815260200160405180910390f35b348015606157600080fd5b506068607a565b005b606860753660046086565b600055565b6000546075906001609e565b600060208284031215609757600080fd5b5035919050565b6000821982111560be57634e487b7160e01b600052601160045260246000fd5b50019056fea2646970667358221220769e4dd8320afae06d27e8e201c885728883af2ea321d02071c47704c1b3c24f64736f6c634300080e00330738f4da267a110d810e6e89fc59e46be6de0c37b1d5cd559b267dc3688e74e0");
+        final var traceFile = Files.createTempFile("trace", ".jsonl");
+        Files.delete(traceFile);
+
+        try (var db = new MemoryDatabase(); var statedb = new StateDB(db, Hash.ZERO)) {
+            var options = new TraceOptions(false, false, false, false, "callTracer", null, traceFile.toString());
+            try (var tracer = new Tracer(options)) {
+                var context = new EvmContext();
+                context.setTracer(tracer);
+                var result = Evm.Apply(statedb, create(addr1, concat(contractCode, Hash.ZERO.toBytes())), context);
+                assertEquals("", result.executionError);
+                var traceResult = tracer.getResult();
+                assertNull("result should be written to the file", traceResult.result);
+                assertEquals(traceFile.toString(), traceResult.file);
+                assertEquals(Files.size(traceFile), traceResult.size);
+            }
+            var lines = Files.readAllLines(traceFile);
+            assertEquals("call tracer result should be written as a single line", 1, lines.size());
+            var trace = Converter.fromJson(lines.get(0), JsonNode.class);
+            assertEquals("CREATE", trace.get("type").asText());
+        } finally {
+            Files.deleteIfExists(traceFile);
+        }
+    }
+
+    @Test
+    public void captureFrames() throws Exception {
+        final var nativeContract = new Address("0x0000000000000000000022222222222222222222");
+        final var options = new TraceOptions(false, false, false, false, "callTracer", null);
+
+        try (
+            var db = new MemoryDatabase();
+            var statedb = new StateDB(db, Hash.ZERO);
+            var tracer = new Tracer(options)
+        ) {
+            tracer.CaptureStart(statedb, new EvmContext(), addr1, nativeContract, false, null, gasLimit, BigInteger.ZERO);
+            // sub-tree of calls performed by a native contract, submitted at once
+            tracer.captureFrames(List.of(
+                FrameEvent.enter(TracerOpCode.CALL, nativeContract, addr2, null, v5m, BigInteger.ONE),
+                FrameEvent.enter(TracerOpCode.STATICCALL, addr2, addr1, null, v5m, null),
+                FrameEvent.exit(null, BigInteger.TEN, null),
+                FrameEvent.exit(null, BigInteger.TWO, "execution reverted")
+            ));
+            tracer.CaptureEnd(null, BigInteger.valueOf(100), null);
+
+            var trace = tracer.getResult().result;
+            var calls = trace.get("calls");
+            assertEquals("unexpected number of calls", 1, calls.size());
+            assertEquals("CALL", calls.get(0).get("type").asText());
+            assertEquals("execution reverted", calls.get(0).get("error").asText());
+            assertEquals("STATICCALL", calls.get(0).get("calls").get(0).get("type").asText());
+        }
+    }
+
+    @Test
+    public void compactTrace() throws Exception {
+        // compiled Storage.sol
+        final var contractCode = bytes(
+            "608060405234801561001057600080fd5b5060405161023638038061023683398101604081905261002f916100f6565b6000819055604051339060008051602061021683398151915290610073906020808252600c908201526b48656c6c6f20576f726c642160a01b604082015260600190565b60405180910390a2336001600160a01b03166000805160206102168339815191526040516100bf906020808252600a908201526948656c6c6f2045564d2160b01b604082015260600190565b60405180910390a26040517ffe1a3ad11e425db4b8e6af35d11c50118826a496df73006fc724cb27f2b9994690600090a15061010f565b60006020828403121561010857600080fd5b5051919050565b60f98061011d6000396000f3fe60806040526004361060305760003560e01c80632e64cec1146035578063371303c01460565780636057361d14606a575b600080fd5b348015604057600080fd5b5060005460405190815260200160405180910390f35b348015606157600080fd5b506068607a565b005b606860753660046086565b600055565b6000546075906001609e565b600060208284031215609757600080fd5b5035919050565b6000821982111560be57634e487b7160e01b600052601160045260246000fd5b50019056fea2646970667358221220769e4dd8320afae06d27e8e201c885728883af2ea321d02071c47704c1b3c24f64736f6c634300080e00330738f4da267a110d810e6e89fc59e46be6de0c37b1d5cd559b267dc3688e74e0");
+        final var calldata = concat(contractCode, Hash.ZERO.toBytes());
+
+        try (var db = new MemoryDatabase(); var statedb = new StateDB(db, Hash.ZERO)) {
+            JsonNode expected;
+            CompactTraceResult compact;
+            var revisionId = statedb.snapshot();
+            try (var tracer = new Tracer(new TraceOptions(true, false, false, false, null, null))) {
+                var context = new EvmContext();
+                context.setTracer(tracer);
+                Evm.Apply(statedb, create(addr1, calldata), context);
+                expected = tracer.getResult().result.get("structLogs");
+            }
+            statedb.revertToSnapshot(revisionId);
+            try (var tracer = new Tracer(new TraceOptions(true, false, false, false, null, null, null, true))) {
+                var context = new EvmContext();
+                context.setTracer(tracer);
+                Evm.Apply(statedb, create(addr1, calldata), context);
+                compact = CompactTraceResult.from(tracer.getResult());
+            }
+
+            assertEquals("unexpected number of steps", expected.size(), compact.steps);
+            var i = 0;
+            for (var step : compact) {
+                var expectedStep = expected.get(i++);
+                assertEquals(expectedStep.get("pc").asLong(), step.pc);
+                assertEquals(expectedStep.get("gas").asLong(), step.gas);
+                assertEquals(expectedStep.get("gasCost").asLong(), step.gasCost);
+                assertEquals(expectedStep.get("depth").asInt(), step.depth);
+                var expectedStack = expectedStep.get("stack");
+                assertEquals(expectedStack.size(), step.stack.length);
+                for (int j = 0; j < step.stack.length; j++) {
+                    assertEquals(new BigInteger(expectedStack.get(j).asText().substring(2), 16), step.stack[j]);
+                }
+                assertEquals(expectedStep.get("memory").size() * 32, step.memory.length);
+            }
+            assertEquals("all steps should be decoded", expected.size(), i);
+            assertTrue(
+                "compact encoding should be considerably smaller",
+                compact.size() * 10 < Converter.toJson(expected).length()
+            );
+        }
+    }
+
+    @Test
+    public void gasProfiler() throws Exception {
+        // compiled Storage.sol
+        final var contractCode = bytes(
+            "608060405234801561001057600080fd5b5060405161023638038061023683398101604081905261002f916100f6565b6000819055604051339060008051602061021683398151915290610073906020808252600c908201526b48656c6c6f20576f726c642160a01b604082015260600190565b60405180910390a2336001600160a01b03166000805160206102168339815191526040516100bf906020808252600a908201526948656c6c6f2045564d2160b01b604082015260600190565b60405180910390a26040517ffe1a3ad11e425db4b8e6af35d11c50118826a496df73006fc724cb27f2b9994690600090a15061010f565b60006020828403121561010857600080fd5b5051919050565b60f98061011d6000396000f3fe60806040526004361060305760003560e01c80632e64cec1146035578063371303c01460565780636057361d14606a575b600080fd5b348015604057600080fd5b5060005460405190815260200160405180910390f35b348015606157600080fd5b506068607a565b005b606860753660046086565b600055565b6000546075906001609e565b600060208284031215609757600080fd5b5035919050565b6000821982111560be57634e487b7160e01b600052601160045260246000fd5b50019056fea2646970667358221220769e4dd8320afae06d27e8e201c885728883af2ea321d02071c47704c1b3c24f64736f6c634300080e00330738f4da267a110d810e6e89fc59e46be6de0c37b1d5cd559b267dc3688e74e0");
+        final var calldata = concat(contractCode, Hash.ZERO.toBytes());
+
+        try (var db = new MemoryDatabase(); var statedb = new StateDB(db, Hash.ZERO); var profiler = new GasProfiler()) {
+            var context = new EvmContext();
+            context.setTracer(profiler);
+            // deploy two instances of the contract, the profile is aggregated across both executions
+            Evm.Apply(statedb, create(addr1, calldata), context);
+            Evm.Apply(statedb, create(addr1, calldata), context);
+
+            var profile = profiler.snapshot(true);
+            assertEquals(1, profile.sampleRate);
+            assertTrue("expected executed steps", profile.steps > 0);
+            assertEquals("every step should be recorded", profile.steps, profile.sampled);
+            assertEquals(0, profile.dropped);
+            assertTrue("expected SSTORE in the profile", profile.opcodes.containsKey("SSTORE"));
+            assertTrue("expected gas for SSTORE", profile.opcodes.get("SSTORE").gas > 0);
+            assertEquals("expected two contracts", 2, profile.contracts.size());
+            var locationCount = Arrays.stream(profile.locations).mapToLong(location -> location.count).sum();
+            assertEquals(profile.sampled, locationCount);
+
+            // the profile was reset
+            var empty = profiler.snapshot(false);
+            assertEquals(0, empty.steps);
+            assertTrue(empty.opcodes.isEmpty());
+            assertTrue(empty.contracts.isEmpty());
+        }
+    }
+
+    @Test
+    public void tracerReset() throws Exception {
+        // compiled Storage.sol
+        final var contractCode = bytes(
+            "608060405234801561001057600080fd5b5060405161023638038061023683398101604081905261002f916100f6565b6000819055604051339060008051602061021683398151915290610073906020808252600c908201526b48656c6c6f20576f726c642160a01b604082015260600190565b60405180910390a2336001600160a01b03166000805160206102168339815191526040516100bf906020808252600a908201526948656c6c6f2045564d2160b01b604082015260600190565b60405180910390a26040517ffe1a3ad11e425db4b8e6af35d11c50118826a496df73006fc724cb27f2b9994690600090a15061010f565b60006020828403121561010857600080fd5b5051919050565b60f98061011d6000396000f3fe60806040526004361060305760003560e01c80632e64cec1146035578063371303c01460565780636057361d14606a575b600080fd5b348015604057600080fd5b5060005460405190815260200160405180910390f35b348015606157600080fd5b506068607a565b005b606860753660046086565b600055565b6000546075906001609e565b600060208284031215609757600080fd5b5035919050565b6000821982111560be57634e487b7160e01b600052601160045260246000fd5b50019056fea2646970667358221220769e4dd8320afae06d27e8e201c885728883af2ea321d02071c47704c1b3c24f64736f6c634300080e00330738f4da267a110d810e6e89fc59e46be6de0c37b1d5cd559b267dc3688e74e0");
+        final var calldata = concat(contractCode, Hash.ZERO.toBytes());
+
+        for (var options : List.of(
+            new TraceOptions(),
+            new TraceOptions(false, false, false, false, "callTracer", null),
+            new TraceOptions(false, false, false, false, "opcountTracer", null)
+        )) {
+            try (
+            var db = new MemoryDatabase();
+            var statedb = new StateDB(db, Hash.ZERO);
+            var tracer = new Tracer(options)
+        ) {
+                var context = new EvmContext();
+                context.setTracer(tracer);
+                var revisionId = statedb.snapshot();
+                Evm.Apply(statedb, create(addr1, calldata), context);
+                var expected = tracer.getResult().result;
+                // the same execution after a reset must give the same result
+                for (int i = 0; i < 2; i++) {
+                    statedb.revertToSnapshot(revisionId);
+                    tracer.reset();
+                    Evm.Apply(statedb, create(addr1, calldata), context);
+                    assertEquals(expected, tracer.getResult().result);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void tracerPool() {
+        final var callTracer = new TraceOptions(false, false, false, false, "callTracer", null);
+
+        try (var pool = new TracerPool(1)) {
+            var first = pool.acquire(callTracer);
+            var second = pool.acquire(new TraceOptions(false, false, false, false, "callTracer", null));
+            assertNotSame("acquired tracers must not be shared", first, second);
+            pool.release(first);
+            // the second tracer exceeds the idle limit and is closed
+            pool.release(second);
+            assertSame("released tracer should be reused", first, pool.acquire(callTracer));
+            var structLogger = pool.acquire(new TraceOptions());
+            assertNotSame("tracers with different options must not be reused", first, structLogger);
+            pool.release(structLogger);
+            pool.release(first);
+            assertThrows(IllegalArgumentException.class, () -> pool.release(first));
+
+            // tracers released after the pool was closed are closed instead of being kept
+            var pending = pool.acquire(callTracer);
+            pool.close();
+            pool.release(pending);
+            assertThrows(IllegalStateException.class, () -> pool.acquire(callTracer));
+        }
+    }
+
+    @Test
+    public void tracerResetTraceFile() throws Exception {
+        final var traceFile = Files.createTempFile("trace", ".jsonl");
+        final var options = new TraceOptions(false, false, false, false, "callTracer", null, traceFile.toString());
+
+        try (
+            var db = new MemoryDatabase();
+            var statedb = new StateDB(db, Hash.ZERO);
+            var tracer = new Tracer(options)
+        ) {
+            var context = new EvmContext();
+            context.setTracer(tracer);
+            for (int i = 0; i < 3; i++) {
+                Evm.Apply(statedb, call(addr1, addr2, null, null), context);
+                var result = tracer.getResult();
+                // a reset tracer must not keep the traces of earlier executions in the file
+                var lines = Files.readAllLines(traceFile);
+                assertEquals(1, lines.size());
+                assertEquals(Files.size(traceFile), result.size);
+                tracer.reset();
+            }
+            // tracers with equal options would write to the same file
+            try (var pool = new TracerPool()) {
+                assertThrows(IllegalArgumentException.class, () -> pool.acquire(options));
+            }
+        } finally {
+            Files.deleteIfExists(traceFile);
+        }
+    }
+
     @Test
     public void invocationCallback() throws Exception {
         // compiled NativeInterop.sol
@@ -243,6 +834,41 @@ public class EvmTest extends LibEvmTestBase {
         }
     }
 
+    @Test
+    public void invocationCallbackBinaryEncoding() {
+        final var input = bytes("1234567890");
+        final var value = new BigInteger("123456789");
+        var args = ByteBuffer.allocate(20 + 20 + 32 + 8 + 4 + 1 + input.length);
+        args.put(addr1.toBytes()).put(addr2.toBytes()).put(padToHash(value.toByteArray()).toBytes());
+        // gas larger than Long.MAX_VALUE must be interpreted as unsigned
+        args.putLong(-1).putInt(3).put((byte) 1).put(input).flip();
+
+        var invocation = InvocationCallback.decodeInvocation(args);
+        assertEquals(addr1, invocation.caller);
+        assertEquals(addr2, invocation.callee);
+        assertEquals(value, invocation.value);
+        assertEquals(new BigInteger("ffffffffffffffff", 16), invocation.gas);
+        assertEquals(3, invocation.depth);
+        assertTrue(invocation.readOnly);
+        assertArrayEquals(input, invocation.input);
+
+        var result = new InvocationResult(bytes("abcdef"), BigInteger.valueOf(1234), "failed", true, null);
+        var size = InvocationCallback.encodedSize(result);
+        var encoded = ByteBuffer.allocate(size);
+        InvocationCallback.encodeResult(result, encoded);
+        assertFalse("size should match the encoded result", encoded.hasRemaining());
+        encoded.flip();
+        assertEquals(1, encoded.get());
+        assertEquals(1234, encoded.getLong());
+        assertEquals(3, encoded.getInt());
+        var returnData = new byte[3];
+        encoded.get(returnData);
+        assertArrayEquals(bytes("abcdef"), returnData);
+        var error = new byte[encoded.remaining()];
+        encoded.get(error);
+        assertEquals("failed", new String(error, StandardCharsets.UTF_8));
+    }
+
     @Test
     public void insufficientBalanceTransfer() throws Exception {
         try (var db = new MemoryDatabase(); var statedb = new StateDB(db, Hash.ZERO)) {
@@ -0,0 +1,62 @@
+package io.horizen.evm;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class FixedSizeByteArrayTest extends LibEvmTestBase {
+    @Test
+    public void hex() {
+        var hex = "0xbafe3b6f2a19658df3cb5efca158c93272ff5cff010101010101010102020202";
+        var hash = new Hash(hex);
+        assertArrayEquals(bytes(hex.substring(2)), hash.toBytes());
+        assertEquals(hex, hash.toString());
+        assertEquals(hex.substring(2), hash.toStringNoPrefix());
+        assertEquals(hash, new Hash(hex.toUpperCase().replace("0X", "0x")));
+        assertThrows(IllegalArgumentException.class, () -> new Hash(hex.substring(2) + "00"));
+        assertThrows(IllegalArgumentException.class, () -> new Hash(hex.substring(0, 64)));
+        assertThrows(IllegalArgumentException.class, () -> new Address("0xbafe3b6f2a19658df3cb5efca158c93272ff5cfg"));
+    }
+
+    @Test
+    public void buffers() {
+        var buffer = new byte[Hash.LENGTH + 8];
+        var hash = randomHash();
+        System.arraycopy(hash.toBytes(), 0, buffer, 4, Hash.LENGTH);
+        assertEquals(hash, new Hash(buffer, 4));
+        assertTrue(hash.contentEquals(buffer, 4));
+        assertFalse(hash.contentEquals(buffer, 3));
+        assertEquals(hash.hashCode(), FixedSizeByteArray.hashCode(buffer, 4, Hash.LENGTH));
+        assertThrows(IndexOutOfBoundsException.class, () -> new Hash(buffer, 9));
+
+        var byteBuffer = ByteBuffer.allocate(Hash.LENGTH + Address.LENGTH);
+        var address = new Address("0xbafe3b6f2a19658df3cb5efca158c93272ff5c0b");
+        hash.writeTo(byteBuffer);
+        address.writeTo(byteBuffer);
+        byteBuffer.flip();
+        assertEquals(hash, new Hash(byteBuffer));
+        assertEquals(address, new Address(byteBuffer));
+        assertFalse(byteBuffer.hasRemaining());
+    }
+
+    @Test
+    public void json() {
+        var hash = randomHash();
+        var address = new Address("0xbafe3b6f2a19658df3cb5efca158c93272ff5c0b");
+        assertEquals("\"" + hash + "\"", Converter.toJson(hash));
+        assertEquals(hash, Converter.fromJson(Converter.toJson(hash), Hash.class));
+        assertEquals(address, Converter.fromJson(Converter.toJson(address), Address.class));
+        var hashes = Converter.fromJson(Converter.toJson(new Hash[] { hash, Hash.ZERO }), Hash[].class);
+        assertEquals(hash, hashes[0]);
+        // the zero value is deserialized to the shared constant
+        assertSame(Hash.ZERO, hashes[1]);
+        assertSame(Address.ZERO, Converter.fromJson(Converter.toJson(Address.ZERO), Address.class));
+    }
+}
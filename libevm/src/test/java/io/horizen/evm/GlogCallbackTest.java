@@ -0,0 +1,28 @@
+package io.horizen.evm;
+
+import org.apache.logging.log4j.LogManager;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class GlogCallbackTest extends LibEvmTestBase {
+    @Test
+    public void batchedRecords() {
+        try (var callback = new GlogCallback(LogManager.getLogger())) {
+            // a batch of JSON lines, including a malformed record and the number of dropped records
+            var batch = String.join("\n",
+                "{\"lvl\":\"info\",\"msg\":\"first\",\"file\":\"a.go\",\"line\":\"1\",\"fn\":\"a\",\"t\":\"now\"}",
+                "",
+                "{\"lvl\":\"trce\",\"msg\":\"second\",\"key\":\"value\"}",
+                "not json",
+                "{\"lvl\":\"warn\",\"msg\":\"log records dropped\",\"libevm.dropped\":42}",
+                ""
+            );
+            assertNull(callback.invoke(batch));
+            assertEquals(42, callback.getDroppedRecords());
+            callback.invoke("{\"lvl\":\"warn\",\"msg\":\"log records dropped\",\"libevm.dropped\":8}");
+            assertEquals(50, callback.getDroppedRecords());
+        }
+    }
+}
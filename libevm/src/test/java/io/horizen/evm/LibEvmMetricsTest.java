@@ -0,0 +1,94 @@
+package io.horizen.evm;
+
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class LibEvmMetricsTest extends LibEvmTestBase {
+    @Test
+    public void snapshot() {
+        // listeners are also invoked from other threads, e.g. for log records forwarded asynchronously
+        var invoked = new CopyOnWriteArrayList<String>();
+        var callbacks = new CopyOnWriteArrayList<String>();
+        LibEvmMetrics.Listener listener = new LibEvmMetrics.Listener() {
+            @Override
+            public void onInvoke(
+                String method,
+                long serialization,
+                long nativeCall,
+                long deserialization,
+                int argsSize,
+                int responseSize,
+                boolean failed
+            ) {
+                invoked.add(method + (failed ? " failed" : ""));
+            }
+
+            @Override
+            public void onCallback(String kind) {
+                callbacks.add(kind);
+            }
+        };
+        LibEvmMetrics.reset();
+        LibEvmMetrics.addListener(listener);
+        try (var callback = new BlockHashCallback() {
+            @Override
+            protected Hash getBlockHash(BigInteger blockNumber) {
+                return Hash.ZERO;
+            }
+        }) {
+            TrieHasher.Root(new byte[][] { bytes("c0ffee") });
+            TrieHasher.Root(new byte[][] { bytes("cafe") });
+            assertThrows(LibEvmException.class, () -> LibEvm.invoke("ThisDoesNotExist"));
+            LibEvmMetrics.recordCallback(callback);
+
+            var snapshot = LibEvmMetrics.snapshot();
+            var hashRoot = snapshot.methods.get("HashRoot");
+            assertNotNull(hashRoot);
+            assertEquals(2, hashRoot.calls);
+            assertEquals(0, hashRoot.errors);
+            assertEquals(2, hashRoot.nativeCall.count);
+            assertTrue(hashRoot.nativeCall.sum > 0);
+            assertTrue(hashRoot.argsSize.sum > 0);
+            assertTrue(hashRoot.responseSize.sum > 0);
+            assertNotNull(hashRoot.execution);
+            assertEquals(2, hashRoot.execution.getCount());
+            // unknown methods are recorded in one shared bucket on both sides
+            assertNull(snapshot.methods.get("ThisDoesNotExist"));
+            var unknown = snapshot.methods.get(LibEvmMetrics.UNKNOWN_METHOD);
+            assertEquals(1, unknown.errors);
+            assertNotNull(unknown.execution);
+            assertEquals(1, unknown.execution.getCount());
+            assertEquals(1L, (long) snapshot.callbacks.get("BlockHashCallback"));
+            assertTrue(snapshot.handles.get("callbacks") >= 1);
+            assertNotNull(snapshot.handles.get("statedbs"));
+            assertEquals(
+                List.of("BlockHashCallback"),
+                callbacks.stream().filter("BlockHashCallback"::equals).collect(Collectors.toList())
+            );
+            assertEquals(List.of("HashRoot", "HashRoot", "unknown failed"), invoked.subList(0, 3));
+        } finally {
+            LibEvmMetrics.removeListener(listener);
+        }
+        LibEvmMetrics.reset();
+        // only the native calls made by snapshot() itself are included after a reset
+        assertNull(LibEvmMetrics.snapshot().methods.get("HashRoot"));
+    }
+
+    @Test
+    public void runtimeStats() {
+        var stats = LibEvmMetrics.runtimeStats();
+        assertTrue(stats.goroutines > 0);
+        assertTrue(stats.goMaxProcs > 0);
+        assertTrue(stats.heapBytes > 0);
+    }
+}
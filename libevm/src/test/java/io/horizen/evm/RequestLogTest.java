@@ -0,0 +1,46 @@
+package io.horizen.evm;
+
+import io.horizen.evm.results.RequestStats;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class RequestLogTest extends LibEvmTestBase {
+    @Test
+    public void requestStats() {
+        RequestLog.getStats(true);
+        try {
+            RequestLog.enable(2, 16);
+            for (int i = 0; i < 5; i++) {
+                TrieHasher.Root(new byte[][] { bytes("c0ffee"), bytes("cafe") });
+            }
+        } finally {
+            RequestLog.disable();
+        }
+        var stats = RequestLog.getStats(true);
+        var hashRoot = stats.methods.get("HashRoot");
+        assertNotNull(hashRoot);
+        assertEquals(5, hashRoot.getCount());
+        assertEquals(0, hashRoot.errors);
+        assertEquals(5, hashRoot.argsSize.count);
+        assertTrue(hashRoot.resultSize.sum > 0);
+        // the previous call to getStats is recorded after the reset
+        assertEquals(1, stats.methods.get("RequestStats").getCount());
+        // only the call to getStats itself was recorded since the last reset
+        assertEquals(1, RequestLog.getStats(false).methods.size());
+        assertThrows(IllegalArgumentException.class, () -> RequestLog.enable(0, 0));
+    }
+
+    @Test
+    public void histogramPercentile() {
+        var histogram = new RequestStats.Histogram(new long[] { 1, 0, 2, 0, 7 }, 10, 70);
+        assertEquals(0, histogram.percentile(0.1));
+        assertEquals(3, histogram.percentile(0.3));
+        assertEquals(15, histogram.percentile(0.5));
+        assertEquals(15, histogram.percentile(1));
+        assertEquals(0, new RequestStats.Histogram(null, 0, 0).percentile(0.99));
+    }
+}
@@ -306,6 +306,65 @@ public class StateDBTest extends LibEvmTestBase {
 
     }
 
+    @Test
+    public void accessListInput() throws Exception {
+        final var sender = new Address("0x0011001100110011001100110011001100110011");
+        final var destination = new Address("0x0022002200220022002200220022002200220022");
+        final var other = new Address("0x0033003300330033003300330033003300330033");
+        final var coinbase = new Address("0xcc110011001100110011001100110011001100aa");
+        final var key1 = new Hash("0xbafe3b6f2a19658df3cb5efca158c93272ff5cff000000000000000000000001");
+        final var key2 = new Hash("0xbafe3b6f2a19658df3cb5efca158c93272ff5cff000000000000000000000002");
+        final var value = new Hash("0x0000000000000000000000000000000000000000000000000000000000001234");
+
+        try (var db = new MemoryDatabase()) {
+            Hash root;
+            try (var statedb = new StateDB(db, StateDB.EMPTY_ROOT_HASH)) {
+                statedb.setNonce(other, BigInteger.ONE);
+                statedb.setStorage(other, key1, value);
+                root = statedb.commit();
+            }
+            try (var statedb = new StateDB(db, root)) {
+                var accessList = new AccessTuple[] { new AccessTuple(other, new Hash[] { key1, key2 }) };
+                statedb.accessSetup(sender, destination, coinbase, new ForkRules(true), accessList);
+                assertTrue("account in access list must be warm", statedb.accessAccount(other));
+                assertTrue("slot in access list must be warm", statedb.accessSlot(other, key1));
+                assertTrue("slot in access list must be warm", statedb.accessSlot(other, key2));
+                assertEquals("slot in access list must have the committed value", value, statedb.getStorage(other, key1));
+
+                // the access list is reset by the next setup
+                statedb.accessSetup(sender, destination, coinbase, new ForkRules(true));
+                assertFalse("account must not be warm after reset", statedb.accessAccount(other));
+                assertFalse("slot must not be warm after reset", statedb.accessSlot(other, key1));
+            }
+        }
+    }
+
+    @Test
+    public void nonceAndRefundLong() throws Exception {
+        final var origin = new Address("0xbafe3b6f2a19658df3cb5efca158c93272ff5c0b");
+        final var maxUint64 = new BigInteger("ffffffffffffffff", 16);
+
+        try (var db = new MemoryDatabase(); var statedb = new StateDB(db, StateDB.EMPTY_ROOT_HASH)) {
+            assertEquals(0, statedb.getNonceLong(origin));
+            statedb.setNonce(origin, 42);
+            assertEquals(42, statedb.getNonceLong(origin));
+            assertEquals(BigInteger.valueOf(42), statedb.getNonce(origin));
+            statedb.setNonce(origin, Long.MAX_VALUE);
+            assertEquals(Long.MAX_VALUE, statedb.getNonceLong(origin));
+            // the BigInteger variants support the full uint64 range
+            statedb.setNonce(origin, maxUint64);
+            assertEquals(maxUint64, statedb.getNonce(origin));
+            assertThrows(IllegalArgumentException.class, () -> statedb.getNonceLong(origin));
+            assertThrows(IllegalArgumentException.class, () -> statedb.setNonce(origin, -1));
+            assertThrows(IllegalArgumentException.class, () -> statedb.setNonce(origin, maxUint64.add(BigInteger.ONE)));
+
+            statedb.addRefund(1000);
+            statedb.subRefund(BigInteger.valueOf(200));
+            assertEquals(800, statedb.getRefundLong());
+            assertEquals(BigInteger.valueOf(800), statedb.getRefund());
+        }
+    }
+
     @Test
     public void testAccountTypes() throws Exception {
         final var code = bytes("aa87aee0394326416058ef46b907882903f3646ef2a6d0d20f9e705b87c58c77");
@@ -2,7 +2,10 @@ module libevm
 
 go 1.21
 
-require github.com/HorizenOfficial/go-ethereum v1.1.0
+require (
+	github.com/HorizenOfficial/go-ethereum v1.1.0
+	github.com/holiman/uint256 v1.2.3
+)
 
 require (
 	github.com/DataDog/zstd v1.4.5 // indirect
@@ -41,7 +44,6 @@ require (
 	github.com/google/uuid v1.3.0 // indirect
 	github.com/gorilla/websocket v1.4.2 // indirect
 	github.com/holiman/bloomfilter/v2 v2.0.3 // indirect
-	github.com/holiman/uint256 v1.2.3 // indirect
 	github.com/huin/goupnp v1.3.0 // indirect
 	github.com/jackpal/go-nat-pmp v1.0.2 // indirect
 	github.com/klauspost/compress v1.15.15 // indirect
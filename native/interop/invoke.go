@@ -6,6 +6,7 @@ import (
 	"github.com/HorizenOfficial/go-ethereum/log"
 	"reflect"
 	"strings"
+	"time"
 )
 
 var errorInterfaceType = reflect.TypeOf((*error)(nil)).Elem()
@@ -16,11 +17,24 @@ var (
 	ErrInvocationError  = errors.New("invocation error")
 )
 
+// Invoke calls the given method on the target and returns the JSON response. Latency and sizes of args and results are
+// recorded per method, see RequestStats. If the request log is enabled every n-th request is logged including its
+// truncated args and result, see SetRequestLog.
 func Invoke(target any, method string, args string) string {
-	log.Trace(">> invoke", "method", method, "args", args)
-	result := toJsonResponse(callMethod(target, method, args))
-	log.Trace("<< response", "result", result)
-	return result
+	start := time.Now()
+	err, result := callMethod(target, method, args)
+	response := toJsonResponse(err, result)
+	duration := time.Since(start)
+	// record all unknown methods in one entry to keep the number of tracked methods bounded
+	recorded := method
+	if errors.Is(err, ErrMethodNotFound) {
+		recorded = UnknownMethod
+	}
+	recordRequest(recorded, duration, len(args), len(response), err != nil)
+	if LogEnabled(log.LvlInfo) && sampleRequest() {
+		log.Info("request", "method", method, "duration", duration, "args", truncate(args), "response", truncate(response))
+	}
+	return response
 }
 
 // callMethod calls the given method on the target, optionally passing args by unmarshalling json to the required type
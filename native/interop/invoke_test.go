@@ -113,3 +113,26 @@ func TestCallMethod(t *testing.T) {
 		})
 	}
 }
+
+func BenchmarkInvoke(b *testing.B) {
+	m := new(MockLibrary)
+	for _, bench := range []struct {
+		name   string
+		method string
+		args   string
+	}{
+		{name: "NoParam", method: "NoParam"},
+		{name: "OneParamEcho", method: "OneParamEcho", args: "\"foo\""},
+		{name: "ComplexParam", method: "ComplexParam", args: "{\"foo\":42,\"nested\":{\"bar\":\"baz\"}}"},
+		{name: "ArrayParam", method: "ArrayParam", args: "[1,2,3,4,5,6,7,8,9,10]"},
+		{name: "Error", method: "ConditionalErrorWithResult", args: "7"},
+		{name: "MethodNotFound", method: "ThisDoesNotExist"},
+	} {
+		b.Run(bench.name, func(b *testing.B) {
+			b.ReportAllocs()
+			for i := 0; i < b.N; i++ {
+				Invoke(m, bench.method, bench.args)
+			}
+		})
+	}
+}
@@ -0,0 +1,25 @@
+package interop
+
+import (
+	"sync/atomic"
+
+	"github.com/HorizenOfficial/go-ethereum/log"
+)
+
+// logLevel mirrors the verbosity of the root log handler, defaults to trace
+var logLevel = func() *atomic.Uint32 {
+	level := new(atomic.Uint32)
+	level.Store(uint32(log.LvlTrace))
+	return level
+}()
+
+// SetLogLevel updates the level used by LogEnabled, it must be kept in sync with the verbosity of the root log handler
+func SetLogLevel(level log.Lvl) {
+	logLevel.Store(uint32(level))
+}
+
+// LogEnabled is a fast check if records of the given level would be logged. This allows to skip building log records,
+// including capturing the call site, that would be discarded anyway.
+func LogEnabled(level log.Lvl) bool {
+	return level <= log.Lvl(logLevel.Load())
+}
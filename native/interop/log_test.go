@@ -0,0 +1,24 @@
+package interop
+
+import (
+	"testing"
+
+	"github.com/HorizenOfficial/go-ethereum/log"
+)
+
+func TestLogEnabled(t *testing.T) {
+	defer SetLogLevel(log.LvlTrace)
+	SetLogLevel(log.LvlInfo)
+	for level, expected := range map[log.Lvl]bool{
+		log.LvlCrit:  true,
+		log.LvlError: true,
+		log.LvlWarn:  true,
+		log.LvlInfo:  true,
+		log.LvlDebug: false,
+		log.LvlTrace: false,
+	} {
+		if actual := LogEnabled(level); actual != expected {
+			t.Fatalf("unexpected result for level %v: want %v got %v", level, expected, actual)
+		}
+	}
+}
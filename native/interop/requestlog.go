@@ -0,0 +1,158 @@
+package interop
+
+import (
+	"math/bits"
+	"sync"
+	"sync/atomic"
+	"time"
+	"unicode/utf8"
+)
+
+// HistogramBuckets is the number of buckets of all histograms: bucket 0 counts zero values, bucket i counts values in
+// the range [2^(i-1), 2^i), the last bucket also counts all values that are even larger
+const HistogramBuckets = 32
+
+// UnknownMethod is the name all requests for methods that do not exist on the target are recorded with
+const UnknownMethod = "unknown"
+
+// DefaultMaxPayload is the default number of bytes of args and results that are included in sampled request logs
+const DefaultMaxPayload = 256
+
+// histogram counts values in exponential buckets, it is safe for concurrent use and does not allocate
+type histogram struct {
+	buckets [HistogramBuckets]atomic.Uint64
+	sum     atomic.Uint64
+}
+
+func (h *histogram) observe(value uint64) {
+	bucket := bits.Len64(value)
+	if bucket >= HistogramBuckets {
+		bucket = HistogramBuckets - 1
+	}
+	h.buckets[bucket].Add(1)
+	h.sum.Add(value)
+}
+
+func (h *histogram) snapshot() Histogram {
+	var (
+		snapshot = Histogram{Sum: h.sum.Load()}
+		last     = -1
+		buckets  [HistogramBuckets]uint64
+	)
+	for i := range h.buckets {
+		buckets[i] = h.buckets[i].Load()
+		snapshot.Count += buckets[i]
+		if buckets[i] > 0 {
+			last = i
+		}
+	}
+	// trailing empty buckets are omitted
+	snapshot.Buckets = buckets[:last+1]
+	return snapshot
+}
+
+type Histogram struct {
+	// Buckets contains the number of values per bucket, see HistogramBuckets
+	Buckets []uint64 `json:"buckets"`
+	Count   uint64   `json:"count"`
+	Sum     uint64   `json:"sum"`
+}
+
+type methodStats struct {
+	errors     atomic.Uint64
+	latency    histogram
+	argsSize   histogram
+	resultSize histogram
+}
+
+type MethodStats struct {
+	Errors uint64 `json:"errors"`
+	// Latency of the invocation in microseconds, including deserialization of args and serialization of the result
+	Latency Histogram `json:"latency"`
+	// ArgsSize is the length of the JSON args in bytes
+	ArgsSize Histogram `json:"argsSize"`
+	// ResultSize is the length of the JSON response in bytes
+	ResultSize Histogram `json:"resultSize"`
+}
+
+var (
+	// stats per method name, all methods that were not found on the target share the entry of UnknownMethod
+	stats sync.Map
+	// requests are logged if the sample rate is non-zero and the request counter is a multiple of the sample rate
+	sampleRate atomic.Uint64
+	maxPayload atomic.Int64
+	requests   atomic.Uint64
+)
+
+func init() {
+	maxPayload.Store(DefaultMaxPayload)
+}
+
+// SetRequestLog enables logging of every n-th request, or disables the request log if n is zero. Args and results of
+// logged requests are truncated to the given number of bytes, if the given limit is zero DefaultMaxPayload is used.
+func SetRequestLog(n uint64, limit int) {
+	if limit <= 0 {
+		limit = DefaultMaxPayload
+	}
+	maxPayload.Store(int64(limit))
+	sampleRate.Store(n)
+}
+
+// sampleRequest returns true if the current request should be logged
+func sampleRequest() bool {
+	n := sampleRate.Load()
+	return n != 0 && requests.Add(1)%n == 0
+}
+
+func recordRequest(method string, duration time.Duration, argsSize int, resultSize int, failed bool) {
+	entry, ok := stats.Load(method)
+	if !ok {
+		entry, _ = stats.LoadOrStore(method, new(methodStats))
+	}
+	s := entry.(*methodStats)
+	if failed {
+		s.errors.Add(1)
+	}
+	s.latency.observe(uint64(duration.Microseconds()))
+	s.argsSize.observe(uint64(argsSize))
+	s.resultSize.observe(uint64(resultSize))
+}
+
+// RequestStats returns the latency and size histograms of all methods that were invoked so far. If reset is true all
+// statistics are cleared: the entry of a method is detached before it is read, so every observation is either included
+// in the result or recorded to a new entry. Only a request that looked up the detached entry right before the reset and
+// records to it after it was read is lost.
+func RequestStats(reset bool) map[string]MethodStats {
+	result := make(map[string]MethodStats)
+	stats.Range(func(key, value any) bool {
+		if reset {
+			detached, ok := stats.LoadAndDelete(key)
+			if !ok {
+				// already detached by a concurrent reset
+				return true
+			}
+			value = detached
+		}
+		s := value.(*methodStats)
+		result[key.(string)] = MethodStats{
+			Errors:     s.errors.Load(),
+			Latency:    s.latency.snapshot(),
+			ArgsSize:   s.argsSize.snapshot(),
+			ResultSize: s.resultSize.snapshot(),
+		}
+		return true
+	})
+	return result
+}
+
+// truncate limits the given payload to the configured maximum number of bytes, without splitting a UTF-8 sequence
+func truncate(payload string) string {
+	limit := int(maxPayload.Load())
+	if len(payload) <= limit {
+		return payload
+	}
+	for limit > 0 && !utf8.RuneStart(payload[limit]) {
+		limit--
+	}
+	return payload[:limit] + "..."
+}
@@ -0,0 +1,100 @@
+package interop
+
+import (
+	"reflect"
+	"strings"
+	"testing"
+)
+
+func TestHistogram(t *testing.T) {
+	var h histogram
+	for _, value := range []uint64{0, 1, 2, 3, 4, 1000, 1 << 40} {
+		h.observe(value)
+	}
+	snapshot := h.snapshot()
+	expected := make([]uint64, HistogramBuckets)
+	expected[0] = 1
+	expected[1] = 1
+	expected[2] = 2
+	expected[3] = 1
+	expected[10] = 1
+	expected[HistogramBuckets-1] = 1
+	if !reflect.DeepEqual(expected, snapshot.Buckets) {
+		t.Fatalf("unexpected buckets: want %v got %v", expected, snapshot.Buckets)
+	}
+	if snapshot.Count != 7 || snapshot.Sum != 1010+(1<<40) {
+		t.Fatalf("unexpected count or sum: %v %v", snapshot.Count, snapshot.Sum)
+	}
+	var empty histogram
+	if snapshot := empty.snapshot(); len(snapshot.Buckets) != 0 || snapshot.Count != 0 {
+		t.Fatalf("unexpected snapshot of empty histogram: %v", snapshot)
+	}
+}
+
+func TestRequestStats(t *testing.T) {
+	RequestStats(true)
+	m := new(MockLibrary)
+	Invoke(m, "OneParamEcho", "\"foo\"")
+	Invoke(m, "OneParamEcho", "\"bar\"")
+	Invoke(m, "ConditionalErrorNoResult", "1")
+	Invoke(m, "ThisDoesNotExist", "")
+
+	Invoke(m, "ThisDoesNotExistEither", "")
+
+	stats := RequestStats(true)
+	if len(stats) != 3 {
+		t.Fatalf("unexpected methods recorded: %v", stats)
+	}
+	if unknown := stats[UnknownMethod]; unknown.Latency.Count != 2 || unknown.Errors != 2 {
+		t.Fatalf("unexpected stats: %+v", unknown)
+	}
+	echo := stats["OneParamEcho"]
+	if echo.Latency.Count != 2 || echo.Errors != 0 || echo.ArgsSize.Sum != 10 {
+		t.Fatalf("unexpected stats: %+v", echo)
+	}
+	// the response is {"error":"","result":"foo"}
+	if echo.ResultSize.Sum != 2*uint64(len(`{"error":"","result":"foo"}`)) {
+		t.Fatalf("unexpected result size: %v", echo.ResultSize.Sum)
+	}
+	if failed := stats["ConditionalErrorNoResult"]; failed.Latency.Count != 1 || failed.Errors != 1 {
+		t.Fatalf("unexpected stats: %+v", failed)
+	}
+	if len(RequestStats(false)) != 0 {
+		t.Fatal("stats were not reset")
+	}
+}
+
+func TestRequestLog(t *testing.T) {
+	defer SetRequestLog(0, 0)
+	SetRequestLog(0, 0)
+	for i := 0; i < 10; i++ {
+		if sampleRequest() {
+			t.Fatal("request log should be disabled")
+		}
+	}
+	SetRequestLog(3, 4)
+	requests.Store(0)
+	sampled := 0
+	for i := 0; i < 30; i++ {
+		if sampleRequest() {
+			sampled++
+		}
+	}
+	if sampled != 10 {
+		t.Fatalf("unexpected number of sampled requests: want 10 got %v", sampled)
+	}
+	if actual := truncate("abcdefgh"); actual != "abcd..." {
+		t.Fatalf("unexpected truncated payload: %v", actual)
+	}
+	if actual := truncate("abc"); actual != "abc" {
+		t.Fatalf("unexpected truncated payload: %v", actual)
+	}
+	// the limit is in bytes, but multi-byte UTF-8 sequences are never split
+	if actual := truncate("abc\u00e9\u00e9"); actual != "abc..." {
+		t.Fatalf("unexpected truncated payload: %v", actual)
+	}
+	SetRequestLog(1, 0)
+	if actual := truncate(strings.Repeat("a", 1000)); len(actual) != DefaultMaxPayload+3 {
+		t.Fatalf("unexpected length of truncated payload: %v", len(actual))
+	}
+}
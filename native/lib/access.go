@@ -2,6 +2,7 @@ package lib
 
 import (
 	"github.com/HorizenOfficial/go-ethereum/common"
+	"github.com/HorizenOfficial/go-ethereum/core/state"
 	"github.com/HorizenOfficial/go-ethereum/core/types"
 	"github.com/HorizenOfficial/go-ethereum/core/vm"
 	gethparams "github.com/HorizenOfficial/go-ethereum/params"
@@ -25,12 +26,17 @@ func (s *Service) AccessSetup(params AccessParams) error {
 	if err != nil {
 		return err
 	}
-	evmRules := gethparams.Rules{IsBerlin: true, IsShanghai: params.Rules.IsShanghai}
-	statedb.Prepare(evmRules, params.Address, params.Coinbase,
-		params.Destination, vm.PrecompiledAddressesBerlin, params.AccessList)
+	prepareAccess(statedb, params.Rules, params.Address, params.Coinbase, params.Destination, params.AccessList)
 	return nil
 }
 
+// prepareAccess resets the access list and transient storage and adds sender, destination, coinbase, precompiles and
+// the given access list to the access list, see StateDB.Prepare
+func prepareAccess(statedb *state.StateDB, rules *ForkRules, sender, coinbase common.Address, destination *common.Address, list types.AccessList) {
+	evmRules := gethparams.Rules{IsBerlin: true, IsShanghai: rules.IsShanghai}
+	statedb.Prepare(evmRules, sender, coinbase, destination, vm.PrecompiledAddressesBerlin, list)
+}
+
 func (s *Service) AccessAccount(params AccountParams) (error, bool) {
 	err, statedb := s.statedbs.Get(params.Handle)
 	if err != nil {
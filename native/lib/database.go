@@ -10,7 +10,7 @@ import (
 )
 
 type Database struct {
-	storage  ethdb.Database
+	storage  *countingDatabase
 	database state.Database
 }
 
@@ -24,9 +24,10 @@ type LevelDBParams struct {
 }
 
 func (s *Service) open(storage ethdb.Database, preimages bool) int {
+	counting := newCountingDatabase(storage)
 	db := &Database{
-		storage:  storage,
-		database: state.NewDatabaseWithConfig(storage, &trie.Config{HashDB: &hashdb.Config{CleanCacheSize: 256 * 1024 * 1024}, Preimages: preimages}),
+		storage:  counting,
+		database: state.NewDatabaseWithConfig(counting, &trie.Config{HashDB: &hashdb.Config{CleanCacheSize: 256 * 1024 * 1024}, Preimages: preimages}),
 	}
 	return s.databases.Add(db)
 }
@@ -0,0 +1,280 @@
+package lib
+
+import (
+	"math/big"
+	"sync/atomic"
+	"time"
+
+	"github.com/HorizenOfficial/go-ethereum/common"
+	"github.com/HorizenOfficial/go-ethereum/core/rawdb"
+	"github.com/HorizenOfficial/go-ethereum/core/state"
+	"github.com/HorizenOfficial/go-ethereum/ethdb"
+)
+
+// DatabaseStats are counters of all operations on the underlying key-value store of a database since it was opened.
+// All durations are in nanoseconds.
+type DatabaseStats struct {
+	// Reads is the total number of values read from the key-value store, i.e. that were not served from a cache
+	Reads uint64 `json:"reads"`
+	// ReadMisses is the number of reads for keys that do not exist
+	ReadMisses uint64 `json:"readMisses"`
+	ReadBytes  uint64 `json:"readBytes"`
+	// ReadTime only includes reads while read timing is enabled, see DatabaseSetReadTiming and ExecutionStats
+	ReadTime uint64 `json:"readTime"`
+	// TrieNodeReads is the number of trie nodes read, i.e. misses of the trie clean cache
+	TrieNodeReads uint64 `json:"trieNodeReads"`
+	// CodeReads is the number of contract codes read, i.e. misses of the code cache
+	CodeReads  uint64 `json:"codeReads"`
+	Writes     uint64 `json:"writes"`
+	WriteBytes uint64 `json:"writeBytes"`
+	// Commits is the number of state commits, see StateCommit
+	Commits    uint64 `json:"commits"`
+	CommitTime uint64 `json:"commitTime"`
+}
+
+type databaseCounters struct {
+	reads         atomic.Uint64
+	readMisses    atomic.Uint64
+	readBytes     atomic.Uint64
+	readTime      atomic.Uint64
+	trieNodeReads atomic.Uint64
+	codeReads     atomic.Uint64
+	writes        atomic.Uint64
+	writeBytes    atomic.Uint64
+	commits       atomic.Uint64
+	commitTime    atomic.Uint64
+}
+
+func (c *databaseCounters) snapshot() DatabaseStats {
+	return DatabaseStats{
+		Reads:         c.reads.Load(),
+		ReadMisses:    c.readMisses.Load(),
+		ReadBytes:     c.readBytes.Load(),
+		ReadTime:      c.readTime.Load(),
+		TrieNodeReads: c.trieNodeReads.Load(),
+		CodeReads:     c.codeReads.Load(),
+		Writes:        c.writes.Load(),
+		WriteBytes:    c.writeBytes.Load(),
+		Commits:       c.commits.Load(),
+		CommitTime:    c.commitTime.Load(),
+	}
+}
+
+func (c *databaseCounters) write(key []byte, value []byte) {
+	c.writes.Add(1)
+	c.writeBytes.Add(uint64(len(key) + len(value)))
+}
+
+// countingDatabase wraps a key-value store and counts all reads and writes. Reads are only timed while enabled, as
+// that adds two calls to time.Now() to every read.
+type countingDatabase struct {
+	ethdb.Database
+	counters databaseCounters
+	// timeReads is set by DatabaseSetReadTiming
+	timeReads atomic.Bool
+	// timers is the number of invocations in progress that measure ExecutionStats
+	timers atomic.Int32
+}
+
+func newCountingDatabase(db ethdb.Database) *countingDatabase {
+	return &countingDatabase{Database: db}
+}
+
+func (db *countingDatabase) Get(key []byte) ([]byte, error) {
+	var (
+		value []byte
+		err   error
+	)
+	if db.timeReads.Load() || db.timers.Load() > 0 {
+		start := time.Now()
+		value, err = db.Database.Get(key)
+		db.counters.readTime.Add(uint64(time.Since(start)))
+	} else {
+		value, err = db.Database.Get(key)
+	}
+	db.counters.reads.Add(1)
+	if err != nil {
+		db.counters.readMisses.Add(1)
+	}
+	db.counters.readBytes.Add(uint64(len(value)))
+	// with the hash scheme trie nodes are stored by their hash, contract code is stored by its hash with a prefix
+	switch {
+	case len(key) == common.HashLength:
+		db.counters.trieNodeReads.Add(1)
+	case len(key) == len(rawdb.CodePrefix)+common.HashLength && key[0] == rawdb.CodePrefix[0]:
+		db.counters.codeReads.Add(1)
+	}
+	return value, err
+}
+
+func (db *countingDatabase) Put(key []byte, value []byte) error {
+	db.counters.write(key, value)
+	return db.Database.Put(key, value)
+}
+
+func (db *countingDatabase) NewBatch() ethdb.Batch {
+	return &countingBatch{Batch: db.Database.NewBatch(), counters: &db.counters}
+}
+
+func (db *countingDatabase) NewBatchWithSize(size int) ethdb.Batch {
+	return &countingBatch{Batch: db.Database.NewBatchWithSize(size), counters: &db.counters}
+}
+
+// countingBatch counts writes of a batch, even if the batch is never written
+type countingBatch struct {
+	ethdb.Batch
+	counters *databaseCounters
+}
+
+func (b *countingBatch) Put(key []byte, value []byte) error {
+	b.counters.write(key, value)
+	return b.Batch.Put(key, value)
+}
+
+// ExecutionStats are measurements taken during a single invocation. Database counters are shared by all users of the
+// database, if the database is used concurrently they also include operations of other invocations. All durations are
+// in nanoseconds.
+type ExecutionStats struct {
+	// Time is the total execution time of the invocation
+	Time uint64 `json:"time"`
+	// AccountReadTime is the time spent reading accounts from the StateDB, including database reads
+	AccountReadTime uint64 `json:"accountReadTime"`
+	// StorageReadTime is the time spent reading storage slots from the StateDB, including database reads
+	StorageReadTime  uint64 `json:"storageReadTime"`
+	DatabaseReads    uint64 `json:"databaseReads"`
+	DatabaseReadTime uint64 `json:"databaseReadTime"`
+	TrieNodeReads    uint64 `json:"trieNodeReads"`
+	CodeReads        uint64 `json:"codeReads"`
+}
+
+// timedStateDB measures the time spent in the StateDB methods that read accounts and storage slots. It is only passed
+// to the EVM of invocations that measure ExecutionStats, instead of enabling the measurements built into StateDB via
+// the global metrics.EnabledExpensive flag of geth, which would add overhead to every StateDB in the process. The EVM
+// reads accounts and slots before it modifies them, so the time of loading them is included here. Reads served from
+// the StateDB caches are included as well. An EVM is not used concurrently, so no synchronization is necessary.
+type timedStateDB struct {
+	*state.StateDB
+	accountReads time.Duration
+	storageReads time.Duration
+}
+
+func (s *timedStateDB) GetBalance(addr common.Address) *big.Int {
+	start := time.Now()
+	result := s.StateDB.GetBalance(addr)
+	s.accountReads += time.Since(start)
+	return result
+}
+
+func (s *timedStateDB) GetNonce(addr common.Address) uint64 {
+	start := time.Now()
+	result := s.StateDB.GetNonce(addr)
+	s.accountReads += time.Since(start)
+	return result
+}
+
+func (s *timedStateDB) GetCodeHash(addr common.Address) common.Hash {
+	start := time.Now()
+	result := s.StateDB.GetCodeHash(addr)
+	s.accountReads += time.Since(start)
+	return result
+}
+
+func (s *timedStateDB) GetCode(addr common.Address) []byte {
+	start := time.Now()
+	result := s.StateDB.GetCode(addr)
+	s.accountReads += time.Since(start)
+	return result
+}
+
+func (s *timedStateDB) GetCodeSize(addr common.Address) int {
+	start := time.Now()
+	result := s.StateDB.GetCodeSize(addr)
+	s.accountReads += time.Since(start)
+	return result
+}
+
+func (s *timedStateDB) Exist(addr common.Address) bool {
+	start := time.Now()
+	result := s.StateDB.Exist(addr)
+	s.accountReads += time.Since(start)
+	return result
+}
+
+func (s *timedStateDB) Empty(addr common.Address) bool {
+	start := time.Now()
+	result := s.StateDB.Empty(addr)
+	s.accountReads += time.Since(start)
+	return result
+}
+
+func (s *timedStateDB) GetState(addr common.Address, key common.Hash) common.Hash {
+	start := time.Now()
+	result := s.StateDB.GetState(addr, key)
+	s.storageReads += time.Since(start)
+	return result
+}
+
+func (s *timedStateDB) GetCommittedState(addr common.Address, key common.Hash) common.Hash {
+	start := time.Now()
+	result := s.StateDB.GetCommittedState(addr, key)
+	s.storageReads += time.Since(start)
+	return result
+}
+
+// executionStats takes measurements before an invocation, the invocation must be executed on the returned StateDB.
+// Calling the returned function afterwards gives the difference. Database reads are timed until the returned function
+// is called, so it must always be called.
+func executionStats(statedb *state.StateDB) (*timedStateDB, func() *ExecutionStats) {
+	var (
+		start  = time.Now()
+		timed  = &timedStateDB{StateDB: statedb}
+		db, _  = statedb.Database().DiskDB().(*countingDatabase)
+		before DatabaseStats
+	)
+	if db != nil {
+		db.timers.Add(1)
+		before = db.counters.snapshot()
+	}
+	return timed, func() *ExecutionStats {
+		stats := &ExecutionStats{
+			Time:            uint64(time.Since(start)),
+			AccountReadTime: uint64(timed.accountReads),
+			StorageReadTime: uint64(timed.storageReads),
+		}
+		if db != nil {
+			after := db.counters.snapshot()
+			db.timers.Add(-1)
+			stats.DatabaseReads = after.Reads - before.Reads
+			stats.DatabaseReadTime = after.ReadTime - before.ReadTime
+			stats.TrieNodeReads = after.TrieNodeReads - before.TrieNodeReads
+			stats.CodeReads = after.CodeReads - before.CodeReads
+		}
+		return stats
+	}
+}
+
+// DatabaseGetStats returns the counters of the given database
+func (s *Service) DatabaseGetStats(params DatabaseParams) (error, *DatabaseStats) {
+	err, db := s.databases.Get(params.DatabaseHandle)
+	if err != nil {
+		return err, nil
+	}
+	stats := db.storage.counters.snapshot()
+	return nil, &stats
+}
+
+type DatabaseReadTimingParams struct {
+	DatabaseParams
+	Enabled bool `json:"enabled"`
+}
+
+// DatabaseSetReadTiming enables or disables measuring the time of all reads from the given database. Reads during
+// invocations that measure ExecutionStats are always timed.
+func (s *Service) DatabaseSetReadTiming(params DatabaseReadTimingParams) error {
+	err, db := s.databases.Get(params.DatabaseHandle)
+	if err != nil {
+		return err
+	}
+	db.storage.timeReads.Store(params.Enabled)
+	return nil
+}
@@ -0,0 +1,97 @@
+package lib
+
+import (
+	"testing"
+
+	"github.com/HorizenOfficial/go-ethereum/common"
+	"github.com/HorizenOfficial/go-ethereum/core/rawdb"
+	"libevm/test"
+)
+
+func TestDatabaseStats(t *testing.T) {
+	var (
+		instance, dbHandle, stateHandle = SetupTest()
+		user                            = common.HexToAddress("0xbafe3b6f2a19658df3cb5efca158c93272ff5c0b")
+		context                         = EvmContext{Rules: &ForkRules{IsShanghai: true}}
+	)
+	_, deploy := instance.EvmApply(EvmParams{
+		HandleParams: HandleParams{Handle: stateHandle},
+		Invocation:   Invocation{Caller: user, Input: test.Storage.Deploy(common.Big3), Gas: 200000},
+		Context:      context,
+	})
+	if deploy.ExecutionError != "" {
+		t.Fatalf("vm error: %v", deploy.ExecutionError)
+	}
+	if deploy.Stats != nil {
+		t.Fatal("stats should only be included if requested")
+	}
+	_, root := instance.StateCommit(HandleParams{Handle: stateHandle})
+
+	// execute on a freshly opened state, so that accounts and storage have to be loaded
+	_, reopened := instance.StateOpen(StateParams{DatabaseParams: DatabaseParams{DatabaseHandle: dbHandle}, Root: root})
+	_, result := instance.EvmApply(EvmParams{
+		HandleParams: HandleParams{Handle: reopened},
+		Invocation:   Invocation{Caller: user, Callee: deploy.ContractAddress, Input: test.Storage.Retrieve(), Gas: 200000},
+		Context:      context,
+		Stats:        true,
+	})
+	if result.ExecutionError != "" {
+		t.Fatalf("vm error: %v", result.ExecutionError)
+	}
+	if result.Stats == nil {
+		t.Fatal("missing stats")
+	}
+	if result.Stats.Time == 0 || result.Stats.AccountReadTime == 0 || result.Stats.StorageReadTime == 0 {
+		t.Fatalf("unexpected stats: %+v", result.Stats)
+	}
+	// the measurements of StateDB itself depend on a global flag of geth, which must not be switched on
+	if _, statedb := instance.statedbs.Get(reopened); statedb.AccountReads != 0 || statedb.StorageReads != 0 {
+		t.Fatal("expensive StateDB metrics should not be enabled")
+	}
+
+	err, stats := instance.DatabaseGetStats(DatabaseParams{DatabaseHandle: dbHandle})
+	if err != nil {
+		t.Fatalf("unexpected error: %v", err)
+	}
+	if stats.Commits != 1 || stats.CommitTime == 0 || stats.Writes == 0 || stats.WriteBytes == 0 {
+		t.Fatalf("unexpected database stats: %+v", stats)
+	}
+	if stats.Reads < result.Stats.DatabaseReads {
+		t.Fatalf("database reads are less than the reads of a single invocation: %+v", stats)
+	}
+}
+
+func TestDatabaseReadTiming(t *testing.T) {
+	var (
+		db  = newCountingDatabase(rawdb.NewMemoryDatabase())
+		key = []byte("key")
+	)
+	if err := db.Put(key, []byte("value")); err != nil {
+		t.Fatalf("unexpected error: %v", err)
+	}
+	// reads are counted, but not timed by default
+	if _, err := db.Get(key); err != nil {
+		t.Fatalf("unexpected error: %v", err)
+	}
+	if stats := db.counters.snapshot(); stats.Reads != 1 || stats.ReadTime != 0 {
+		t.Fatalf("unexpected database stats: %+v", stats)
+	}
+	// timed while an invocation measures execution stats
+	db.timers.Add(1)
+	db.Get(key)
+	db.timers.Add(-1)
+	timed := db.counters.snapshot().ReadTime
+	if timed == 0 {
+		t.Fatal("read should have been timed")
+	}
+	db.Get(key)
+	if stats := db.counters.snapshot(); stats.Reads != 3 || stats.ReadTime != timed {
+		t.Fatalf("unexpected database stats: %+v", stats)
+	}
+	// timed while enabled
+	db.timeReads.Store(true)
+	db.Get(key)
+	if stats := db.counters.snapshot(); stats.Reads != 4 || stats.ReadTime == timed {
+		t.Fatalf("unexpected database stats: %+v", stats)
+	}
+}
@@ -8,7 +8,6 @@ import (
 	"github.com/HorizenOfficial/go-ethereum/common"
 	"github.com/HorizenOfficial/go-ethereum/common/hexutil"
 	"github.com/HorizenOfficial/go-ethereum/core"
-	"github.com/HorizenOfficial/go-ethereum/core/state"
 	"github.com/HorizenOfficial/go-ethereum/core/vm"
 	"github.com/HorizenOfficial/go-ethereum/eth/tracers"
 	"github.com/HorizenOfficial/go-ethereum/params"
@@ -23,33 +22,42 @@ type Invocation struct {
 	Callee   *common.Address `json:"callee"`
 	Value    *hexutil.Big    `json:"value"`
 	Input    []byte          `json:"input"`
-	Gas      hexutil.Uint64  `json:"gas"`
+	Gas      Uint64          `json:"gas"`
 	ReadOnly bool            `json:"readOnly"`
 }
 
 type InvocationResult struct {
 	ReturnData      []byte          `json:"returnData"`
-	LeftOverGas     hexutil.Uint64  `json:"leftOverGas"`
+	LeftOverGas     Uint64          `json:"leftOverGas"`
 	ExecutionError  string          `json:"executionError"`
 	Reverted        bool            `json:"reverted"`
 	ContractAddress *common.Address `json:"contractAddress"`
+	// Stats are only included if requested, see EvmParams
+	Stats *ExecutionStats `json:"stats,omitempty"`
 }
 
 type EvmContext struct {
-	ChainID           hexutil.Uint64      `json:"chainID"`
-	Coinbase          common.Address      `json:"coinbase"`
-	GasLimit          hexutil.Uint64      `json:"gasLimit"`
-	GasPrice          *hexutil.Big        `json:"gasPrice"`
-	BlockNumber       *hexutil.Big        `json:"blockNumber"`
-	Time              *hexutil.Big        `json:"time"`
-	BaseFee           *hexutil.Big        `json:"baseFee"`
-	Random            common.Hash         `json:"random"`
-	BlockHashCallback *BlockHashCallback  `json:"blockHashCallback"`
+	ChainID           hexutil.Uint64     `json:"chainID"`
+	Coinbase          common.Address     `json:"coinbase"`
+	GasLimit          hexutil.Uint64     `json:"gasLimit"`
+	GasPrice          *hexutil.Big       `json:"gasPrice"`
+	BlockNumber       *hexutil.Big       `json:"blockNumber"`
+	Time              *hexutil.Big       `json:"time"`
+	BaseFee           *hexutil.Big       `json:"baseFee"`
+	Random            common.Hash        `json:"random"`
+	BlockHashCallback *BlockHashCallback `json:"blockHashCallback"`
+	// BlockHashes optionally gives the hashes of the most recent blocks before BlockNumber, the most recent one first.
+	// They are served from a native cache, the BlockHashCallback is only invoked for blocks not contained in the cache.
+	BlockHashes       []common.Hash       `json:"blockHashes"`
 	Tracer            *int                `json:"tracer"`
 	ExternalContracts []common.Address    `json:"externalContracts"`
 	ExternalCallback  *InvocationCallback `json:"externalCallback"`
 	InitialDepth      int                 `json:"initialDepth"`
 	Rules             *ForkRules          `json:"rules"`
+	// chainConfig is only populated for registered contexts, see EvmContextCreate
+	chainConfig *params.ChainConfig
+	// blockHashes caches block hashes for all executions using this context
+	blockHashes *blockHashCache
 }
 
 // setDefaults for parameters that were omitted
@@ -79,13 +87,25 @@ func (c *EvmContext) setDefaults() {
 	if c.Rules == nil {
 		c.Rules = &ForkRules{IsShanghai: false}
 	}
+	// the cache itself is small, the ring buffer of hashes is only allocated on the first miss
+	if c.blockHashes == nil && (c.BlockHashCallback != nil || len(c.BlockHashes) > 0) {
+		c.blockHashes = newBlockHashCache(c.BlockHashCallback, c.BlockNumber.ToInt().Uint64(), c.BlockHashes)
+	}
+}
+
+// getBlockHash retrieves block hashes via the cache if available, see blockHashCache
+func (c *EvmContext) getBlockHash(blockNumber uint64) common.Hash {
+	if c.blockHashes != nil {
+		return c.blockHashes.getBlockHash(blockNumber)
+	}
+	return c.BlockHashCallback.getBlockHash(blockNumber)
 }
 
 func (c *EvmContext) getBlockContext() vm.BlockContext {
 	return vm.BlockContext{
 		CanTransfer: core.CanTransfer,
 		Transfer:    core.Transfer,
-		GetHash:     c.BlockHashCallback.getBlockHash,
+		GetHash:     c.getBlockHash,
 		Coinbase:    c.Coinbase,
 		GasLimit:    uint64(c.GasLimit),
 		BlockNumber: c.BlockNumber.ToInt(),
@@ -97,6 +117,9 @@ func (c *EvmContext) getBlockContext() vm.BlockContext {
 }
 
 func (c *EvmContext) getChainConfig() *params.ChainConfig {
+	if c.chainConfig != nil {
+		return c.chainConfig
+	}
 	var shanghaiTime *uint64 = nil //When nil means is disabled (see "github.com/HorizenOfficial/go-ethereum/params/config.go")
 	if c.Rules.IsShanghai {
 		shanghaiTime = new(uint64) //When 0 means is enabled (see "github.com/HorizenOfficial/go-ethereum/params/config.go")
@@ -125,26 +148,44 @@ func (c *EvmContext) getTracer(s *Service) (error, tracers.Tracer) {
 	if c.Tracer == nil {
 		return nil, nil
 	}
-	err, tracerPtr := s.tracers.Get(*c.Tracer)
+	err, tracer := s.tracers.Get(*c.Tracer)
 	if err != nil {
 		return err, nil
 	}
-	return nil, *tracerPtr
+	return nil, tracer.Tracer
 }
 
 type EvmParams struct {
 	HandleParams
 	Invocation Invocation `json:"invocation"`
 	Context    EvmContext `json:"context"`
+	// ContextHandle optionally refers to a registered context, if given it takes precedence over Context
+	ContextHandle *int `json:"contextHandle"`
+	// Stats enables measurements during the invocation, currently only supported by EvmApply
+	Stats bool `json:"stats"`
 }
 
-func (s *Service) getEvm(context EvmContext, stateDB *state.StateDB, origin common.Address) (error, *vm.EVM) {
+// getContext retrieves a registered context if a handle is given, otherwise it returns the given context after applying
+// defaults
+func (s *Service) getContext(context *EvmContext, handle *int) (error, *EvmContext) {
+	if handle == nil {
+		context.setDefaults()
+		return nil, context
+	}
+	return s.contexts.Get(*handle)
+}
+
+func (s *Service) getEvm(context EvmContext, stateDB vm.StateDB, origin common.Address) (error, *vm.EVM) {
 	// get tracer if a handle is given
 	err, tracer := context.getTracer(s)
 	if err != nil {
 		return err, nil
 	}
+	return nil, newEvm(context, stateDB, origin, tracer)
+}
 
+// newEvm creates an EVM instance for the given context using the given tracer instead of the one given in the context
+func newEvm(context EvmContext, stateDB vm.StateDB, origin common.Address, tracer vm.EVMLogger) *vm.EVM {
 	var (
 		txContext = vm.TxContext{
 			Origin:   origin,
@@ -162,26 +203,48 @@ func (s *Service) getEvm(context EvmContext, stateDB *state.StateDB, origin comm
 			ExternalCallback:        context.ExternalCallback.execute,
 		}
 	)
-	return nil, vm.NewEVM(blockContext, txContext, stateDB, chainConfig, evmConfig)
+	return vm.NewEVM(blockContext, txContext, stateDB, chainConfig, evmConfig)
 }
 
 func (s *Service) EvmApply(params EvmParams) (error, *InvocationResult) {
-	// apply defaults to missing parameters
-	params.Invocation.setDefaults()
-	params.Context.setDefaults()
+	err, context := s.getContext(&params.Context, params.ContextHandle)
+	if err != nil {
+		return err, nil
+	}
 
 	err, statedb := s.statedbs.Get(params.Handle)
 	if err != nil {
 		return err, nil
 	}
 
-	err, evm := s.getEvm(params.Context, statedb, params.Invocation.Caller)
+	if !params.Stats {
+		return s.apply(statedb, params.Invocation, context)
+	}
+	timed, stats := executionStats(statedb)
+	err, result := s.apply(timed, params.Invocation, context)
+	// always finish the measurement, it also stops timing database reads
+	measured := stats()
+	if result != nil {
+		result.Stats = measured
+	}
+	return err, result
+}
+
+// apply executes the given invocation on the given state using the given context
+func (s *Service) apply(statedb vm.StateDB, invocation Invocation, context *EvmContext) (error, *InvocationResult) {
+	// apply defaults to missing parameters
+	invocation.setDefaults()
+
+	err, evm := s.getEvm(*context, statedb, invocation.Caller)
 	if err != nil {
 		return err, nil
 	}
+	return nil, run(evm, statedb, invocation, context.InitialDepth)
+}
 
+// run executes the given invocation using the given EVM instance
+func run(evm *vm.EVM, statedb vm.StateDB, invocation Invocation, initialDepth int) *InvocationResult {
 	var (
-		invocation       = params.Invocation
 		sender           = vm.AccountRef(invocation.Caller)
 		gas              = uint64(invocation.Gas)
 		contractCreation = invocation.Callee == nil
@@ -216,7 +279,7 @@ func (s *Service) EvmApply(params EvmParams) (error, *InvocationResult) {
 		// decrement it before calling evm.Create.
 
 		nonce := statedb.GetNonce(invocation.Caller)
-		if nonce > 0 && params.Context.InitialDepth == 0 {
+		if nonce > 0 && initialDepth == 0 {
 			statedb.SetNonce(invocation.Caller, nonce-1)
 		}
 		// we ignore returnData here because it holds the contract code that was just deployed
@@ -224,7 +287,7 @@ func (s *Service) EvmApply(params EvmParams) (error, *InvocationResult) {
 		_, deployedContractAddress, gas, vmerr = evm.Create(sender, invocation.Input, gas, invocation.Value.ToInt())
 		contractAddress = &deployedContractAddress
 		// if there is an error evm.Create might not have incremented the nonce as expected,
-		if statedb.GetNonce(invocation.Caller) != nonce && params.Context.InitialDepth == 0 {
+		if statedb.GetNonce(invocation.Caller) != nonce && initialDepth == 0 {
 			statedb.SetNonce(invocation.Caller, nonce)
 		}
 	} else {
@@ -246,9 +309,9 @@ func (s *Service) EvmApply(params EvmParams) (error, *InvocationResult) {
 		returnData = make([]byte, 0)
 	}
 
-	return nil, &InvocationResult{
+	return &InvocationResult{
 		ReturnData:      returnData,
-		LeftOverGas:     hexutil.Uint64(gas),
+		LeftOverGas:     Uint64(gas),
 		ExecutionError:  evmError,
 		Reverted:        vmerr == vm.ErrExecutionReverted,
 		ContractAddress: contractAddress,
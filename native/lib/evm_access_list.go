@@ -0,0 +1,82 @@
+package lib
+
+import (
+	"fmt"
+
+	"github.com/HorizenOfficial/go-ethereum/common/hexutil"
+	"github.com/HorizenOfficial/go-ethereum/core/types"
+	"github.com/HorizenOfficial/go-ethereum/core/vm"
+	"github.com/HorizenOfficial/go-ethereum/crypto"
+	"github.com/HorizenOfficial/go-ethereum/eth/tracers/logger"
+)
+
+// maxAccessListIterations limits the number of executions when generating an access list. Usually the access list is
+// stable after two or three executions, but a contract that accesses slots depending on the remaining gas might never
+// converge, as the access list itself changes the gas costs.
+const maxAccessListIterations = 16
+
+type AccessListResult struct {
+	AccessList     types.AccessList `json:"accessList"`
+	GasUsed        hexutil.Uint64   `json:"gasUsed"`
+	ExecutionError string           `json:"executionError"`
+	Reverted       bool             `json:"reverted"`
+}
+
+// EvmCreateAccessList generates the access list for the given invocation, see eth_createAccessList. The invocation is
+// executed repeatedly with the access list of the previous execution until the access list does not change anymore.
+// Every execution is performed on a copy of the given state, the state is not modified. Just like EvmApply the gas used
+// does not include the intrinsic gas of a transaction. An error is returned if the access list does not converge within
+// maxAccessListIterations executions.
+func (s *Service) EvmCreateAccessList(params EvmParams) (error, *AccessListResult) {
+	err, context := s.getContext(&params.Context, params.ContextHandle)
+	if err != nil {
+		return err, nil
+	}
+	// the access list tracer replaces any other tracer
+	if context.Tracer != nil {
+		return ErrTracerNotSupported, nil
+	}
+
+	err, statedb := s.statedbs.Get(params.Handle)
+	if err != nil {
+		return err, nil
+	}
+
+	invocation := params.Invocation
+	invocation.setDefaults()
+
+	// the sender, the destination and precompiles are always warm and therefore never part of the access list
+	to := invocation.Callee
+	if to == nil {
+		// see the nonce workaround for contract creation in run()
+		nonce := statedb.GetNonce(invocation.Caller)
+		if nonce > 0 && context.InitialDepth == 0 {
+			nonce--
+		}
+		contractAddress := crypto.CreateAddress(invocation.Caller, nonce)
+		to = &contractAddress
+	}
+	// same rules as used by the EVM, see vm.NewEVM
+	rules := context.getChainConfig().Rules(context.BlockNumber.ToInt(), true, context.Time.ToInt().Uint64())
+	precompiles := vm.ActivePrecompiles(rules)
+
+	prevTracer := logger.NewAccessListTracer(nil, invocation.Caller, *to, precompiles)
+	for i := 0; i < maxAccessListIterations; i++ {
+		accessList := prevTracer.AccessList()
+		isolated := statedb.Copy()
+		prepareAccess(isolated, context.Rules, invocation.Caller, context.Coinbase, invocation.Callee, accessList)
+		tracer := logger.NewAccessListTracer(accessList, invocation.Caller, *to, precompiles)
+		evm := newEvm(*context, isolated, invocation.Caller, tracer)
+		result := run(evm, isolated, invocation, context.InitialDepth)
+		if tracer.Equal(prevTracer) {
+			return nil, &AccessListResult{
+				AccessList:     accessList,
+				GasUsed:        hexutil.Uint64(invocation.Gas - result.LeftOverGas),
+				ExecutionError: result.ExecutionError,
+				Reverted:       result.Reverted,
+			}
+		}
+		prevTracer = tracer
+	}
+	return fmt.Errorf("access list did not converge within %d executions", maxAccessListIterations), nil
+}
@@ -6,8 +6,12 @@ import (
 	"github.com/HorizenOfficial/go-ethereum/crypto"
 	"github.com/HorizenOfficial/go-ethereum/log"
 	"math/big"
+	"sync"
 )
 
+// blockHashCacheSize is the number of most recent block hashes accessible via the BLOCKHASH opcode
+const blockHashCacheSize = 256
+
 type BlockHashCallback struct{ Callback }
 
 func (c *BlockHashCallback) getBlockHash(blockNumber uint64) common.Hash {
@@ -24,3 +28,62 @@ func (c *BlockHashCallback) getBlockHash(blockNumber uint64) common.Hash {
 	}
 	return *result
 }
+
+type blockHashEntry struct {
+	number uint64
+	hash   common.Hash
+	valid  bool
+}
+
+// blockHashCache is a ring buffer of block hashes in front of the BlockHashCallback. The EVM only requests the hashes
+// of the 256 blocks before the current one, so indexing by block number modulo 256 never evicts a hash that can still
+// be requested. The cache may be used by multiple executions concurrently, e.g. via a registered context.
+//
+// The ring buffer takes about 12 KB and is only allocated when the first hash is added, so that an execution that never
+// uses the BLOCKHASH opcode does not pay for it.
+type blockHashCache struct {
+	callback *BlockHashCallback
+	mutex    sync.RWMutex
+	entries  *[blockHashCacheSize]blockHashEntry
+}
+
+// newBlockHashCache creates a cache pre-populated with the given hashes of the blocks before the given block number,
+// the most recent one first, i.e. hashes[0] is the hash of block number-1
+func newBlockHashCache(callback *BlockHashCallback, number uint64, hashes []common.Hash) *blockHashCache {
+	cache := &blockHashCache{callback: callback}
+	for i, hash := range hashes {
+		if i >= blockHashCacheSize || uint64(i) >= number {
+			break
+		}
+		cache.add(number-1-uint64(i), hash)
+	}
+	return cache
+}
+
+func (c *blockHashCache) add(number uint64, hash common.Hash) {
+	c.mutex.Lock()
+	defer c.mutex.Unlock()
+	if c.entries == nil {
+		c.entries = new([blockHashCacheSize]blockHashEntry)
+	}
+	c.entries[number%blockHashCacheSize] = blockHashEntry{number: number, hash: hash, valid: true}
+}
+
+// getBlockHash returns the cached hash or falls back to the callback on a miss
+func (c *blockHashCache) getBlockHash(number uint64) common.Hash {
+	var entry blockHashEntry
+	c.mutex.RLock()
+	if c.entries != nil {
+		entry = c.entries[number%blockHashCacheSize]
+	}
+	c.mutex.RUnlock()
+	if entry.valid && entry.number == number {
+		return entry.hash
+	}
+	hash := c.callback.getBlockHash(number)
+	// do not cache the result of a failed callback
+	if hash != (common.Hash{}) {
+		c.add(number, hash)
+	}
+	return hash
+}
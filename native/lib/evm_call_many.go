@@ -0,0 +1,82 @@
+package lib
+
+import (
+	"errors"
+	"github.com/HorizenOfficial/go-ethereum/common"
+	"github.com/HorizenOfficial/go-ethereum/core/state"
+	"github.com/HorizenOfficial/go-ethereum/log"
+	"runtime"
+	"sync"
+)
+
+var ErrTracerNotSupported = errors.New("tracing is not supported when executing multiple calls")
+
+type EvmCallManyParams struct {
+	DatabaseParams
+	Root        common.Hash  `json:"root"`
+	Invocations []Invocation `json:"invocations"`
+	Context     EvmContext   `json:"context"`
+	// ContextHandle optionally refers to a registered context, if given it takes precedence over Context
+	ContextHandle *int `json:"contextHandle"`
+}
+
+// EvmCallMany executes all given invocations on the state at the given root. Every invocation is executed on an
+// isolated copy of the same state, i.e. invocations do not see the changes of each other and all changes are discarded.
+// The invocations are executed in parallel, results are returned in the same order as the given invocations.
+func (s *Service) EvmCallMany(params EvmCallManyParams) (error, []*InvocationResult) {
+	err, context := s.getContext(&params.Context, params.ContextHandle)
+	if err != nil {
+		return err, nil
+	}
+	// a tracer instance is not safe for concurrent use and would interleave the traces of all invocations
+	if context.Tracer != nil {
+		return ErrTracerNotSupported, nil
+	}
+
+	err, db := s.databases.Get(params.DatabaseHandle)
+	if err != nil {
+		return err, nil
+	}
+	statedb, err := state.New(params.Root, db.database, nil)
+	if err != nil {
+		log.Error("failed to open state", "root", params.Root, "error", err)
+		return err, nil
+	}
+
+	var (
+		count   = len(params.Invocations)
+		results = make([]*InvocationResult, count)
+		errs    = make([]error, count)
+		jobs    = make(chan int, count)
+		workers = runtime.NumCPU()
+		wg      sync.WaitGroup
+	)
+	for i := 0; i < count; i++ {
+		jobs <- i
+	}
+	close(jobs)
+	if workers > count {
+		workers = count
+	}
+	for w := 0; w < workers; w++ {
+		wg.Add(1)
+		go func() {
+			defer wg.Done()
+			for i := range jobs {
+				// the original statedb is never modified, so taking copies concurrently is safe
+				isolated := statedb.Copy()
+				invocation := params.Invocations[i]
+				prepareAccess(isolated, context.Rules, invocation.Caller, context.Coinbase, invocation.Callee, nil)
+				errs[i], results[i] = s.apply(isolated, invocation, context)
+			}
+		}()
+	}
+	wg.Wait()
+
+	for _, err := range errs {
+		if err != nil {
+			return err, nil
+		}
+	}
+	return nil, results
+}
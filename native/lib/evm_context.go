@@ -0,0 +1,18 @@
+package lib
+
+type EvmContextParams struct {
+	ContextHandle int `json:"contextHandle"`
+}
+
+// EvmContextCreate applies defaults to the given context and keeps it on the native side. The returned handle can be
+// passed to EvmApply instead of the full context, to avoid serializing and parsing the same block context repeatedly.
+func (s *Service) EvmContextCreate(context EvmContext) int {
+	context.setDefaults()
+	// the chain config only depends on the context, so it can be reused for all calls using this context
+	context.chainConfig = context.getChainConfig()
+	return s.contexts.Add(&context)
+}
+
+func (s *Service) EvmContextRemove(params EvmContextParams) {
+	s.contexts.Remove(params.ContextHandle)
+}
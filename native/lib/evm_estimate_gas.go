@@ -0,0 +1,111 @@
+package lib
+
+import (
+	"github.com/HorizenOfficial/go-ethereum/common/hexutil"
+	gethparams "github.com/HorizenOfficial/go-ethereum/params"
+)
+
+type EvmEstimateGasParams struct {
+	EvmParams
+	// Cap is the upper limit for the estimation, if not given the gas limit of the invocation is used and if that is
+	// also zero the gas limit of the block
+	Cap hexutil.Uint64 `json:"cap"`
+}
+
+type EstimateGasResult struct {
+	Gas            hexutil.Uint64 `json:"gas"`
+	ReturnData     []byte         `json:"returnData"`
+	ExecutionError string         `json:"executionError"`
+	Reverted       bool           `json:"reverted"`
+}
+
+// EvmEstimateGas finds the lowest amount of gas the given invocation succeeds with by binary search. Just like EvmApply
+// the estimate does not include the intrinsic gas of a transaction. All executions are reverted, the state is not
+// modified. If the invocation fails even with the maximum amount of gas the error of that execution is returned.
+func (s *Service) EvmEstimateGas(params EvmEstimateGasParams) (error, *EstimateGasResult) {
+	err, context := s.getContext(&params.Context, params.ContextHandle)
+	if err != nil {
+		return err, nil
+	}
+	// a tracer would capture every single execution of the binary search
+	if context.Tracer != nil {
+		return ErrTracerNotSupported, nil
+	}
+
+	err, statedb := s.statedbs.Get(params.Handle)
+	if err != nil {
+		return err, nil
+	}
+
+	hi := uint64(params.Cap)
+	if hi == 0 {
+		hi = uint64(params.Invocation.Gas)
+	}
+	if hi == 0 {
+		hi = uint64(context.GasLimit)
+	}
+
+	// execute the invocation with the given amount of gas and revert all changes afterwards
+	execute := func(gas uint64) (error, *InvocationResult) {
+		invocation := params.Invocation
+		invocation.Gas = Uint64(gas)
+		revisionId := statedb.Snapshot()
+		defer statedb.RevertToSnapshot(revisionId)
+		return s.apply(statedb, invocation, context)
+	}
+
+	// first pass with the maximum amount of gas: if this fails, gas is not the issue
+	err, result := execute(hi)
+	if err != nil {
+		return err, nil
+	}
+	if result.ExecutionError != "" {
+		return nil, &EstimateGasResult{
+			Gas:            hexutil.Uint64(hi),
+			ReturnData:     result.ReturnData,
+			ExecutionError: result.ExecutionError,
+			Reverted:       result.Reverted,
+		}
+	}
+	used := hi - uint64(result.LeftOverGas)
+	if used == 0 {
+		return nil, &EstimateGasResult{ReturnData: result.ReturnData}
+	}
+	// any amount below the gas actually used will fail
+	lo := used - 1
+
+	// Most invocations succeed with the gas actually used plus a bit of headroom for the 63/64 rule of nested calls,
+	// try that first to narrow down the search range considerably.
+	optimistic := (used + gethparams.CallStipend) * 64 / 63
+	if optimistic < hi {
+		err, optimisticResult := execute(optimistic)
+		if err != nil {
+			return err, nil
+		}
+		if optimisticResult.ExecutionError == "" {
+			hi = optimistic
+			result = optimisticResult
+		} else {
+			lo = optimistic
+		}
+	}
+
+	for lo+1 < hi {
+		mid := lo + (hi-lo)/2
+		err, midResult := execute(mid)
+		if err != nil {
+			return err, nil
+		}
+		if midResult.ExecutionError == "" {
+			hi = mid
+			result = midResult
+		} else {
+			lo = mid
+		}
+	}
+
+	return nil, &EstimateGasResult{
+		Gas:        hexutil.Uint64(hi),
+		ReturnData: result.ReturnData,
+	}
+}
@@ -1,6 +1,8 @@
 package lib
 
 import (
+	"encoding/binary"
+	"errors"
 	"fmt"
 	"github.com/HorizenOfficial/go-ethereum/common"
 	"github.com/HorizenOfficial/go-ethereum/common/hexutil"
@@ -16,6 +18,11 @@ type ExternalInvocation struct {
 	Depth int `json:"depth"`
 }
 
+var errInvalidBinaryResult = errors.New("invalid binary invocation result")
+
+// fixed size part of the binary encoding of an external invocation: caller, callee, value, gas, depth and readOnly
+const externalInvocationHeaderSize = common.AddressLength*2 + 32 + 8 + 4 + 1
+
 func (c *InvocationCallback) execute(caller, callee common.Address, value *big.Int, input []byte, gas uint64, readOnly bool, depth int) (ret []byte, leftOverGas uint64, err error) {
 	if c == nil {
 		// fallback to noop
@@ -27,13 +34,17 @@ func (c *InvocationCallback) execute(caller, callee common.Address, value *big.I
 			Callee:   &callee,
 			Value:    (*hexutil.Big)(value),
 			Input:    input,
-			Gas:      hexutil.Uint64(gas),
+			Gas:      Uint64(gas),
 			ReadOnly: readOnly,
 		},
 		Depth: depth,
 	}
 	result := new(InvocationResult)
-	err = c.Invoke(invocation, result)
+	if binaryProxy != nil {
+		err = c.invokeBinary(invocation, result)
+	} else {
+		err = c.Invoke(invocation, result)
+	}
 	if err != nil {
 		log.Error("invocation callback failed", "err", err)
 		return nil, gas, err
@@ -46,3 +57,48 @@ func (c *InvocationCallback) execute(caller, callee common.Address, value *big.I
 	}
 	return result.ReturnData, uint64(result.LeftOverGas), invocationErr
 }
+
+// invokeBinary passes the invocation to the callback using a binary encoding instead of JSON. All integers are
+// big-endian, the invocation is encoded as:
+//
+//	caller (20 bytes), callee (20 bytes), value (32 bytes), gas (uint64), depth (int32), readOnly (1 byte),
+//	input (all remaining bytes)
+//
+// The result is expected as:
+//
+//	reverted (1 byte), leftOverGas (uint64), length of returnData (uint32), returnData, executionError (all remaining
+//	bytes as UTF-8)
+//
+// The input is copied once into the encoded buffer, which the callback reads in place. The result is copied once out
+// of the buffer allocated by the callback, see binaryCallbackProxy.
+func (c *InvocationCallback) invokeBinary(invocation *ExternalInvocation, result *InvocationResult) error {
+	args := make([]byte, externalInvocationHeaderSize, externalInvocationHeaderSize+len(invocation.Input))
+	copy(args, invocation.Caller[:])
+	copy(args[common.AddressLength:], invocation.Callee[:])
+	if value := invocation.Value.ToInt(); value != nil {
+		value.FillBytes(args[common.AddressLength*2 : common.AddressLength*2+32])
+	}
+	binary.BigEndian.PutUint64(args[common.AddressLength*2+32:], uint64(invocation.Gas))
+	binary.BigEndian.PutUint32(args[common.AddressLength*2+40:], uint32(invocation.Depth))
+	if invocation.ReadOnly {
+		args[externalInvocationHeaderSize-1] = 1
+	}
+	args = append(args, invocation.Input...)
+
+	data, err := c.InvokeBinary(args)
+	if err != nil {
+		return err
+	}
+	if len(data) < 13 {
+		return errInvalidBinaryResult
+	}
+	returnDataLength := binary.BigEndian.Uint32(data[9:13])
+	if uint64(len(data)-13) < uint64(returnDataLength) {
+		return errInvalidBinaryResult
+	}
+	result.Reverted = data[0] != 0
+	result.LeftOverGas = Uint64(binary.BigEndian.Uint64(data[1:9]))
+	result.ReturnData = data[13 : 13+returnDataLength]
+	result.ExecutionError = string(data[13+returnDataLength:])
+	return nil
+}
@@ -1,9 +1,15 @@
 package lib
 
 import (
+	"bytes"
+	"encoding/binary"
+	"encoding/json"
+	"errors"
 	"fmt"
 	"github.com/HorizenOfficial/go-ethereum/common"
 	"github.com/HorizenOfficial/go-ethereum/common/hexutil"
+	"github.com/HorizenOfficial/go-ethereum/core/types"
+	"github.com/HorizenOfficial/go-ethereum/core/vm"
 	"libevm/interop"
 	"libevm/test"
 	"math/big"
@@ -414,3 +420,676 @@ func TestShanghaiFork(t *testing.T) {
 	}
 
 }
+
+func TestEvmContextHandle(t *testing.T) {
+	var (
+		instance, _, stateHandle = SetupTest()
+		user                     = common.HexToAddress("0x42")
+		chainID                  = uint64(1997)
+	)
+
+	contextHandle := instance.EvmContextCreate(EvmContext{
+		ChainID: hexutil.Uint64(chainID),
+		Rules:   &ForkRules{IsShanghai: true},
+	})
+
+	// deploy "OpCodes" contract using the registered context
+	err, resultDeploy := instance.EvmApply(EvmParams{
+		HandleParams: HandleParams{Handle: stateHandle},
+		Invocation: Invocation{
+			Caller: user,
+			Input:  test.OpCodes.Deploy(),
+			Gas:    200000,
+		},
+		ContextHandle: &contextHandle,
+	})
+	if err != nil {
+		t.Fatalf("unexpected error: %v", err)
+	}
+	if resultDeploy.ExecutionError != "" {
+		t.Fatalf("vm error: %v", resultDeploy.ExecutionError)
+	}
+
+	// the registered context should be used instead of the (empty) inline context
+	err, result := instance.EvmApply(EvmParams{
+		HandleParams: HandleParams{Handle: stateHandle},
+		Invocation: Invocation{
+			Caller: user,
+			Callee: resultDeploy.ContractAddress,
+			Input:  test.OpCodes.Call("CHAINID"),
+			Gas:    200000,
+		},
+		ContextHandle: &contextHandle,
+	})
+	if err != nil {
+		t.Fatalf("unexpected error: %v", err)
+	}
+	if result.ExecutionError != "" {
+		t.Fatalf("vm error: %v", result.ExecutionError)
+	}
+	if expected := common.LeftPadBytes(new(big.Int).SetUint64(chainID).Bytes(), 32); !reflect.DeepEqual(expected, result.ReturnData) {
+		t.Fatalf("unexpected chain ID:\n%v expected\n%v actual", expected, result.ReturnData)
+	}
+
+	// using the handle after removal should fail
+	instance.EvmContextRemove(EvmContextParams{ContextHandle: contextHandle})
+	err, _ = instance.EvmApply(EvmParams{
+		HandleParams: HandleParams{Handle: stateHandle},
+		Invocation: Invocation{
+			Caller: user,
+			Callee: resultDeploy.ContractAddress,
+			Input:  test.OpCodes.Call("CHAINID"),
+			Gas:    200000,
+		},
+		ContextHandle: &contextHandle,
+	})
+	if !errors.Is(err, ErrInvalidHandle) {
+		t.Fatalf("expected invalid handle error, got: %v", err)
+	}
+}
+
+func TestEvmCallMany(t *testing.T) {
+	var (
+		instance, dbHandle, stateHandle = SetupTest()
+		user                            = common.HexToAddress("0x42")
+		initialValue                    = big.NewInt(5555)
+		context                         = EvmContext{Rules: &ForkRules{IsShanghai: true}}
+	)
+
+	// deploy "Storage" contract and commit the state
+	err, resultDeploy := instance.EvmApply(EvmParams{
+		HandleParams: HandleParams{Handle: stateHandle},
+		Invocation: Invocation{
+			Caller: user,
+			Input:  test.Storage.Deploy(initialValue),
+			Gas:    200000,
+		},
+		Context: context,
+	})
+	if err != nil {
+		t.Fatalf("unexpected error: %v", err)
+	}
+	if resultDeploy.ExecutionError != "" {
+		t.Fatalf("vm error: %v", resultDeploy.ExecutionError)
+	}
+	_, root := instance.StateCommit(HandleParams{Handle: stateHandle})
+
+	// mix modifying and read-only calls: the changes of one call must not be visible to any other call
+	invocations := make([]Invocation, 20)
+	for i := range invocations {
+		input := test.Storage.Retrieve()
+		if i%2 == 0 {
+			input = test.Storage.Store(big.NewInt(int64(i)))
+		}
+		invocations[i] = Invocation{
+			Caller: user,
+			Callee: resultDeploy.ContractAddress,
+			Input:  input,
+			Gas:    200000,
+		}
+	}
+	err, results := instance.EvmCallMany(EvmCallManyParams{
+		DatabaseParams: DatabaseParams{DatabaseHandle: dbHandle},
+		Root:           root,
+		Invocations:    invocations,
+		Context:        context,
+	})
+	if err != nil {
+		t.Fatalf("unexpected error: %v", err)
+	}
+	if len(results) != len(invocations) {
+		t.Fatalf("unexpected number of results: %d expected %d actual", len(invocations), len(results))
+	}
+	for i, result := range results {
+		if result.ExecutionError != "" {
+			t.Fatalf("vm error in call %d: %v", i, result.ExecutionError)
+		}
+		if i%2 == 1 && common.BytesToHash(result.ReturnData).Big().Cmp(initialValue) != 0 {
+			t.Fatalf("unexpected value in call %d: %v expected %v actual", i, initialValue, common.BytesToHash(result.ReturnData).Big())
+		}
+	}
+
+	// the committed state must be unchanged
+	err, result := instance.EvmApply(EvmParams{
+		HandleParams: HandleParams{Handle: stateHandle},
+		Invocation: Invocation{
+			Caller: user,
+			Callee: resultDeploy.ContractAddress,
+			Input:  test.Storage.Retrieve(),
+			Gas:    200000,
+		},
+		Context: context,
+	})
+	if err != nil {
+		t.Fatalf("unexpected error: %v", err)
+	}
+	if common.BytesToHash(result.ReturnData).Big().Cmp(initialValue) != 0 {
+		t.Fatalf("state was modified: %v expected %v actual", initialValue, common.BytesToHash(result.ReturnData).Big())
+	}
+
+	// tracing is not supported
+	tracer := 0
+	context.Tracer = &tracer
+	if err, _ := instance.EvmCallMany(EvmCallManyParams{
+		DatabaseParams: DatabaseParams{DatabaseHandle: dbHandle},
+		Root:           root,
+		Invocations:    invocations,
+		Context:        context,
+	}); !errors.Is(err, ErrTracerNotSupported) {
+		t.Fatalf("expected tracer not supported error, got: %v", err)
+	}
+}
+
+func TestEvmEstimateGas(t *testing.T) {
+	var (
+		instance, _, stateHandle = SetupTest()
+		user                     = common.HexToAddress("0x42")
+		context                  = EvmContext{Rules: &ForkRules{IsShanghai: true}}
+	)
+
+	err, resultDeploy := instance.EvmApply(EvmParams{
+		HandleParams: HandleParams{Handle: stateHandle},
+		Invocation: Invocation{
+			Caller: user,
+			Input:  test.Storage.Deploy(common.Big0),
+			Gas:    200000,
+		},
+		Context: context,
+	})
+	if err != nil {
+		t.Fatalf("unexpected error: %v", err)
+	}
+	if resultDeploy.ExecutionError != "" {
+		t.Fatalf("vm error: %v", resultDeploy.ExecutionError)
+	}
+	_, rootBefore := instance.StateIntermediateRoot(HandleParams{Handle: stateHandle})
+
+	store := Invocation{
+		Caller: user,
+		Callee: resultDeploy.ContractAddress,
+		Input:  test.Storage.Store(common.Big3),
+	}
+	err, estimate := instance.EvmEstimateGas(EvmEstimateGasParams{
+		EvmParams: EvmParams{
+			HandleParams: HandleParams{Handle: stateHandle},
+			Invocation:   store,
+			Context:      context,
+		},
+		Cap: 1000000,
+	})
+	if err != nil {
+		t.Fatalf("unexpected error: %v", err)
+	}
+	if estimate.ExecutionError != "" {
+		t.Fatalf("vm error: %v", estimate.ExecutionError)
+	}
+	// estimation must not modify the state
+	if _, rootAfter := instance.StateIntermediateRoot(HandleParams{Handle: stateHandle}); rootBefore != rootAfter {
+		t.Fatalf("state was modified by gas estimation")
+	}
+
+	// the estimate has to be the exact lower bound
+	for _, check := range []struct {
+		gas     hexutil.Uint64
+		success bool
+	}{
+		{estimate.Gas - 1, false},
+		{estimate.Gas, true},
+	} {
+		_, revisionId := instance.StateSnapshot(HandleParams{Handle: stateHandle})
+		store.Gas = Uint64(check.gas)
+		_, result := instance.EvmApply(EvmParams{
+			HandleParams: HandleParams{Handle: stateHandle},
+			Invocation:   store,
+			Context:      context,
+		})
+		_ = instance.StateRevertToSnapshot(SnapshotParams{HandleParams: HandleParams{Handle: stateHandle}, RevisionId: revisionId})
+		if success := result.ExecutionError == ""; success != check.success {
+			t.Fatalf("unexpected result with %d gas: %v", check.gas, result.ExecutionError)
+		}
+	}
+
+	// a revert should be reported with the maximum amount of gas
+	err, estimate = instance.EvmEstimateGas(EvmEstimateGasParams{
+		EvmParams: EvmParams{
+			HandleParams: HandleParams{Handle: stateHandle},
+			Invocation: Invocation{
+				Caller: user,
+				Callee: resultDeploy.ContractAddress,
+				Input:  common.FromHex("0x12345678"),
+			},
+			Context: context,
+		},
+		Cap: 100000,
+	})
+	if err != nil {
+		t.Fatalf("unexpected error: %v", err)
+	}
+	if !estimate.Reverted || estimate.Gas != 100000 {
+		t.Fatalf("expected revert, got: %v", estimate)
+	}
+}
+
+func TestEvmCreateAccessList(t *testing.T) {
+	var (
+		instance, _, stateHandle = SetupTest()
+		user                     = common.HexToAddress("0x42")
+		context                  = EvmContext{Rules: &ForkRules{IsShanghai: true}}
+	)
+
+	err, resultDeploy := instance.EvmApply(EvmParams{
+		HandleParams: HandleParams{Handle: stateHandle},
+		Invocation: Invocation{
+			Caller: user,
+			Input:  test.Storage.Deploy(common.Big0),
+			Gas:    200000,
+		},
+		Context: context,
+	})
+	if err != nil {
+		t.Fatalf("unexpected error: %v", err)
+	}
+	if resultDeploy.ExecutionError != "" {
+		t.Fatalf("vm error: %v", resultDeploy.ExecutionError)
+	}
+	_, rootBefore := instance.StateIntermediateRoot(HandleParams{Handle: stateHandle})
+
+	err, result := instance.EvmCreateAccessList(EvmParams{
+		HandleParams: HandleParams{Handle: stateHandle},
+		Invocation: Invocation{
+			Caller: user,
+			Callee: resultDeploy.ContractAddress,
+			Input:  test.Storage.Store(common.Big3),
+			Gas:    200000,
+		},
+		Context: context,
+	})
+	if err != nil {
+		t.Fatalf("unexpected error: %v", err)
+	}
+	if result.ExecutionError != "" {
+		t.Fatalf("vm error: %v", result.ExecutionError)
+	}
+	if result.GasUsed == 0 {
+		t.Fatalf("expected gas used to be non-zero")
+	}
+	// the storage slot of the contract should be in the access list
+	expected := types.AccessList{{Address: *resultDeploy.ContractAddress, StorageKeys: []common.Hash{{}}}}
+	if !reflect.DeepEqual(expected, result.AccessList) {
+		t.Fatalf("unexpected access list:\n%v expected\n%v actual", expected, result.AccessList)
+	}
+	// the state must not be modified
+	if _, rootAfter := instance.StateIntermediateRoot(HandleParams{Handle: stateHandle}); rootBefore != rootAfter {
+		t.Fatalf("state was modified by access list generation")
+	}
+}
+
+func TestEvmCreateAccessListLimit(t *testing.T) {
+	var (
+		instance, _, stateHandle = SetupTest()
+		user                     = common.HexToAddress("0x42")
+		contract                 = common.HexToAddress("0x1234")
+	)
+	// loads slots depending on the remaining gas until it runs out of gas:
+	// JUMPDEST GAS SLOAD POP PUSH1 0 JUMP
+	_ = instance.StateSetCode(CodeParams{
+		AccountParams: AccountParams{HandleParams: HandleParams{Handle: stateHandle}, Address: contract},
+		Code:          common.FromHex("0x5b5a5450600056"),
+	})
+	// Every execution adds at most one new slot per 2100 gas of cold access, but with all slots warm the loop accesses
+	// one slot per 116 gas, so this can never converge within the limit.
+	err, _ := instance.EvmCreateAccessList(EvmParams{
+		HandleParams: HandleParams{Handle: stateHandle},
+		Invocation:   Invocation{Caller: user, Callee: &contract, Gas: 1000000},
+		Context:      EvmContext{Rules: &ForkRules{IsShanghai: true}},
+	})
+	if err == nil || !strings.Contains(err.Error(), "did not converge") {
+		t.Fatalf("expected error, got: %v", err)
+	}
+}
+
+func TestEvmTraceBlock(t *testing.T) {
+	var (
+		instance, dbHandle, stateHandle = SetupTest()
+		user                            = common.HexToAddress("0x42")
+		initialValue                    = big.NewInt(5555)
+		context                         = EvmContext{Rules: &ForkRules{IsShanghai: true}}
+	)
+
+	// deploy "Storage" contract and commit the state
+	_, resultDeploy := instance.EvmApply(EvmParams{
+		HandleParams: HandleParams{Handle: stateHandle},
+		Invocation: Invocation{
+			Caller: user,
+			Input:  test.Storage.Deploy(initialValue),
+			Gas:    200000,
+		},
+		Context: context,
+	})
+	if resultDeploy.ExecutionError != "" {
+		t.Fatalf("vm error: %v", resultDeploy.ExecutionError)
+	}
+	_, root := instance.StateCommit(HandleParams{Handle: stateHandle})
+
+	// alternate between storing and retrieving a value: every transaction must see the changes of all previous ones
+	transactions := make([]TransactionInvocation, 20)
+	for i := range transactions {
+		input := test.Storage.Retrieve()
+		if i%2 == 0 {
+			input = test.Storage.Store(big.NewInt(int64(i)))
+		}
+		transactions[i] = TransactionInvocation{
+			Invocation: Invocation{
+				Caller: user,
+				Callee: resultDeploy.ContractAddress,
+				Input:  input,
+				Gas:    200000,
+			},
+			TxHash:  common.BigToHash(big.NewInt(int64(i))),
+			TxIndex: i,
+		}
+	}
+	err, results := instance.EvmTraceBlock(EvmTraceBlockParams{
+		DatabaseParams: DatabaseParams{DatabaseHandle: dbHandle},
+		Root:           root,
+		Transactions:   transactions,
+		Context:        context,
+		TraceOptions:   TracerCreateParams{Tracer: "callTracer"},
+	})
+	if err != nil {
+		t.Fatalf("unexpected error: %v", err)
+	}
+	if len(results) != len(transactions) {
+		t.Fatalf("unexpected number of results: %d expected %d actual", len(transactions), len(results))
+	}
+	for i, result := range results {
+		var call struct {
+			Type   string
+			Output hexutil.Bytes
+			Error  string
+		}
+		if err := json.Unmarshal(result.Result, &call); err != nil {
+			t.Fatal(err)
+		}
+		if call.Type != "CALL" || call.Error != "" {
+			t.Fatalf("unexpected trace of transaction %d: %s", i, result.Result)
+		}
+		if i%2 == 1 && common.BytesToHash(call.Output).Big().Int64() != int64(i-1) {
+			t.Fatalf("unexpected value in transaction %d: %v expected %v actual", i, i-1, common.BytesToHash(call.Output).Big())
+		}
+	}
+
+	// a tracer in the context is not supported
+	tracerHandle := 0
+	context.Tracer = &tracerHandle
+	if err, _ := instance.EvmTraceBlock(EvmTraceBlockParams{
+		DatabaseParams: DatabaseParams{DatabaseHandle: dbHandle},
+		Root:           root,
+		Transactions:   transactions,
+		Context:        context,
+	}); err != ErrTracerNotSupported {
+		t.Fatalf("expected error %v, actual %v", ErrTracerNotSupported, err)
+	}
+}
+
+func TestEvmBlockHashCache(t *testing.T) {
+	var (
+		instance, _, stateHandle = SetupTest()
+		user                     = common.HexToAddress("0x42")
+		blockNumber              = big.NewInt(1000)
+		blockHash                = common.HexToHash("0xc01a0d15649a201418433e1760af47a0c3381bc7aec566f1e6258d77ffd2e2c9")
+		callbackCount            = 0
+	)
+
+	// deploy "OpCodes" contract
+	_, resultDeploy := instance.EvmApply(EvmParams{
+		HandleParams: HandleParams{Handle: stateHandle},
+		Invocation: Invocation{
+			Caller: user,
+			Input:  test.OpCodes.Deploy(),
+			Gas:    200000,
+		},
+		Context: EvmContext{Rules: &ForkRules{IsShanghai: true}},
+	})
+	if resultDeploy.ExecutionError != "" {
+		t.Fatalf("vm error: %v", resultDeploy.ExecutionError)
+	}
+
+	const blockHashCallbackHandle = 5133
+	SetCallbackProxy(func(handle int, args string) string {
+		if handle != blockHashCallbackHandle {
+			panic(fmt.Sprintf("callback proxy called with unknown handle: %v args: %s", handle, args))
+		}
+		callbackCount++
+		result, _ := interop.Serialize(blockHash)
+		return result
+	})
+
+	// call getBlockHash() of OpCodes.sol multiple times using a registered context and return the number of callbacks
+	run := func(hashes []common.Hash) int {
+		callbackCount = 0
+		contextHandle := instance.EvmContextCreate(EvmContext{
+			BlockNumber:       (*hexutil.Big)(blockNumber),
+			BlockHashCallback: &BlockHashCallback{Callback(blockHashCallbackHandle)},
+			BlockHashes:       hashes,
+			Rules:             &ForkRules{IsShanghai: true},
+		})
+		defer instance.EvmContextRemove(EvmContextParams{ContextHandle: contextHandle})
+		for i := 0; i < 5; i++ {
+			_, result := instance.EvmApply(EvmParams{
+				HandleParams: HandleParams{Handle: stateHandle},
+				Invocation: Invocation{
+					Caller: user,
+					Callee: resultDeploy.ContractAddress,
+					Input:  test.OpCodes.Call("BLOCKHASH"),
+					Gas:    200000,
+				},
+				ContextHandle: &contextHandle,
+			})
+			if result.ExecutionError != "" {
+				t.Fatalf("vm error: %v", result.ExecutionError)
+			}
+			if common.BytesToHash(result.ReturnData) != blockHash {
+				t.Fatalf("unexpected block hash: %v expected %v actual", blockHash, common.BytesToHash(result.ReturnData))
+			}
+		}
+		return callbackCount
+	}
+
+	// pre-populated cache: the callback is never invoked
+	if count := run([]common.Hash{blockHash}); count != 0 {
+		t.Fatalf("expected no callbacks, got %d", count)
+	}
+	// empty cache: the callback is invoked once on the first miss
+	if count := run(nil); count != 1 {
+		t.Fatalf("expected exactly one callback, got %d", count)
+	}
+}
+
+func TestBlockHashCache(t *testing.T) {
+	hashes := make([]common.Hash, 300)
+	for i := range hashes {
+		hashes[i] = common.BigToHash(big.NewInt(int64(1000 - 1 - i)))
+	}
+	// no callback given: misses fall back to the mocked block hash
+	cache := newBlockHashCache(nil, 1000, hashes)
+	for number := uint64(1000 - blockHashCacheSize); number < 1000; number++ {
+		if hash := cache.getBlockHash(number); hash != common.BigToHash(new(big.Int).SetUint64(number)) {
+			t.Fatalf("unexpected hash for block %d: %v", number, hash)
+		}
+	}
+	// hashes beyond the size of the cache are ignored
+	if hash := cache.getBlockHash(1000 - blockHashCacheSize - 1); hash != (*BlockHashCallback)(nil).getBlockHash(1000-blockHashCacheSize-1) {
+		t.Fatalf("unexpected hash for block outside of the cache: %v", hash)
+	}
+	// less hashes than blocks
+	cache = newBlockHashCache(nil, 2, hashes)
+	if hash := cache.getBlockHash(0); hash != hashes[1] {
+		t.Fatalf("unexpected hash for block 0: %v", hash)
+	}
+	// the ring buffer is only allocated on the first miss
+	cache = newBlockHashCache(nil, 1000, nil)
+	if cache.entries != nil {
+		t.Fatal("empty cache should not allocate entries")
+	}
+	cache.getBlockHash(999)
+	if cache.entries == nil {
+		t.Fatal("missing entries after the first miss")
+	}
+}
+
+func TestEvmExternalContractsBinary(t *testing.T) {
+	const invocationCallbackHandle = 128968
+	var (
+		caller   = common.HexToAddress("0xbafe3b6f2a19658df3cb5efca158c93272ff5c0b")
+		callee   = common.HexToAddress("0x0000000000000000000022222222222222222222")
+		value    = big.NewInt(123456789)
+		input    = common.FromHex("0x1234567890")
+		gas      = uint64(50000)
+		callback = &InvocationCallback{Callback(invocationCallbackHandle)}
+	)
+	// encode a result the same way the Java side does
+	encodeResult := func(reverted bool, leftOverGas uint64, returnData []byte, executionError string) []byte {
+		result := make([]byte, 13)
+		if reverted {
+			result[0] = 1
+		}
+		binary.BigEndian.PutUint64(result[1:], leftOverGas)
+		binary.BigEndian.PutUint32(result[9:], uint32(len(returnData)))
+		result = append(result, returnData...)
+		return append(result, executionError...)
+	}
+	var response []byte
+	SetBinaryCallbackProxy(func(handle int, args []byte) []byte {
+		if handle != invocationCallbackHandle {
+			panic(fmt.Sprintf("binary callback proxy called with unknown handle: %v", handle))
+		}
+		if len(args) != externalInvocationHeaderSize+len(input) ||
+			common.BytesToAddress(args[:20]) != caller ||
+			common.BytesToAddress(args[20:40]) != callee ||
+			new(big.Int).SetBytes(args[40:72]).Cmp(value) != 0 ||
+			binary.BigEndian.Uint64(args[72:80]) != gas ||
+			binary.BigEndian.Uint32(args[80:84]) != 3 ||
+			args[84] != 1 ||
+			!bytes.Equal(args[85:], input) {
+			panic(fmt.Sprintf("unexpected invocation arguments: %x", args))
+		}
+		return response
+	})
+	defer SetBinaryCallbackProxy(nil)
+
+	checks := []struct {
+		name        string
+		response    []byte
+		returnData  []byte
+		leftOverGas uint64
+		err         string
+	}{
+		{"success", encodeResult(false, 1234, []byte{1, 2, 3}, ""), []byte{1, 2, 3}, 1234, ""},
+		{"reverted", encodeResult(true, 100, []byte{4, 5}, ""), []byte{4, 5}, 100, vm.ErrExecutionReverted.Error()},
+		{"failed", encodeResult(false, 0, nil, "out of gas"), []byte{}, 0, "external contract invocation failed: out of gas"},
+		{"callback error", nil, nil, gas, "binary callback failed"},
+		{"invalid result", []byte{0, 1, 2}, nil, gas, errInvalidBinaryResult.Error()},
+	}
+	for _, check := range checks {
+		t.Run(check.name, func(t *testing.T) {
+			response = check.response
+			ret, leftOverGas, err := callback.execute(caller, callee, value, input, gas, true, 3)
+			if !bytes.Equal(ret, check.returnData) || leftOverGas != check.leftOverGas {
+				t.Fatalf("unexpected result: %x, %d left over gas", ret, leftOverGas)
+			}
+			if (err == nil && check.err != "") || (err != nil && err.Error() != check.err) {
+				t.Fatalf("unexpected error: want %v got %v", check.err, err)
+			}
+		})
+	}
+}
+
+// benchmarkApply repeatedly applies the invocation returned by the given function to the same state
+func benchmarkApply(b *testing.B, instance *Service, stateHandle int, context EvmContext, invocation func(i int) Invocation) {
+	b.ReportAllocs()
+	b.ResetTimer()
+	for i := 0; i < b.N; i++ {
+		err, result := instance.EvmApply(EvmParams{
+			HandleParams: HandleParams{Handle: stateHandle},
+			Invocation:   invocation(i),
+			Context:      context,
+		})
+		if err != nil {
+			b.Fatal(err)
+		}
+		if result.ExecutionError != "" {
+			b.Fatalf("vm error: %v", result.ExecutionError)
+		}
+	}
+}
+
+func BenchmarkEvmApply(b *testing.B) {
+	var (
+		instance, _, stateHandle = SetupTest()
+		_, statedb               = instance.statedbs.Get(stateHandle)
+		user                     = common.HexToAddress("0xbafe3b6f2a19658df3cb5efca158c93272ff5c0b")
+		recipient                = common.HexToAddress("0x1234")
+		context                  = EvmContext{Rules: &ForkRules{IsShanghai: true}}
+	)
+	statedb.SetBalance(user, new(big.Int).Exp(big.NewInt(10), big.NewInt(30), nil))
+	deploy := func(tb testing.TB, code []byte) *common.Address {
+		// the nonce is incremented by the SDK before every transaction
+		statedb.SetNonce(user, statedb.GetNonce(user)+1)
+		_, result := instance.EvmApply(EvmParams{
+			HandleParams: HandleParams{Handle: stateHandle},
+			Invocation:   Invocation{Caller: user, Input: code, Gas: 1000000},
+			Context:      context,
+		})
+		if result.ExecutionError != "" {
+			tb.Fatalf("vm error: %v", result.ExecutionError)
+		}
+		return result.ContractAddress
+	}
+	var (
+		storage  = deploy(b, test.Storage.Deploy(common.Big1))
+		receiver = deploy(b, test.DelegateReceiver.Deploy())
+		caller   = deploy(b, test.DelegateCaller.Deploy())
+		opCodes  = deploy(b, test.OpCodes.Deploy())
+	)
+
+	b.Run("transfer", func(b *testing.B) {
+		benchmarkApply(b, instance, stateHandle, context, func(i int) Invocation {
+			return Invocation{Caller: user, Callee: &recipient, Value: (*hexutil.Big)(common.Big1), Gas: 21000}
+		})
+	})
+	b.Run("Storage.deploy", func(b *testing.B) {
+		b.ReportAllocs()
+		for i := 0; i < b.N; i++ {
+			deploy(b, test.Storage.Deploy(common.Big1))
+		}
+	})
+	b.Run("Storage.store", func(b *testing.B) {
+		benchmarkApply(b, instance, stateHandle, context, func(i int) Invocation {
+			return Invocation{Caller: user, Callee: storage, Input: test.Storage.Store(big.NewInt(int64(i))), Gas: 100000}
+		})
+	})
+	b.Run("Storage.retrieve", func(b *testing.B) {
+		input := test.Storage.Retrieve()
+		benchmarkApply(b, instance, stateHandle, context, func(i int) Invocation {
+			return Invocation{Caller: user, Callee: storage, Input: input, Gas: 100000}
+		})
+	})
+	b.Run("DelegateCaller.store", func(b *testing.B) {
+		benchmarkApply(b, instance, stateHandle, context, func(i int) Invocation {
+			return Invocation{Caller: user, Callee: caller, Input: test.DelegateCaller.Store(receiver, big.NewInt(int64(i))), Gas: 100000}
+		})
+	})
+	b.Run("OpCodes.getBlockHash", func(b *testing.B) {
+		// served from the native block hash cache, without callback
+		cached := EvmContext{
+			BlockNumber: (*hexutil.Big)(big.NewInt(100)),
+			BlockHashes: []common.Hash{test.RandomHash()},
+			Rules:       &ForkRules{IsShanghai: true},
+		}
+		input := test.OpCodes.Call("getBlockHash")
+		benchmarkApply(b, instance, stateHandle, cached, func(i int) Invocation {
+			return Invocation{Caller: user, Callee: opCodes, Input: input, Gas: 100000}
+		})
+	})
+}
@@ -0,0 +1,140 @@
+package lib
+
+import (
+	"errors"
+	"fmt"
+	"runtime"
+	"sync"
+
+	"github.com/HorizenOfficial/go-ethereum/common"
+	"github.com/HorizenOfficial/go-ethereum/core/state"
+	"github.com/HorizenOfficial/go-ethereum/core/types"
+	"github.com/HorizenOfficial/go-ethereum/log"
+)
+
+// TransactionInvocation is an invocation along with the transaction it belongs to
+type TransactionInvocation struct {
+	Invocation
+	TxHash     common.Hash      `json:"txHash"`
+	TxIndex    int              `json:"txIndex"`
+	AccessList types.AccessList `json:"accessList"`
+}
+
+type EvmTraceBlockParams struct {
+	DatabaseParams
+	Root         common.Hash             `json:"root"`
+	Transactions []TransactionInvocation `json:"transactions"`
+	Context      EvmContext              `json:"context"`
+	// ContextHandle optionally refers to a registered context, if given it takes precedence over Context
+	ContextHandle *int `json:"contextHandle"`
+	// TraceOptions are used to create a separate tracer for every transaction
+	TraceOptions TracerCreateParams `json:"traceOptions"`
+}
+
+// traceJob is a transaction along with a copy of the state it has to be executed on
+type traceJob struct {
+	index   int
+	statedb *state.StateDB
+}
+
+// EvmTraceBlock traces all given transactions of a block on top of the state at the given root. The transactions are
+// first executed sequentially without a tracer, which is considerably faster than tracing them. Before every
+// transaction a copy of the intermediate state is taken and handed over to a pool of workers that trace the
+// transactions concurrently, so tracing starts while the sequential pass is still in progress. Results are returned in
+// the same order as the given transactions, all changes to the state are discarded.
+//
+// Just like the SDK does before EvmApply, the nonce of the sender is incremented before each transaction. Other parts
+// of the state transition, e.g. buying gas and paying fees, are not applied.
+func (s *Service) EvmTraceBlock(params EvmTraceBlockParams) (error, []*TracerResult) {
+	err, context := s.getContext(&params.Context, params.ContextHandle)
+	if err != nil {
+		return err, nil
+	}
+	// every transaction gets its own tracer, see TraceOptions
+	if context.Tracer != nil {
+		return ErrTracerNotSupported, nil
+	}
+	if params.TraceOptions.Output != nil || params.TraceOptions.TraceFile != "" {
+		return errors.New("trace output is not supported when tracing a block"), nil
+	}
+
+	err, db := s.databases.Get(params.DatabaseHandle)
+	if err != nil {
+		return err, nil
+	}
+	statedb, err := state.New(params.Root, db.database, nil)
+	if err != nil {
+		log.Error("failed to open state", "root", params.Root, "error", err)
+		return err, nil
+	}
+
+	var (
+		count   = len(params.Transactions)
+		results = make([]*TracerResult, count)
+		errs    = make([]error, count)
+		workers = runtime.NumCPU()
+		// limit the number of state copies that are waiting to be traced
+		jobs = make(chan traceJob, workers)
+		wg   sync.WaitGroup
+	)
+	if workers > count {
+		workers = count
+	}
+	for w := 0; w < workers; w++ {
+		wg.Add(1)
+		go func() {
+			defer wg.Done()
+			for job := range jobs {
+				errs[job.index], results[job.index] = s.traceTransaction(job.statedb, &params.Transactions[job.index], context, &params.TraceOptions)
+			}
+		}()
+	}
+
+	for i := range params.Transactions {
+		tx := &params.Transactions[i]
+		statedb.SetTxContext(tx.TxHash, tx.TxIndex)
+		statedb.SetNonce(tx.Caller, statedb.GetNonce(tx.Caller)+1)
+		prepareAccess(statedb, context.Rules, tx.Caller, context.Coinbase, tx.Callee, tx.AccessList)
+		// the copy includes the transaction context and the access list
+		jobs <- traceJob{index: i, statedb: statedb.Copy()}
+		// the last transaction does not have to be executed without tracer, as its resulting state is not needed
+		if i == count-1 {
+			break
+		}
+		if err, _ = s.apply(statedb, tx.Invocation, context); err != nil {
+			break
+		}
+		statedb.Finalise(true)
+	}
+	close(jobs)
+	wg.Wait()
+
+	if err != nil {
+		return err, nil
+	}
+	for _, err := range errs {
+		if err != nil {
+			return err, nil
+		}
+	}
+	return nil, results
+}
+
+// traceTransaction executes the given transaction on the given state using a new tracer
+func (s *Service) traceTransaction(statedb *state.StateDB, tx *TransactionInvocation, context *EvmContext, options *TracerCreateParams) (error, *TracerResult) {
+	tracer, err := options.createTracer(nil)
+	if err != nil {
+		return err, nil
+	}
+	invocation := tx.Invocation
+	invocation.setDefaults()
+	evm := newEvm(*context, statedb, invocation.Caller, tracer)
+	tracer.CaptureTxStart(uint64(invocation.Gas))
+	result := run(evm, statedb, invocation, context.InitialDepth)
+	tracer.CaptureTxEnd(uint64(result.LeftOverGas))
+	traceResultJson, err := tracer.GetResult()
+	if err != nil {
+		return fmt.Errorf("trace error: %v", err), nil
+	}
+	return nil, &TracerResult{Result: traceResultJson}
+}
@@ -66,3 +66,10 @@ func (h *Handles[T]) Remove(handle int) {
 	defer h.mutex.Unlock()
 	delete(h.used, handle)
 }
+
+// Len returns the number of objects currently held
+func (h *Handles[T]) Len() int {
+	h.mutex.RLock()
+	defer h.mutex.RUnlock()
+	return len(h.used)
+}
@@ -0,0 +1,48 @@
+package lib
+
+import "testing"
+
+func BenchmarkHandles_Get(b *testing.B) {
+	handles := NewHandles[*Database]()
+	ids := make([]int, 1024)
+	for i := range ids {
+		ids[i] = handles.Add(new(Database))
+	}
+	b.ReportAllocs()
+	b.ResetTimer()
+	b.RunParallel(func(pb *testing.PB) {
+		i := 0
+		for pb.Next() {
+			if err, _ := handles.Get(ids[i%len(ids)]); err != nil {
+				// Fatal must not be called from the goroutines of RunParallel
+				b.Error(err)
+				return
+			}
+			i++
+		}
+	})
+}
+
+// BenchmarkHandles_GetWithWrites measures reads while handles are concurrently added and removed, e.g. state handles
+// being opened and closed
+func BenchmarkHandles_GetWithWrites(b *testing.B) {
+	handles := NewHandles[*Database]()
+	ids := make([]int, 1024)
+	for i := range ids {
+		ids[i] = handles.Add(new(Database))
+	}
+	b.ReportAllocs()
+	b.ResetTimer()
+	b.RunParallel(func(pb *testing.PB) {
+		i := 0
+		for pb.Next() {
+			if i%100 == 0 {
+				handles.Remove(handles.Add(new(Database)))
+			} else if err, _ := handles.Get(ids[i%len(ids)]); err != nil {
+				b.Error(err)
+				return
+			}
+			i++
+		}
+	})
+}
@@ -9,7 +9,9 @@ import (
 	"github.com/HorizenOfficial/go-ethereum/crypto"
 	"github.com/HorizenOfficial/go-ethereum/signer/core/apitypes"
 	"github.com/HorizenOfficial/go-ethereum/trie"
+	"libevm/test"
 	"math/big"
+	"strconv"
 	"testing"
 )
 
@@ -121,3 +123,20 @@ func TestHashRoot(t *testing.T) {
 	prettyReceiptHashes, _ := json.MarshalIndent(receiptHashes, "", "  ")
 	t.Logf("receipt root hashes %v", string(prettyReceiptHashes))
 }
+
+func BenchmarkHashRoot(b *testing.B) {
+	instance := New()
+	for _, count := range []int{1, 16, 256, 4096} {
+		b.Run(strconv.Itoa(count), func(b *testing.B) {
+			values := make([][]byte, count)
+			for i := range values {
+				values[i] = test.RandomBytes(128)
+			}
+			b.ReportAllocs()
+			b.ResetTimer()
+			for i := 0; i < b.N; i++ {
+				instance.HashRoot(HashParams{Values: values})
+			}
+		})
+	}
+}
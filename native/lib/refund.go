@@ -1,12 +1,8 @@
 package lib
 
-import (
-	"github.com/HorizenOfficial/go-ethereum/common/hexutil"
-)
-
 type RefundParams struct {
 	HandleParams
-	Gas hexutil.Uint64 `json:"gas"`
+	Gas Uint64 `json:"gas"`
 }
 
 func (s *Service) RefundAdd(params RefundParams) error {
@@ -27,10 +23,10 @@ func (s *Service) RefundSub(params RefundParams) error {
 	return nil
 }
 
-func (s *Service) RefundGet(params HandleParams) (error, hexutil.Uint64) {
+func (s *Service) RefundGet(params HandleParams) (error, Uint64) {
 	err, statedb := s.statedbs.Get(params.Handle)
 	if err != nil {
 		return err, 0
 	}
-	return nil, (hexutil.Uint64)(statedb.GetRefund())
+	return nil, Uint64(statedb.GetRefund())
 }
@@ -2,7 +2,6 @@ package lib
 
 import (
 	"github.com/HorizenOfficial/go-ethereum/common"
-	"github.com/HorizenOfficial/go-ethereum/common/hexutil"
 	"testing"
 )
 
@@ -23,13 +22,13 @@ func TestRefunds(t *testing.T) {
 			expected += uint64(value)
 			_ = instance.RefundAdd(RefundParams{
 				HandleParams: handle,
-				Gas:          (hexutil.Uint64)(value),
+				Gas:          Uint64(value),
 			})
 		} else {
 			expected -= uint64(-value)
 			_ = instance.RefundSub(RefundParams{
 				HandleParams: handle,
-				Gas:          (hexutil.Uint64)(-value),
+				Gas:          Uint64(-value),
 			})
 		}
 		err, refund := instance.RefundGet(handle)
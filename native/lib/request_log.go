@@ -0,0 +1,24 @@
+package lib
+
+import "libevm/interop"
+
+type RequestLogParams struct {
+	// SampleRate enables logging of every n-th request, zero disables the request log
+	SampleRate uint64 `json:"sampleRate"`
+	// MaxPayload limits the number of bytes of args and results that are logged, defaults to interop.DefaultMaxPayload
+	MaxPayload int `json:"maxPayload"`
+}
+
+type RequestStatsParams struct {
+	Reset bool `json:"reset"`
+}
+
+// RequestLogSetup configures the sampled request log, it can be changed at any time
+func (s *Service) RequestLogSetup(params RequestLogParams) {
+	interop.SetRequestLog(params.SampleRate, params.MaxPayload)
+}
+
+// RequestStats returns latency and size histograms per method, optionally clearing them
+func (s *Service) RequestStats(params RequestStatsParams) map[string]interop.MethodStats {
+	return interop.RequestStats(params.Reset)
+}
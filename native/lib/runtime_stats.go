@@ -0,0 +1,58 @@
+package lib
+
+import "runtime/metrics"
+
+// HandleStats returns the number of objects currently held per handle table
+func (s *Service) HandleStats() map[string]int {
+	return map[string]int{
+		"databases": s.databases.Len(),
+		"statedbs":  s.statedbs.Len(),
+		"tracers":   s.tracers.Len(),
+		"contexts":  s.contexts.Len(),
+	}
+}
+
+// RuntimeStats are counters of the Go runtime inside libevm, all durations are in nanoseconds
+type RuntimeStats struct {
+	Goroutines uint64 `json:"goroutines"`
+	GoMaxProcs uint64 `json:"goMaxProcs"`
+	// MutexWaitTime is the approximate total time goroutines spent blocked on a sync.Mutex or sync.RWMutex, e.g. the
+	// locks of the handle tables
+	MutexWaitTime uint64 `json:"mutexWaitTime"`
+	GCCycles      uint64 `json:"gcCycles"`
+	HeapBytes     uint64 `json:"heapBytes"`
+	// CgoCalls is the total number of calls from Go to C, e.g. callbacks to Java
+	CgoCalls uint64 `json:"cgoCalls"`
+}
+
+// RuntimeStats returns the current counters of the Go runtime, reading them does not stop the world
+func (s *Service) RuntimeStats() RuntimeStats {
+	samples := []metrics.Sample{
+		{Name: "/sched/goroutines:goroutines"},
+		{Name: "/sched/gomaxprocs:threads"},
+		{Name: "/sync/mutex/wait/total:seconds"},
+		{Name: "/gc/cycles/total:gc-cycles"},
+		{Name: "/memory/classes/heap/objects:bytes"},
+		{Name: "/cgo/go-to-c-calls:calls"},
+	}
+	metrics.Read(samples)
+	// metrics that are not supported by the runtime have KindBad and are reported as zero
+	values := make([]uint64, len(samples))
+	for i, sample := range samples {
+		switch sample.Value.Kind() {
+		case metrics.KindUint64:
+			values[i] = sample.Value.Uint64()
+		case metrics.KindFloat64:
+			// durations are reported in seconds
+			values[i] = uint64(sample.Value.Float64() * 1e9)
+		}
+	}
+	return RuntimeStats{
+		Goroutines:    values[0],
+		GoMaxProcs:    values[1],
+		MutexWaitTime: values[2],
+		GCCycles:      values[3],
+		HeapBytes:     values[4],
+		CgoCalls:      values[5],
+	}
+}
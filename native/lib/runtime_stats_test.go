@@ -0,0 +1,27 @@
+package lib
+
+import (
+	"reflect"
+	"testing"
+)
+
+func TestService_HandleStats(t *testing.T) {
+	instance, _, stateHandle := SetupTest()
+	expected := map[string]int{"databases": 1, "statedbs": 1, "tracers": 0, "contexts": 0}
+	if stats := instance.HandleStats(); !reflect.DeepEqual(expected, stats) {
+		t.Fatalf("unexpected handle stats: want %v got %v", expected, stats)
+	}
+	instance.StateClose(HandleParams{Handle: stateHandle})
+	expected["statedbs"] = 0
+	if stats := instance.HandleStats(); !reflect.DeepEqual(expected, stats) {
+		t.Fatalf("unexpected handle stats: want %v got %v", expected, stats)
+	}
+}
+
+func TestService_RuntimeStats(t *testing.T) {
+	instance := New()
+	stats := instance.RuntimeStats()
+	if stats.Goroutines == 0 || stats.GoMaxProcs == 0 || stats.HeapBytes == 0 {
+		t.Fatalf("unexpected runtime stats: %+v", stats)
+	}
+}
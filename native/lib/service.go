@@ -1,9 +1,9 @@
 package lib
 
 import (
+	"errors"
 	"fmt"
 	"github.com/HorizenOfficial/go-ethereum/core/state"
-	"github.com/HorizenOfficial/go-ethereum/eth/tracers"
 	"libevm/interop"
 	"strconv"
 )
@@ -11,14 +11,16 @@ import (
 type Service struct {
 	databases *Handles[*Database]
 	statedbs  *Handles[*state.StateDB]
-	tracers   *Handles[*tracers.Tracer]
+	tracers   *Handles[*tracerInstance]
+	contexts  *Handles[*EvmContext]
 }
 
 func New() *Service {
 	return &Service{
 		databases: NewHandles[*Database](),
 		statedbs:  NewHandles[*state.StateDB](),
-		tracers:   NewHandles[*tracers.Tracer](),
+		tracers:   NewHandles[*tracerInstance](),
+		contexts:  NewHandles[*EvmContext](),
 	}
 }
 
@@ -30,6 +32,17 @@ func SetCallbackProxy(handler CallbackProxy) {
 	proxy = handler
 }
 
+// BinaryCallbackProxy passes raw bytes to a callback and returns the raw response, nil signals an error
+type BinaryCallbackProxy func(int, []byte) []byte
+
+var binaryProxy BinaryCallbackProxy
+
+// SetBinaryCallbackProxy enables binary callbacks for callback types that support them, if not set they fall back to
+// the JSON based CallbackProxy
+func SetBinaryCallbackProxy(handler BinaryCallbackProxy) {
+	binaryProxy = handler
+}
+
 // Callback is a wrapper around an integer handle
 type Callback int
 
@@ -63,6 +76,30 @@ func (c *Callback) Invoke(args any, ret any) error {
 	return interop.Deserialize(result, ret)
 }
 
+// Write passes the given data as-is to the callback, i.e. without JSON serialization. This allows to use a callback as
+// an io.Writer for text data. A non-empty response of the callback is treated as an error message.
+func (c *Callback) Write(data []byte) (int, error) {
+	if proxy == nil {
+		return len(data), nil
+	}
+	if result := proxy(int(*c), string(data)); result != "" {
+		return 0, errors.New(result)
+	}
+	return len(data), nil
+}
+
+// InvokeBinary passes the given data to the callback via the binary proxy and returns the response as-is
+func (c *Callback) InvokeBinary(args []byte) ([]byte, error) {
+	if binaryProxy == nil {
+		return nil, errors.New("binary callbacks are not available")
+	}
+	result := binaryProxy(int(*c), args)
+	if result == nil {
+		return nil, errors.New("binary callback failed")
+	}
+	return result, nil
+}
+
 // UnmarshalJSON reads a callback handle from a JSON number
 func (c *Callback) UnmarshalJSON(input []byte) error {
 	var handle, err = strconv.Atoi(string(input))
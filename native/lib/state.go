@@ -8,6 +8,7 @@ import (
 	"github.com/HorizenOfficial/go-ethereum/crypto"
 	"github.com/HorizenOfficial/go-ethereum/log"
 	"os"
+	"time"
 )
 
 var emptyCodeHash = crypto.Keccak256Hash(nil)
@@ -33,7 +34,7 @@ type BalanceParams struct {
 
 type NonceParams struct {
 	AccountParams
-	Nonce hexutil.Uint64 `json:"nonce"`
+	Nonce Uint64 `json:"nonce"`
 }
 
 type CodeParams struct {
@@ -94,6 +95,12 @@ func (s *Service) StateCommit(params HandleParams) (error, common.Hash) {
 	if err != nil {
 		return err, common.Hash{}
 	}
+	if db, ok := statedb.Database().DiskDB().(*countingDatabase); ok {
+		defer func(start time.Time) {
+			db.counters.commits.Add(1)
+			db.counters.commitTime.Add(uint64(time.Since(start)))
+		}(time.Now())
+	}
 	//TODO ST we don't have a block number and it is not used in HashDB. It is used in PathDB, so maybe we can modify
 	//this in order to support the new type of db
 	hash, err := statedb.Commit(0, true)
@@ -173,12 +180,12 @@ func (s *Service) StateSetBalance(params BalanceParams) error {
 	return nil
 }
 
-func (s *Service) StateGetNonce(params AccountParams) (error, hexutil.Uint64) {
+func (s *Service) StateGetNonce(params AccountParams) (error, Uint64) {
 	err, statedb := s.statedbs.Get(params.Handle)
 	if err != nil {
 		return err, 0
 	}
-	return nil, (hexutil.Uint64)(statedb.GetNonce(params.Address))
+	return nil, Uint64(statedb.GetNonce(params.Address))
 }
 
 func (s *Service) StateSetNonce(params NonceParams) error {
@@ -10,6 +10,7 @@ import (
 	"libevm/test"
 	"math/big"
 	"math/rand"
+	"strconv"
 	"testing"
 )
 
@@ -153,7 +154,7 @@ func TestStateIsEoa(t *testing.T) {
 		}
 		_ = instance.StateSetNonce(NonceParams{
 			AccountParams: account,
-			Nonce:         (hexutil.Uint64)(42 + i),
+			Nonce:         Uint64(42 + i),
 		})
 		if _, isEoa := instance.StateIsEoa(account); !isEoa {
 			t.Errorf("should be EOA account: %v", account.Address)
@@ -233,7 +234,7 @@ func TestStateNonce(t *testing.T) {
 	for _, x := range numbers {
 		_ = instance.StateSetNonce(NonceParams{
 			AccountParams: account,
-			Nonce:         (hexutil.Uint64)(x),
+			Nonce:         Uint64(x),
 		})
 		check(x)
 	}
@@ -343,7 +344,7 @@ func TestSnapshot(t *testing.T) {
 		// modify account
 		_ = instance.StateSetNonce(NonceParams{
 			AccountParams: account,
-			Nonce:         hexutil.Uint64(rand.Int63()),
+			Nonce:         Uint64(rand.Int63()),
 		})
 		_ = instance.StateSetBalance(BalanceParams{
 			AccountParams: account,
@@ -413,3 +414,39 @@ func TestSnapshot(t *testing.T) {
 	})
 	t.Fatalf("expected a panic, should not have reached here")
 }
+
+func BenchmarkStateCommit(b *testing.B) {
+	for _, dirty := range []int{10, 100, 1000} {
+		b.Run(strconv.Itoa(dirty), func(b *testing.B) {
+			var (
+				instance, dbHandle, _ = SetupTest()
+				root                  = common.Hash{}
+				addresses             = make([]common.Address, dirty)
+			)
+			for i := range addresses {
+				addresses[i] = test.RandomAddress()
+			}
+			b.ReportAllocs()
+			b.ResetTimer()
+			for run := 0; run < b.N; run++ {
+				// only measure the commit, not modifying the state
+				b.StopTimer()
+				_, stateHandle := instance.StateOpen(StateParams{DatabaseParams: DatabaseParams{DatabaseHandle: dbHandle}, Root: root})
+				_, statedb := instance.statedbs.Get(stateHandle)
+				value := big.NewInt(int64(run + 1))
+				for _, address := range addresses {
+					statedb.SetBalance(address, value)
+					statedb.SetState(address, common.BigToHash(value), common.BigToHash(value))
+				}
+				b.StartTimer()
+				var err error
+				if err, root = instance.StateCommit(HandleParams{Handle: stateHandle}); err != nil {
+					b.Fatal(err)
+				}
+				b.StopTimer()
+				instance.StateClose(HandleParams{Handle: stateHandle})
+				b.StartTimer()
+			}
+		})
+	}
+}
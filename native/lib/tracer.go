@@ -4,18 +4,26 @@ import (
 	"encoding/json"
 	"errors"
 	"fmt"
+	"math/big"
+	"os"
+	"sync/atomic"
 
 	"github.com/HorizenOfficial/go-ethereum/common"
 	"github.com/HorizenOfficial/go-ethereum/common/hexutil"
 	"github.com/HorizenOfficial/go-ethereum/core/vm"
 	"github.com/HorizenOfficial/go-ethereum/eth/tracers"
 	"github.com/HorizenOfficial/go-ethereum/eth/tracers/logger"
+	"github.com/HorizenOfficial/go-ethereum/log"
 
 	// Force-load the tracer engines to trigger registration
 	_ "github.com/HorizenOfficial/go-ethereum/eth/tracers/js"
 	_ "github.com/HorizenOfficial/go-ethereum/eth/tracers/native"
+	libtracers "libevm/tracers"
 )
 
+// ErrStreamingNotSupported is returned if a trace output is given for a tracer other than the default struct logger
+var ErrStreamingNotSupported = errors.New("trace output streams are only supported for the default struct logger, use a trace file for other tracers")
+
 type TracerCreateParams struct {
 	EnableMemory     bool            `json:"enableMemory"`
 	DisableStack     bool            `json:"disableStack"`
@@ -23,6 +31,13 @@ type TracerCreateParams struct {
 	EnableReturnData bool            `json:"enableReturnData"`
 	Tracer           string          `json:"tracer"`
 	TracerConfig     json.RawMessage `json:"tracerConfig"`
+	// Compact selects the compact binary encoding for the default struct logger, see tracers.CompactLogger
+	Compact bool `json:"compact"`
+	// Output optionally refers to a callback the trace is streamed to, see traceOutput. Only the default struct logger
+	// can be streamed, all other tracers build their result in memory.
+	Output *Callback `json:"output"`
+	// TraceFile optionally gives a path to a file the trace is appended to, see traceOutput
+	TraceFile string `json:"traceFile"`
 }
 
 type TracerParams struct {
@@ -31,6 +46,15 @@ type TracerParams struct {
 
 type TracerResult struct {
 	Result json.RawMessage `json:"result,omitempty"`
+	// File is the path of the trace file if the tracer writes to a file
+	File string `json:"file,omitempty"`
+	// Size is the total number of bytes written to the output if the tracer has one
+	Size uint64 `json:"size,omitempty"`
+}
+
+type TracerSnapshotParams struct {
+	TracerParams
+	Reset bool `json:"reset"`
 }
 
 type TracerTxStartParams struct {
@@ -62,8 +86,7 @@ type TracerEndParams struct {
 	Err     string         `json:"err"`
 }
 
-type TracerEnterParams struct {
-	TracerParams
+type FrameEnter struct {
 	OpCode string         `json:"opCode"`
 	From   common.Address `json:"from"`
 	To     common.Address `json:"to"`
@@ -72,14 +95,110 @@ type TracerEnterParams struct {
 	Value  *hexutil.Big   `json:"value"`
 }
 
-type TracerExitParams struct {
-	TracerParams
+type FrameExit struct {
 	Output  []byte         `json:"output"`
 	GasUsed hexutil.Uint64 `json:"gasUsed"`
 	Err     string         `json:"err"`
 }
 
-func (t *TracerCreateParams) createTracer() (tracers.Tracer, error) {
+// FrameEvent is either entering or exiting a call frame, exactly one of the fields must be set
+type FrameEvent struct {
+	Enter *FrameEnter `json:"enter"`
+	Exit  *FrameExit  `json:"exit"`
+}
+
+type TracerEnterParams struct {
+	TracerParams
+	FrameEnter
+}
+
+type TracerExitParams struct {
+	TracerParams
+	FrameExit
+}
+
+type TracerFramesParams struct {
+	TracerParams
+	Frames []FrameEvent `json:"frames"`
+}
+
+// tracerInstance is a tracer along with the optional output the trace is streamed to. The tracer itself is never
+// replaced, tracers that cannot be reset in place are wrapped, see recreatedTracer.
+type tracerInstance struct {
+	tracers.Tracer
+	output *traceOutput
+}
+
+// recreatedTracer wraps a tracer that cannot be reset in place, e.g. a JavaScript tracer, and is reset by replacing the
+// wrapped tracer with a new instance. The instance is swapped atomically, so a reset never races with a concurrent
+// lookup of the tracer. Still, a reset must not overlap an execution using the tracer, as that execution would then
+// report to two different instances.
+type recreatedTracer struct {
+	current atomic.Pointer[tracers.Tracer]
+	create  func() (tracers.Tracer, error)
+}
+
+func newRecreatedTracer(tracer tracers.Tracer, create func() (tracers.Tracer, error)) *recreatedTracer {
+	t := &recreatedTracer{create: create}
+	t.current.Store(&tracer)
+	return t
+}
+
+// recreate replaces the wrapped tracer with a new instance, the current instance is kept if that fails
+func (t *recreatedTracer) recreate() error {
+	fresh, err := t.create()
+	if err != nil {
+		return err
+	}
+	t.current.Store(&fresh)
+	return nil
+}
+
+func (t *recreatedTracer) tracer() tracers.Tracer {
+	return *t.current.Load()
+}
+
+func (t *recreatedTracer) CaptureTxStart(gasLimit uint64) {
+	t.tracer().CaptureTxStart(gasLimit)
+}
+
+func (t *recreatedTracer) CaptureTxEnd(restGas uint64) {
+	t.tracer().CaptureTxEnd(restGas)
+}
+
+func (t *recreatedTracer) CaptureStart(env *vm.EVM, from common.Address, to common.Address, create bool, input []byte, gas uint64, value *big.Int) {
+	t.tracer().CaptureStart(env, from, to, create, input, gas, value)
+}
+
+func (t *recreatedTracer) CaptureEnd(output []byte, gasUsed uint64, err error) {
+	t.tracer().CaptureEnd(output, gasUsed, err)
+}
+
+func (t *recreatedTracer) CaptureEnter(typ vm.OpCode, from common.Address, to common.Address, input []byte, gas uint64, value *big.Int) {
+	t.tracer().CaptureEnter(typ, from, to, input, gas, value)
+}
+
+func (t *recreatedTracer) CaptureExit(output []byte, gasUsed uint64, err error) {
+	t.tracer().CaptureExit(output, gasUsed, err)
+}
+
+func (t *recreatedTracer) CaptureState(pc uint64, op vm.OpCode, gas, cost uint64, scope *vm.ScopeContext, rData []byte, depth int, err error) {
+	t.tracer().CaptureState(pc, op, gas, cost, scope, rData, depth, err)
+}
+
+func (t *recreatedTracer) CaptureFault(pc uint64, op vm.OpCode, gas, cost uint64, scope *vm.ScopeContext, depth int, err error) {
+	t.tracer().CaptureFault(pc, op, gas, cost, scope, depth, err)
+}
+
+func (t *recreatedTracer) GetResult() (json.RawMessage, error) {
+	return t.tracer().GetResult()
+}
+
+func (t *recreatedTracer) Stop(err error) {
+	t.tracer().Stop(err)
+}
+
+func (t *TracerCreateParams) createTracer(output *traceOutput) (tracers.Tracer, error) {
 	if t == nil {
 		return nil, nil
 	}
@@ -97,64 +216,162 @@ func (t *TracerCreateParams) createTracer() (tracers.Tracer, error) {
 			DisableStorage:   t.DisableStorage,
 			EnableReturnData: t.EnableReturnData,
 		}
+		if t.Compact {
+			return libtracers.NewCompactLogger(&traceConfig), nil
+		}
+		if output != nil {
+			// stream struct logs to the output as they are captured instead of collecting them in memory
+			return &streamingTracer{logger.NewJSONLogger(&traceConfig, output)}, nil
+		}
 		return logger.NewStructLogger(&traceConfig), nil
 	}
 }
 
+func (t *TracerCreateParams) createOutput() (error, *traceOutput) {
+	if t.TraceFile != "" {
+		if t.Output != nil {
+			return errors.New("trace output and trace file are mutually exclusive"), nil
+		}
+		file, err := os.OpenFile(t.TraceFile, os.O_APPEND|os.O_CREATE|os.O_WRONLY, 0644)
+		if err != nil {
+			log.Error("failed to open trace file", "file", t.TraceFile, "error", err)
+			return err, nil
+		}
+		output := newTraceOutput(file, file)
+		output.file = t.TraceFile
+		return nil, output
+	}
+	if t.Output != nil {
+		if t.Tracer != "" || t.Compact {
+			return ErrStreamingNotSupported, nil
+		}
+		return nil, newTraceOutput(t.Output, nil)
+	}
+	return nil, nil
+}
+
 func (s *Service) TracerCreate(params TracerCreateParams) (error, int) {
-	tracer, err := params.createTracer()
+	err, output := params.createOutput()
+	if err != nil {
+		return err, 0
+	}
+	tracer, err := params.createTracer(output)
 	if err != nil {
+		if output != nil {
+			_ = output.Close()
+		}
 		return err, 0
 	}
-	return nil, s.tracers.Add(&tracer)
+	_, streaming := tracer.(*streamingTracer)
+	if _, ok := tracer.(libtracers.Resetter); !ok && !streaming {
+		tracer = newRecreatedTracer(tracer, func() (tracers.Tracer, error) { return params.createTracer(output) })
+	}
+	return nil, s.tracers.Add(&tracerInstance{Tracer: tracer, output: output})
+}
+
+// TracerReset discards all data captured by the tracer so that it can be reused for another execution, the handle
+// stays valid. Tracers that support it are reset in place, see tracers.Resetter, all others are recreated from the
+// original parameters, which for JavaScript tracers includes compiling the code again. If the tracer has an output
+// the trace written so far is discarded as well: a trace file is truncated and the size starts over, data that was
+// already passed to an output callback cannot be taken back.
+// The tracer must not be in use by any execution while it is reset.
+func (s *Service) TracerReset(params TracerParams) error {
+	err, tracer := s.tracers.Get(params.TracerHandle)
+	if err != nil {
+		return err
+	}
+	if tracer.output != nil {
+		if err := tracer.output.reset(); err != nil {
+			return err
+		}
+	}
+	switch t := tracer.Tracer.(type) {
+	case *recreatedTracer:
+		return t.recreate()
+	case libtracers.Resetter:
+		t.Reset()
+	}
+	// a streaming struct logger is stateless apart from its output
+	return nil
 }
 
 func (s *Service) TracerRemove(params TracerParams) {
+	if err, tracer := s.tracers.Get(params.TracerHandle); err == nil && tracer.output != nil {
+		if err := tracer.output.Close(); err != nil {
+			log.Warn("failed to close trace output", "error", err)
+		}
+	}
 	s.tracers.Remove(params.TracerHandle)
 }
 
+// TracerResult retrieves the result of the tracer. If the tracer has an output the result is written to the output
+// instead and the output is flushed: struct logs have already been written to the output during execution, results of
+// all other tracers are written now as one line of JSON.
 func (s *Service) TracerResult(params TracerParams) (error, *TracerResult) {
-	err, tracerPtr := s.tracers.Get(params.TracerHandle)
+	err, tracer := s.tracers.Get(params.TracerHandle)
 	if err != nil {
 		return err, nil
 	}
-	tracer := *tracerPtr
 	traceResultJson, err := tracer.GetResult()
 	if err != nil {
 		return fmt.Errorf("trace error: %v", err), nil
 	}
-	return nil, &TracerResult{Result: traceResultJson}
+	if tracer.output == nil {
+		return nil, &TracerResult{Result: traceResultJson}
+	}
+	if err := tracer.output.WriteLine(traceResultJson); err != nil {
+		return fmt.Errorf("failed to write trace output: %v", err), nil
+	}
+	if err := tracer.output.Flush(); err != nil {
+		return fmt.Errorf("failed to write trace output: %v", err), nil
+	}
+	return nil, &TracerResult{File: tracer.output.file, Size: tracer.output.size}
+}
+
+// TracerSnapshot retrieves the current result of a tracer that aggregates data across executions and optionally
+// resets the aggregated data, see tracers.Snapshotter
+func (s *Service) TracerSnapshot(params TracerSnapshotParams) (error, *TracerResult) {
+	err, tracer := s.tracers.Get(params.TracerHandle)
+	if err != nil {
+		return err, nil
+	}
+	snapshotter, ok := tracer.Tracer.(libtracers.Snapshotter)
+	if !ok {
+		return errors.New("tracer does not support snapshots"), nil
+	}
+	result, err := snapshotter.Snapshot(params.Reset)
+	if err != nil {
+		return fmt.Errorf("trace error: %v", err), nil
+	}
+	return nil, &TracerResult{Result: result}
 }
 
 // TracerCaptureTxStart maps to CaptureTxStart(gasLimit uint64)
 func (s *Service) TracerCaptureTxStart(params TracerTxStartParams) error {
-	err, tracerPtr := s.tracers.Get(params.TracerHandle)
+	err, tracer := s.tracers.Get(params.TracerHandle)
 	if err != nil {
 		return err
 	}
-	tracer := *tracerPtr
 	tracer.CaptureTxStart(uint64(params.GasLimit))
 	return nil
 }
 
 // TracerCaptureTxEnd maps to CaptureTxEnd(restGas uint64)
 func (s *Service) TracerCaptureTxEnd(params TracerTxEndParams) error {
-	err, tracerPtr := s.tracers.Get(params.TracerHandle)
+	err, tracer := s.tracers.Get(params.TracerHandle)
 	if err != nil {
 		return err
 	}
-	tracer := *tracerPtr
 	tracer.CaptureTxEnd(uint64(params.RestGas))
 	return nil
 }
 
 // TracerCaptureStart maps to CaptureStart(env *EVM, from common.Address, to common.Address, create bool, input []byte, gas uint64, value *big.Int)
 func (s *Service) TracerCaptureStart(params TracerStartParams) error {
-	err, tracerPtr := s.tracers.Get(params.TracerHandle)
+	err, tracer := s.tracers.Get(params.TracerHandle)
 	if err != nil {
 		return err
 	}
-	tracer := *tracerPtr
 
 	err, stateDB := s.statedbs.Get(params.StateDB)
 	if err != nil {
@@ -180,11 +397,10 @@ func (s *Service) TracerCaptureStart(params TracerStartParams) error {
 
 // TracerCaptureEnd maps to CaptureEnd(output []byte, gasUsed uint64, t time.Duration, err error)
 func (s *Service) TracerCaptureEnd(params TracerEndParams) error {
-	err, tracerPtr := s.tracers.Get(params.TracerHandle)
+	err, tracer := s.tracers.Get(params.TracerHandle)
 	if err != nil {
 		return err
 	}
-	tracer := *tracerPtr
 	var traceErr error
 	if params.Err != "" {
 		traceErr = errors.New(params.Err)
@@ -195,40 +411,66 @@ func (s *Service) TracerCaptureEnd(params TracerEndParams) error {
 
 // TracerCaptureEnter maps to CaptureEnter(typ OpCode, from common.Address, to common.Address, input []byte, gas uint64, value *big.Int)
 func (s *Service) TracerCaptureEnter(params TracerEnterParams) error {
-	err, tracerPtr := s.tracers.Get(params.TracerHandle)
+	err, tracer := s.tracers.Get(params.TracerHandle)
 	if err != nil {
 		return err
 	}
+	params.FrameEnter.capture(tracer)
+	return nil
+}
 
-	value := params.Value.ToInt()
+// TracerCaptureExit maps to CaptureExit(output []byte, gasUsed uint64, err error)
+func (s *Service) TracerCaptureExit(params TracerExitParams) error {
+	err, tracer := s.tracers.Get(params.TracerHandle)
+	if err != nil {
+		return err
+	}
+	params.FrameExit.capture(tracer)
+	return nil
+}
+
+// TracerCaptureFrames replays the given sequence of CaptureEnter and CaptureExit events in order
+func (s *Service) TracerCaptureFrames(params TracerFramesParams) error {
+	err, tracer := s.tracers.Get(params.TracerHandle)
+	if err != nil {
+		return err
+	}
+	// validate all events before capturing any of them to not leave the tracer with an incomplete sequence
+	for i, frame := range params.Frames {
+		if (frame.Enter == nil) == (frame.Exit == nil) {
+			return fmt.Errorf("invalid frame event at index %d: either enter or exit must be given", i)
+		}
+	}
+	for _, frame := range params.Frames {
+		if frame.Enter != nil {
+			frame.Enter.capture(tracer)
+		} else {
+			frame.Exit.capture(tracer)
+		}
+	}
+	return nil
+}
+
+func (f *FrameEnter) capture(tracer tracers.Tracer) {
+	value := f.Value.ToInt()
 	//In Geth in case of STATICCALL value is nil, so it doesn't appear in the tracer result
-	if params.OpCode == "STATICCALL" {
+	if f.OpCode == "STATICCALL" {
 		value = nil
 	}
-
-	tracer := *tracerPtr
 	tracer.CaptureEnter(
-		vm.StringToOp(params.OpCode),
-		params.From,
-		params.To,
-		params.Input,
-		uint64(params.Gas),
+		vm.StringToOp(f.OpCode),
+		f.From,
+		f.To,
+		f.Input,
+		uint64(f.Gas),
 		value,
 	)
-	return nil
 }
 
-// TracerCaptureExit maps to CaptureExit(output []byte, gasUsed uint64, err error)
-func (s *Service) TracerCaptureExit(params TracerExitParams) error {
-	err, tracerPtr := s.tracers.Get(params.TracerHandle)
-	if err != nil {
-		return err
-	}
-	tracer := *tracerPtr
+func (f *FrameExit) capture(tracer tracers.Tracer) {
 	var traceErr error
-	if params.Err != "" {
-		traceErr = errors.New(params.Err)
+	if f.Err != "" {
+		traceErr = errors.New(f.Err)
 	}
-	tracer.CaptureExit(params.Output, uint64(params.GasUsed), traceErr)
-	return nil
+	tracer.CaptureExit(f.Output, uint64(f.GasUsed), traceErr)
 }
@@ -0,0 +1,131 @@
+package lib
+
+import (
+	"encoding/json"
+	"io"
+	"os"
+	"unicode/utf8"
+
+	"github.com/HorizenOfficial/go-ethereum/eth/tracers/logger"
+)
+
+// traceOutputBufferSize is the size of the chunks the trace is written in, it also limits the amount of memory used
+// for the trace regardless of its total size
+const traceOutputBufferSize = 64 * 1024
+
+// traceOutput buffers trace data and forwards it in chunks to the underlying writer. Writes block until the
+// underlying writer accepted the data, which gives natural backpressure on the execution that is being traced.
+// The underlying writer is either a callback (see Callback.Write) or a trace file that is appended to. Callbacks pass
+// every chunk as a string, so chunks never end in the middle of a UTF-8 sequence.
+type traceOutput struct {
+	writer io.Writer
+	buffer []byte
+	closer io.Closer
+	file   string
+	size   uint64
+}
+
+func newTraceOutput(writer io.Writer, closer io.Closer) *traceOutput {
+	return &traceOutput{
+		writer: writer,
+		buffer: make([]byte, 0, traceOutputBufferSize),
+		closer: closer,
+	}
+}
+
+func (o *traceOutput) Write(data []byte) (int, error) {
+	written := 0
+	for written < len(data) {
+		if len(o.buffer) == cap(o.buffer) {
+			if err := o.flush(false); err != nil {
+				o.size += uint64(written)
+				return written, err
+			}
+		}
+		n := copy(o.buffer[len(o.buffer):cap(o.buffer)], data[written:])
+		o.buffer = o.buffer[:len(o.buffer)+n]
+		written += n
+	}
+	o.size += uint64(written)
+	return written, nil
+}
+
+// flush passes the buffered data to the underlying writer. Unless all data is flushed an incomplete UTF-8 sequence at
+// the end of the buffer is kept and passed on with the next chunk.
+func (o *traceOutput) flush(all bool) error {
+	end := len(o.buffer)
+	if !all {
+		end = completeRunes(o.buffer)
+	}
+	if end == 0 {
+		return nil
+	}
+	if _, err := o.writer.Write(o.buffer[:end]); err != nil {
+		return err
+	}
+	o.buffer = o.buffer[:copy(o.buffer, o.buffer[end:])]
+	return nil
+}
+
+// completeRunes returns the length of the given data without an incomplete UTF-8 sequence at the end, invalid
+// sequences are not held back
+func completeRunes(data []byte) int {
+	for i := len(data) - 1; i >= 0 && i >= len(data)-utf8.UTFMax; i-- {
+		if utf8.RuneStart(data[i]) {
+			if utf8.FullRune(data[i:]) {
+				return len(data)
+			}
+			return i
+		}
+	}
+	return len(data)
+}
+
+// WriteLine writes the given JSON as a single line, nothing is written if the given JSON is empty
+func (o *traceOutput) WriteLine(data json.RawMessage) error {
+	if len(data) == 0 {
+		return nil
+	}
+	if _, err := o.Write(data); err != nil {
+		return err
+	}
+	_, err := o.Write([]byte{'\n'})
+	return err
+}
+
+func (o *traceOutput) Flush() error {
+	return o.flush(true)
+}
+
+// reset discards the trace written so far: buffered data is dropped, a trace file is truncated and the size starts
+// over. Data that was already passed to a callback cannot be taken back.
+func (o *traceOutput) reset() error {
+	o.buffer = o.buffer[:0]
+	o.size = 0
+	if file, ok := o.writer.(*os.File); ok {
+		return file.Truncate(0)
+	}
+	return nil
+}
+
+func (o *traceOutput) Close() error {
+	err := o.flush(true)
+	if o.closer != nil {
+		if closeErr := o.closer.Close(); err == nil {
+			err = closeErr
+		}
+	}
+	return err
+}
+
+// streamingTracer writes struct logs to an output as they are captured, as the logs are not kept in memory there is no
+// result to retrieve
+type streamingTracer struct {
+	*logger.JSONLogger
+}
+
+func (t *streamingTracer) GetResult() (json.RawMessage, error) {
+	return nil, nil
+}
+
+func (t *streamingTracer) Stop(err error) {}
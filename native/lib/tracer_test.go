@@ -1,15 +1,28 @@
 package lib
 
 import (
+	"bytes"
+	"encoding/binary"
 	"encoding/json"
+	"errors"
+	"fmt"
+	"io"
 	"libevm/test"
+	libtracers "libevm/tracers"
 	"math"
 	"math/big"
+	"os"
+	"path/filepath"
+	"reflect"
+	"strings"
 	"testing"
+	"unicode/utf8"
 
 	"github.com/HorizenOfficial/go-ethereum/common"
 	"github.com/HorizenOfficial/go-ethereum/common/hexutil"
+	"github.com/HorizenOfficial/go-ethereum/core/vm"
 	"github.com/HorizenOfficial/go-ethereum/eth/tracers/logger"
+	"github.com/holiman/uint256"
 )
 
 func getTracerResult(t *testing.T, params TracerCreateParams) *TracerResult {
@@ -30,7 +43,7 @@ func getTracerResult(t *testing.T, params TracerCreateParams) *TracerResult {
 			Caller: sender,
 			Callee: nil,
 			Input:  test.Storage.Deploy(initialValue),
-			Gas:    (hexutil.Uint64)(math.MaxInt64),
+			Gas:    Uint64(math.MaxInt64),
 		},
 		Context: EvmContext{
 			BaseFee: (*hexutil.Big)(new(big.Int)),
@@ -147,3 +160,674 @@ func TestTracer_FourByteTracer(t *testing.T) {
 		t.Fatal(err)
 	}
 }
+
+// captureTraceOutput sets up a callback proxy that collects everything written to the given callback handle
+func captureTraceOutput(handle int) *strings.Builder {
+	output := new(strings.Builder)
+	SetCallbackProxy(func(callbackHandle int, args string) string {
+		if callbackHandle == handle {
+			output.WriteString(args)
+		}
+		return ""
+	})
+	return output
+}
+
+// chunkWriter records every chunk written to it separately
+type chunkWriter struct {
+	chunks [][]byte
+}
+
+func (w *chunkWriter) Write(data []byte) (int, error) {
+	w.chunks = append(w.chunks, append([]byte(nil), data...))
+	return len(data), nil
+}
+
+func TestTraceOutput_UTF8Chunks(t *testing.T) {
+	var (
+		writer = new(chunkWriter)
+		output = newTraceOutput(writer, nil)
+		// the two-byte sequence crosses the end of the first chunk
+		data = strings.Repeat("a", traceOutputBufferSize-1) + "\u00e9" + strings.Repeat("b", 10)
+	)
+	if _, err := output.Write([]byte(data)); err != nil {
+		t.Fatalf("unexpected error: %v", err)
+	}
+	if err := output.Close(); err != nil {
+		t.Fatalf("unexpected error: %v", err)
+	}
+	if len(writer.chunks) != 2 {
+		t.Fatalf("unexpected number of chunks: want 2 got %d", len(writer.chunks))
+	}
+	for i, chunk := range writer.chunks {
+		if !utf8.Valid(chunk) {
+			t.Fatalf("chunk %d is not valid UTF-8", i)
+		}
+	}
+	if joined := string(bytes.Join(writer.chunks, nil)); joined != data {
+		t.Fatal("chunks do not add up to the written data")
+	}
+	if output.size != uint64(len(data)) {
+		t.Fatalf("unexpected size: want %d got %d", len(data), output.size)
+	}
+}
+
+func TestTracer_StreamingStructLogger(t *testing.T) {
+	const outputHandle = 4711
+	var (
+		output       = captureTraceOutput(outputHandle)
+		outputTarget = Callback(outputHandle)
+	)
+	defer SetCallbackProxy(nil)
+	tracerResult := getTracerResult(t, TracerCreateParams{
+		EnableMemory:     true,
+		EnableReturnData: true,
+		Output:           &outputTarget,
+	})
+	if tracerResult.Result != nil {
+		t.Fatalf("expected no result when streaming, got: %s", tracerResult.Result)
+	}
+	// every line of the output should be a JSON object
+	lines := strings.Split(strings.TrimSpace(output.String()), "\n")
+	if minimum, actual := 130, len(lines); minimum > actual {
+		t.Fatalf("unexpected number of trace lines: expected at least %d, actual %d", minimum, actual)
+	}
+	sstoreInstructions := 0
+	for _, line := range lines {
+		var structLog map[string]any
+		if err := json.Unmarshal([]byte(line), &structLog); err != nil {
+			t.Fatalf("invalid trace line: %v: %s", err, line)
+		}
+		if structLog["opName"] == "SSTORE" {
+			sstoreInstructions += 1
+		}
+	}
+	if sstoreInstructions != 1 {
+		t.Fatalf("unexpected number of SSTORE instructions: expected %d, actual %d", 1, sstoreInstructions)
+	}
+}
+
+func TestTracer_StreamingNotSupported(t *testing.T) {
+	outputTarget := Callback(4712)
+	instance := New()
+	// only the default struct logger can be streamed, other tracers build their result in memory
+	for _, params := range []TracerCreateParams{
+		{Tracer: "callTracer", Output: &outputTarget},
+		{Compact: true, Output: &outputTarget},
+	} {
+		if err, _ := instance.TracerCreate(params); !errors.Is(err, ErrStreamingNotSupported) {
+			t.Fatalf("expected error for %+v, got: %v", params, err)
+		}
+	}
+}
+
+func TestTracer_TraceFile(t *testing.T) {
+	traceFile := filepath.Join(t.TempDir(), "trace.jsonl")
+	var totalSize uint64
+	// multiple traces should be appended to the same file
+	for i := 0; i < 2; i++ {
+		tracerResult := getTracerResult(t, TracerCreateParams{
+			Tracer:    "callTracer",
+			TraceFile: traceFile,
+		})
+		if tracerResult.Result != nil {
+			t.Fatalf("expected no result when writing to a file, got: %s", tracerResult.Result)
+		}
+		if tracerResult.File != traceFile {
+			t.Fatalf("unexpected trace file: expected %s, actual %s", traceFile, tracerResult.File)
+		}
+		totalSize += tracerResult.Size
+	}
+	content, err := os.ReadFile(traceFile)
+	if err != nil {
+		t.Fatal(err)
+	}
+	if uint64(len(content)) != totalSize {
+		t.Fatalf("unexpected trace file size: expected %d, actual %d", totalSize, len(content))
+	}
+	lines := strings.Split(strings.TrimSpace(string(content)), "\n")
+	if len(lines) != 2 {
+		t.Fatalf("unexpected number of lines in trace file: expected %d, actual %d", 2, len(lines))
+	}
+	for _, line := range lines {
+		var trace *CallTracer
+		if err := json.Unmarshal([]byte(line), &trace); err != nil {
+			t.Fatal(err)
+		}
+	}
+}
+
+// pairs of equivalent JavaScript and native tracers
+var nativeTracerEquivalents = []struct{ js, native string }{
+	{"opcountTracer", "opcountTracerNative"},
+	{"unigramTracer", "unigramTracerNative"},
+	{"bigramTracer", "bigramTracerNative"},
+	{"trigramTracer", "trigramTracerNative"},
+}
+
+func TestTracer_NativeEquivalents(t *testing.T) {
+	for _, tracers := range nativeTracerEquivalents {
+		t.Run(tracers.native, func(t *testing.T) {
+			var jsResult, nativeResult any
+			if err := json.Unmarshal(getTracerResult(t, TracerCreateParams{Tracer: tracers.js}).Result, &jsResult); err != nil {
+				t.Fatal(err)
+			}
+			if err := json.Unmarshal(getTracerResult(t, TracerCreateParams{Tracer: tracers.native}).Result, &nativeResult); err != nil {
+				t.Fatal(err)
+			}
+			if !reflect.DeepEqual(jsResult, nativeResult) {
+				t.Fatalf("native tracer result differs from JS tracer:\n%v expected\n%v actual", jsResult, nativeResult)
+			}
+		})
+	}
+}
+
+func TestTracer_OpGasTracer(t *testing.T) {
+	tracerResult := getTracerResult(t, TracerCreateParams{Tracer: "opGasTracerNative"})
+	var trace map[string]struct {
+		Count uint64
+		Gas   uint64
+	}
+	if err := json.Unmarshal(tracerResult.Result, &trace); err != nil {
+		t.Fatal(err)
+	}
+	if sstore := trace["SSTORE"]; sstore.Count != 1 || sstore.Gas == 0 {
+		t.Fatalf("unexpected SSTORE profile: %v", sstore)
+	}
+}
+
+func TestTracer_OpGasTracerTotal(t *testing.T) {
+	var (
+		instance, _, stateHandle = SetupTest()
+		_, statedb               = instance.statedbs.Get(stateHandle)
+		user                     = common.HexToAddress("0xbafe3b6f2a19658df3cb5efca158c93272ff5c0b")
+		context                  = EvmContext{Rules: &ForkRules{IsShanghai: true}}
+	)
+	deploy := func(code []byte) *common.Address {
+		statedb.SetNonce(user, statedb.GetNonce(user)+1)
+		_, result := instance.EvmApply(EvmParams{
+			HandleParams: HandleParams{Handle: stateHandle},
+			Invocation:   Invocation{Caller: user, Input: code, Gas: 1000000},
+			Context:      context,
+		})
+		if result.ExecutionError != "" {
+			t.Fatalf("vm error: %v", result.ExecutionError)
+		}
+		return result.ContractAddress
+	}
+	var (
+		receiver = deploy(test.DelegateReceiver.Deploy())
+		caller   = deploy(test.DelegateCaller.Deploy())
+	)
+	err, tracerHandle := instance.TracerCreate(TracerCreateParams{Tracer: "opGasTracerNative"})
+	if err != nil {
+		t.Fatal(err)
+	}
+	defer instance.TracerRemove(TracerParams{TracerHandle: tracerHandle})
+	context.Tracer = &tracerHandle
+	const gas = 100000
+	err, result := instance.EvmApply(EvmParams{
+		HandleParams: HandleParams{Handle: stateHandle},
+		Invocation:   Invocation{Caller: user, Callee: caller, Input: test.DelegateCaller.Store(receiver, common.Big3), Gas: gas},
+		Context:      context,
+	})
+	if err != nil || result.ExecutionError != "" {
+		t.Fatalf("unexpected error: %v %v", err, result)
+	}
+	err, tracerResult := instance.TracerResult(TracerParams{TracerHandle: tracerHandle})
+	if err != nil {
+		t.Fatal(err)
+	}
+	var trace map[string]struct {
+		Count uint64
+		Gas   uint64
+	}
+	if err := json.Unmarshal(tracerResult.Result, &trace); err != nil {
+		t.Fatal(err)
+	}
+	if trace["DELEGATECALL"].Count != 1 {
+		t.Fatalf("unexpected DELEGATECALL profile: %v", trace["DELEGATECALL"])
+	}
+	// the gas forwarded to the callee must not be counted twice
+	var total uint64
+	for _, op := range trace {
+		total += op.Gas
+	}
+	if used := gas - uint64(result.LeftOverGas); total != used {
+		t.Fatalf("total gas of all opcodes does not match the gas used: want %d got %d", used, total)
+	}
+}
+
+// benchmarkTracer measures the time to trace the deployment of the Storage contract with the given tracer
+func benchmarkTracer(b *testing.B, tracer string) {
+	var (
+		instance, _, stateHandle = SetupTest()
+		sender                   = common.HexToAddress("0xbafe3b6f2a19658df3cb5efca158c93272ff5c0b")
+		input                    = test.Storage.Deploy(common.Big0)
+	)
+	b.ReportAllocs()
+	b.ResetTimer()
+	for i := 0; i < b.N; i++ {
+		err, tracerHandle := instance.TracerCreate(TracerCreateParams{Tracer: tracer})
+		if err != nil {
+			b.Fatal(err)
+		}
+		_, revisionId := instance.StateSnapshot(HandleParams{Handle: stateHandle})
+		err, result := instance.EvmApply(EvmParams{
+			HandleParams: HandleParams{Handle: stateHandle},
+			Invocation: Invocation{
+				Caller: sender,
+				Input:  input,
+				Gas:    1000000,
+			},
+			Context: EvmContext{
+				Tracer: &tracerHandle,
+				Rules:  &ForkRules{IsShanghai: true},
+			},
+		})
+		if err != nil || result.ExecutionError != "" {
+			b.Fatal(err, result)
+		}
+		if err, _ := instance.TracerResult(TracerParams{TracerHandle: tracerHandle}); err != nil {
+			b.Fatal(err)
+		}
+		_ = instance.StateRevertToSnapshot(SnapshotParams{HandleParams: HandleParams{Handle: stateHandle}, RevisionId: revisionId})
+		instance.TracerRemove(TracerParams{TracerHandle: tracerHandle})
+	}
+}
+
+func BenchmarkTracer(b *testing.B) {
+	for _, tracers := range nativeTracerEquivalents {
+		b.Run(tracers.js, func(b *testing.B) { benchmarkTracer(b, tracers.js) })
+		b.Run(tracers.native, func(b *testing.B) { benchmarkTracer(b, tracers.native) })
+	}
+}
+
+func TestTracer_CaptureFrames(t *testing.T) {
+	var (
+		instance, _, stateHandle = SetupTest()
+		caller                   = common.HexToAddress("0x1111")
+		nativeContract           = common.HexToAddress("0x2222")
+		subContract              = common.HexToAddress("0x3333")
+	)
+	err, tracerHandle := instance.TracerCreate(TracerCreateParams{Tracer: "callTracer"})
+	if err != nil {
+		t.Fatal(err)
+	}
+	defer instance.TracerRemove(TracerParams{TracerHandle: tracerHandle})
+	tracer := TracerParams{TracerHandle: tracerHandle}
+
+	if err := instance.TracerCaptureStart(TracerStartParams{
+		TracerParams: tracer,
+		StateDB:      stateHandle,
+		Context:      EvmContext{Rules: &ForkRules{IsShanghai: true}},
+		From:         caller,
+		To:           nativeContract,
+		Gas:          100000,
+		Value:        (*hexutil.Big)(common.Big0),
+	}); err != nil {
+		t.Fatal(err)
+	}
+	// the native contract calls a sub contract, which calls back into the caller
+	if err := instance.TracerCaptureFrames(TracerFramesParams{
+		TracerParams: tracer,
+		Frames: []FrameEvent{
+			{Enter: &FrameEnter{OpCode: "CALL", From: nativeContract, To: subContract, Gas: 50000, Value: (*hexutil.Big)(common.Big1)}},
+			{Enter: &FrameEnter{OpCode: "STATICCALL", From: subContract, To: caller, Gas: 20000}},
+			{Exit: &FrameExit{GasUsed: 100}},
+			{Exit: &FrameExit{GasUsed: 1000, Err: "execution reverted"}},
+		},
+	}); err != nil {
+		t.Fatal(err)
+	}
+	if err := instance.TracerCaptureEnd(TracerEndParams{TracerParams: tracer, GasUsed: 5000}); err != nil {
+		t.Fatal(err)
+	}
+
+	_, tracerResult := instance.TracerResult(tracer)
+	var trace *CallTracer
+	if err := json.Unmarshal(tracerResult.Result, &trace); err != nil {
+		t.Fatal(err)
+	}
+	if len(trace.Calls) != 1 || len(trace.Calls[0].Calls) != 1 {
+		t.Fatalf("unexpected call tree: %v", trace)
+	}
+	if sub, nested := trace.Calls[0], trace.Calls[0].Calls[0]; sub.Type != "CALL" || sub.Error != "execution reverted" || nested.Type != "STATICCALL" {
+		t.Fatalf("unexpected call tree: %v", trace)
+	}
+
+	// invalid events must be rejected
+	if err := instance.TracerCaptureFrames(TracerFramesParams{
+		TracerParams: tracer,
+		Frames:       []FrameEvent{{}},
+	}); err == nil {
+		t.Fatal("expected error for invalid frame event")
+	}
+}
+
+// compactStep is a decoded step of the compact struct log encoding
+type compactStep struct {
+	op      vm.OpCode
+	pc      uint64
+	gas     uint64
+	gasCost uint64
+	depth   uint64
+	stack   []string
+	memory  []string
+}
+
+// decodeCompactLogs is a minimal decoder for the compact struct log encoding, see tracers.CompactLogger
+func decodeCompactLogs(t *testing.T, data []byte) []compactStep {
+	if data[0] != libtracers.CompactFormatVersion {
+		t.Fatalf("unexpected compact format version: %d", data[0])
+	}
+	var (
+		reader = bytes.NewReader(data[1:])
+		steps  []compactStep
+		step   compactStep
+		stack  []*uint256.Int
+		memory []byte
+	)
+	uvarint := func() uint64 {
+		value, err := binary.ReadUvarint(reader)
+		if err != nil {
+			t.Fatal(err)
+		}
+		return value
+	}
+	varint := func() int64 {
+		value, err := binary.ReadVarint(reader)
+		if err != nil {
+			t.Fatal(err)
+		}
+		return value
+	}
+	read := func(length uint64) []byte {
+		buf := make([]byte, length)
+		if _, err := io.ReadFull(reader, buf); err != nil {
+			t.Fatal(err)
+		}
+		return buf
+	}
+	word := func() *uint256.Int {
+		length, _ := reader.ReadByte()
+		return new(uint256.Int).SetBytes(read(uint64(length)))
+	}
+	for reader.Len() > 0 {
+		op, _ := reader.ReadByte()
+		flags, _ := reader.ReadByte()
+		step.op = vm.OpCode(op)
+		step.pc += uint64(varint())
+		step.gas += uint64(varint())
+		step.gasCost = uvarint()
+		step.depth = uvarint()
+		uvarint() // refund
+		if flags&2 != 0 {
+			stack = stack[:len(stack)-int(uvarint())]
+			for pushed := uvarint(); pushed > 0; pushed-- {
+				stack = append(stack, word())
+			}
+		}
+		if flags&4 != 0 {
+			size := int(uvarint())
+			if size < len(memory) {
+				memory = memory[:size]
+			} else {
+				memory = append(memory, make([]byte, size-len(memory))...)
+			}
+			index := 0
+			for changed := uvarint(); changed > 0; changed-- {
+				index += int(uvarint())
+				copy(memory[index*32:], read(32))
+			}
+		}
+		if flags&8 != 0 {
+			word()
+			word()
+		}
+		if flags&16 != 0 {
+			read(uvarint())
+		}
+		if flags&1 != 0 {
+			read(uvarint())
+		}
+		step.stack = make([]string, len(stack))
+		for i, item := range stack {
+			step.stack[i] = item.Hex()
+		}
+		step.memory = make([]string, 0, len(memory)/32)
+		for i := 0; i+32 <= len(memory); i += 32 {
+			step.memory = append(step.memory, fmt.Sprintf("%x", memory[i:i+32]))
+		}
+		steps = append(steps, step)
+	}
+	return steps
+}
+
+func TestTracer_CompactStructLogger(t *testing.T) {
+	options := TracerCreateParams{EnableMemory: true}
+	var trace *logger.ExecutionResult
+	if err := json.Unmarshal(getTracerResult(t, options).Result, &trace); err != nil {
+		t.Fatal(err)
+	}
+	options.Compact = true
+	var compact struct {
+		Steps      uint64
+		StructLogs []byte
+	}
+	if err := json.Unmarshal(getTracerResult(t, options).Result, &compact); err != nil {
+		t.Fatal(err)
+	}
+	// the compact encoding must contain exactly the same information
+	steps := decodeCompactLogs(t, compact.StructLogs)
+	if len(steps) != len(trace.StructLogs) || uint64(len(steps)) != compact.Steps {
+		t.Fatalf("unexpected number of steps: expected %d, actual %d", len(trace.StructLogs), len(steps))
+	}
+	for i, expected := range trace.StructLogs {
+		actual := steps[i]
+		if expected.Op != actual.op.String() || expected.Pc != actual.pc || expected.Gas != actual.gas ||
+			expected.GasCost != actual.gasCost || uint64(expected.Depth) != actual.depth {
+			t.Fatalf("unexpected step %d:\n%+v expected\n%+v actual", i, expected, actual)
+		}
+		if !reflect.DeepEqual(*expected.Stack, actual.stack) {
+			t.Fatalf("unexpected stack at step %d:\n%v expected\n%v actual", i, *expected.Stack, actual.stack)
+		}
+		if expected.Memory != nil && !reflect.DeepEqual(*expected.Memory, actual.memory) {
+			t.Fatalf("unexpected memory at step %d:\n%v expected\n%v actual", i, *expected.Memory, actual.memory)
+		}
+	}
+	// compare the size of the encodings
+	structLogs, _ := json.Marshal(trace.StructLogs)
+	t.Logf("struct logs: %d bytes JSON, %d bytes compact", len(structLogs), len(compact.StructLogs))
+}
+
+func TestTracer_GasProfiler(t *testing.T) {
+	var (
+		instance, _, stateHandle = SetupTest()
+		sender                   = common.HexToAddress("0xbafe3b6f2a19658df3cb5efca158c93272ff5c0b")
+	)
+	type profile struct {
+		SampleRate uint64
+		Steps      uint64
+		Sampled    uint64
+		Opcodes    map[string]struct{ Count, Gas uint64 }
+		Contracts  map[common.Address]struct{ Count, Gas uint64 }
+		Locations  []struct{ Count, Gas uint64 }
+	}
+	snapshot := func(tracerHandle int, reset bool) *profile {
+		err, result := instance.TracerSnapshot(TracerSnapshotParams{
+			TracerParams: TracerParams{TracerHandle: tracerHandle},
+			Reset:        reset,
+		})
+		if err != nil {
+			t.Fatal(err)
+		}
+		var p *profile
+		if err := json.Unmarshal(result.Result, &p); err != nil {
+			t.Fatal(err)
+		}
+		return p
+	}
+
+	for _, sampleRate := range []uint64{1, 7} {
+		err, tracerHandle := instance.TracerCreate(TracerCreateParams{
+			Tracer:       "gasProfiler",
+			TracerConfig: json.RawMessage(fmt.Sprintf(`{"sampleRate": %d}`, sampleRate)),
+		})
+		if err != nil {
+			t.Fatal(err)
+		}
+		// aggregate across multiple executions
+		for i := 0; i < 3; i++ {
+			_, result := instance.EvmApply(EvmParams{
+				HandleParams: HandleParams{Handle: stateHandle},
+				Invocation: Invocation{
+					Caller: sender,
+					Input:  test.Storage.Deploy(common.Big0),
+					Gas:    1000000,
+				},
+				Context: EvmContext{Tracer: &tracerHandle, Rules: &ForkRules{IsShanghai: true}},
+			})
+			if result.ExecutionError != "" {
+				t.Fatal(result.ExecutionError)
+			}
+		}
+		p := snapshot(tracerHandle, true)
+		if p.SampleRate != sampleRate || p.Sampled != p.Steps/sampleRate {
+			t.Fatalf("unexpected sampling: %d steps, %d sampled with rate %d", p.Steps, p.Sampled, p.SampleRate)
+		}
+		// three different contracts were deployed
+		if len(p.Contracts) != 3 || len(p.Locations) == 0 {
+			t.Fatalf("unexpected profile: %+v", p)
+		}
+		var opcodeCount, contractCount, locationCount uint64
+		for _, counter := range p.Opcodes {
+			opcodeCount += counter.Count
+		}
+		for _, counter := range p.Contracts {
+			contractCount += counter.Count
+		}
+		for _, counter := range p.Locations {
+			locationCount += counter.Count
+		}
+		if opcodeCount != p.Sampled || contractCount != p.Sampled || locationCount != p.Sampled {
+			t.Fatalf("inconsistent counters: %d sampled, %d opcodes, %d contracts, %d locations",
+				p.Sampled, opcodeCount, contractCount, locationCount)
+		}
+		// the snapshot was reset
+		if p := snapshot(tracerHandle, false); p.Steps != 0 || len(p.Opcodes) != 0 {
+			t.Fatalf("expected empty profile after reset: %+v", p)
+		}
+		instance.TracerRemove(TracerParams{TracerHandle: tracerHandle})
+	}
+
+	// tracers without aggregation do not support snapshots
+	_, tracerHandle := instance.TracerCreate(TracerCreateParams{Tracer: "callTracer"})
+	if err, _ := instance.TracerSnapshot(TracerSnapshotParams{TracerParams: TracerParams{TracerHandle: tracerHandle}}); err == nil {
+		t.Fatal("expected error for tracer without snapshot support")
+	}
+}
+
+func TestTracer_Reset(t *testing.T) {
+	var (
+		instance, dbHandle, _ = SetupTest()
+		sender                = common.HexToAddress("0xbafe3b6f2a19658df3cb5efca158c93272ff5c0b")
+	)
+	// deploy the contract on a fresh state, so that every execution is identical
+	trace := func(tracerHandle int) json.RawMessage {
+		_, stateHandle := instance.StateOpen(StateParams{
+			DatabaseParams: DatabaseParams{DatabaseHandle: dbHandle},
+			Root:           common.Hash{},
+		})
+		defer instance.StateClose(HandleParams{Handle: stateHandle})
+		_, result := instance.EvmApply(EvmParams{
+			HandleParams: HandleParams{Handle: stateHandle},
+			Invocation: Invocation{
+				Caller: sender,
+				Input:  test.Storage.Deploy(common.Big0),
+				Gas:    1000000,
+			},
+			Context: EvmContext{Tracer: &tracerHandle, Rules: &ForkRules{IsShanghai: true}},
+		})
+		if result.ExecutionError != "" {
+			t.Fatal(result.ExecutionError)
+		}
+		err, tracerResult := instance.TracerResult(TracerParams{TracerHandle: tracerHandle})
+		if err != nil {
+			t.Fatal(err)
+		}
+		return tracerResult.Result
+	}
+
+	for _, params := range []TracerCreateParams{
+		{EnableMemory: true},
+		{Compact: true},
+		{Tracer: "callTracer"},
+		{Tracer: "opcountTracerNative"},
+		{Tracer: "trigramTracerNative"},
+		{Tracer: "opGasTracerNative"},
+		{Tracer: "opcountTracer"},
+	} {
+		err, tracerHandle := instance.TracerCreate(params)
+		if err != nil {
+			t.Fatal(err)
+		}
+		expected := trace(tracerHandle)
+		for i := 0; i < 2; i++ {
+			if err := instance.TracerReset(TracerParams{TracerHandle: tracerHandle}); err != nil {
+				t.Fatal(err)
+			}
+			if actual := trace(tracerHandle); !bytes.Equal(expected, actual) {
+				t.Fatalf("unexpected result after reset of tracer %+v:\nexpected %s\nactual %s", params, expected, actual)
+			}
+		}
+		instance.TracerRemove(TracerParams{TracerHandle: tracerHandle})
+	}
+}
+
+func TestTracer_ResetTraceFile(t *testing.T) {
+	var (
+		instance, _, stateHandle = SetupTest()
+		sender                   = common.HexToAddress("0xbafe3b6f2a19658df3cb5efca158c93272ff5c0b")
+	)
+	for _, tracer := range []string{"callTracer", "opcountTracer"} {
+		traceFile := filepath.Join(t.TempDir(), tracer+".jsonl")
+		err, tracerHandle := instance.TracerCreate(TracerCreateParams{Tracer: tracer, TraceFile: traceFile})
+		if err != nil {
+			t.Fatal(err)
+		}
+		// a reused tracer, e.g. from a pool, must not keep the traces of earlier executions in the file
+		for i := 0; i < 3; i++ {
+			if i > 0 {
+				if err := instance.TracerReset(TracerParams{TracerHandle: tracerHandle}); err != nil {
+					t.Fatal(err)
+				}
+			}
+			_, revisionId := instance.StateSnapshot(HandleParams{Handle: stateHandle})
+			_, result := instance.EvmApply(EvmParams{
+				HandleParams: HandleParams{Handle: stateHandle},
+				Invocation:   Invocation{Caller: sender, Input: test.Storage.Deploy(common.Big0), Gas: 1000000},
+				Context:      EvmContext{Tracer: &tracerHandle, Rules: &ForkRules{IsShanghai: true}},
+			})
+			_ = instance.StateRevertToSnapshot(SnapshotParams{HandleParams: HandleParams{Handle: stateHandle}, RevisionId: revisionId})
+			if result.ExecutionError != "" {
+				t.Fatal(result.ExecutionError)
+			}
+			err, tracerResult := instance.TracerResult(TracerParams{TracerHandle: tracerHandle})
+			if err != nil {
+				t.Fatal(err)
+			}
+			content, err := os.ReadFile(traceFile)
+			if err != nil {
+				t.Fatal(err)
+			}
+			if lines := strings.Split(strings.TrimSpace(string(content)), "\n"); len(lines) != 1 {
+				t.Fatalf("unexpected number of lines in trace file of %s after %d resets: %d", tracer, i, len(lines))
+			}
+			if uint64(len(content)) != tracerResult.Size {
+				t.Fatalf("unexpected size of %s trace: file has %d bytes, result %d", tracer, len(content), tracerResult.Size)
+			}
+		}
+		instance.TracerRemove(TracerParams{TracerHandle: tracerHandle})
+	}
+}
@@ -0,0 +1,33 @@
+package lib
+
+import (
+	"bytes"
+	"fmt"
+	"strconv"
+
+	"github.com/HorizenOfficial/go-ethereum/common/hexutil"
+)
+
+// Uint64 is a uint64 that is marshaled as a plain JSON number instead of a hex encoded string. It can be unmarshaled
+// from either representation, i.e. a JSON number or a string as produced by hexutil.Uint64, so callers can pass
+// nonces and gas values without converting them to hex.
+type Uint64 uint64
+
+func (u Uint64) MarshalJSON() ([]byte, error) {
+	return strconv.AppendUint(nil, uint64(u), 10), nil
+}
+
+func (u *Uint64) UnmarshalJSON(input []byte) error {
+	if bytes.Equal(input, []byte("null")) {
+		return nil
+	}
+	if len(input) > 0 && input[0] == '"' {
+		return (*hexutil.Uint64)(u).UnmarshalJSON(input)
+	}
+	value, err := strconv.ParseUint(string(input), 10, 64)
+	if err != nil {
+		return fmt.Errorf("invalid uint64: %s", input)
+	}
+	*u = Uint64(value)
+	return nil
+}
@@ -0,0 +1,45 @@
+package lib
+
+import (
+	"encoding/json"
+	"math"
+	"testing"
+)
+
+func TestUint64(t *testing.T) {
+	for _, check := range []struct {
+		input string
+		want  Uint64
+	}{
+		{"0", 0},
+		{"21000", 21000},
+		{"18446744073709551615", math.MaxUint64},
+		{`"0x0"`, 0},
+		{`"0x5208"`, 21000},
+		{`"0xffffffffffffffff"`, math.MaxUint64},
+	} {
+		var actual Uint64
+		if err := json.Unmarshal([]byte(check.input), &actual); err != nil || actual != check.want {
+			t.Fatalf("unexpected result for %v: want %v got %v, %v", check.input, check.want, actual, err)
+		}
+	}
+	for _, input := range []string{"-1", "1.5", "18446744073709551616", `"5208"`, `"0x"`, "true"} {
+		var actual Uint64
+		if err := json.Unmarshal([]byte(input), &actual); err == nil {
+			t.Fatalf("expected error for %v, got %v", input, actual)
+		}
+	}
+	var params NonceParams
+	if err := json.Unmarshal([]byte(`{"handle":1,"nonce":null}`), &params); err != nil || params.Nonce != 0 {
+		t.Fatalf("unexpected result for null: %v, %v", params.Nonce, err)
+	}
+	marshaled, err := json.Marshal(InvocationResult{LeftOverGas: math.MaxUint64})
+	if err != nil {
+		t.Fatal(err)
+	}
+	var result map[string]any
+	_ = json.Unmarshal(marshaled, &result)
+	if _, ok := result["leftOverGas"].(float64); !ok {
+		t.Fatalf("expected leftOverGas as a number: %s", marshaled)
+	}
+}
@@ -0,0 +1,71 @@
+package main
+
+import (
+	"fmt"
+	"strconv"
+	"sync/atomic"
+
+	"github.com/HorizenOfficial/go-ethereum/log"
+)
+
+const (
+	// logBufferSize is the maximum number of log records waiting to be forwarded, further records are dropped
+	logBufferSize = 8192
+	// logBatchSize is the maximum number of log records forwarded to the log callback at once
+	logBatchSize = 256
+)
+
+var (
+	logFormatter = log.JSONFormatEx(false, true)
+	logRecords   = make(chan *log.Record, logBufferSize)
+	// logDropped counts the records dropped since the last batch was forwarded
+	logDropped atomic.Uint64
+)
+
+// logToCallback queues the given record to be forwarded asynchronously, it never blocks: if the buffer is full the
+// record is dropped and counted instead. Records are only formatted on the forwarding goroutine.
+func logToCallback(r *log.Record) error {
+	select {
+	case logRecords <- r:
+	default:
+		logDropped.Add(1)
+	}
+	return nil
+}
+
+// forwardLogs drains the queue of log records and passes them to the log callback in batches of JSON lines. If records
+// were dropped an additional line with the number of dropped records is appended to the batch.
+func forwardLogs() {
+	var batch []byte
+	for r := range logRecords {
+		batch = appendLogRecord(batch[:0], r)
+	drain:
+		for i := 1; i < logBatchSize; i++ {
+			select {
+			case r = <-logRecords:
+				batch = appendLogRecord(batch, r)
+			default:
+				break drain
+			}
+		}
+		if dropped := logDropped.Swap(0); dropped > 0 {
+			batch = append(batch, `{"lvl":"warn","msg":"log records dropped","libevm.dropped":`...)
+			batch = strconv.AppendUint(batch, dropped, 10)
+			batch = append(batch, "}\n"...)
+		}
+		callbackProxy(int(logCallbackHandle.Load()), string(batch))
+	}
+}
+
+func appendLogRecord(batch []byte, r *log.Record) []byte {
+	// see comments on stack.Call.Format for available format specifiers
+	r.Ctx = append(r.Ctx,
+		// path of source file
+		"file", fmt.Sprintf("%+s", r.Call),
+		// line number
+		"line", fmt.Sprintf("%d", r.Call),
+		// function name (without additional path qualifiers because the filename will already be qualified)
+		"fn", fmt.Sprintf("%n", r.Call),
+	)
+	return append(batch, logFormatter.Format(r)...)
+}
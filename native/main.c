@@ -6,3 +6,9 @@ char* invokeCallbackProxy(callbackProxy proxy, int handle, char *args) {
     if (proxy == NULL) return NULL;
     return proxy(handle, args);
 }
+
+// used by GO to invoke the binary callback, as GO cannot invoke C function pointers
+void* invokeBinaryCallbackProxy(binaryCallbackProxy proxy, int handle, void *args, int length) {
+    if (proxy == NULL) return NULL;
+    return proxy(handle, args, length);
+}
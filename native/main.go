@@ -7,10 +7,11 @@ package main
 // #include "main.h"
 import "C"
 import (
-	"fmt"
+	"encoding/binary"
 	"github.com/HorizenOfficial/go-ethereum/log"
 	"libevm/interop"
 	"libevm/lib"
+	"sync/atomic"
 	"unsafe"
 )
 
@@ -20,10 +21,12 @@ var instance *lib.Service
 // global callback function pointer
 var proxy C.callbackProxy = nil
 
+// global binary callback function pointer
+var binaryProxy C.binaryCallbackProxy = nil
+
 // initialize logger
 var logger = log.NewGlogHandler(log.FuncHandler(logToCallback))
-var logFormatter = log.JSONFormatEx(false, false)
-var logCallbackHandle int
+var logCallbackHandle atomic.Int32
 
 func callbackProxy(handle int, args string) string {
 	argsStr := C.CString(args)
@@ -37,19 +40,22 @@ func callbackProxy(handle int, args string) string {
 	return C.GoString(result)
 }
 
-func logToCallback(r *log.Record) error {
-	// see comments on stack.Call.Format for available format specifiers
-	r.Ctx = append(r.Ctx,
-		// path of source file
-		"file", fmt.Sprintf("%+s", r.Call),
-		// line number
-		"line", fmt.Sprintf("%d", r.Call),
-		// function name (without additional path qualifiers because the filename will already be qualified)
-		"fn", fmt.Sprintf("%n", r.Call),
-	)
-	msg := string(logFormatter.Format(r))
-	callbackProxy(logCallbackHandle, msg)
-	return nil
+// binaryCallbackProxy passes a pointer to the given data to the callback without copying it, the memory is only valid
+// for the duration of the callback. The result is copied into Go memory and the buffer allocated by the callback is
+// freed.
+func binaryCallbackProxy(handle int, args []byte) []byte {
+	var argsPtr unsafe.Pointer
+	if len(args) > 0 {
+		argsPtr = unsafe.Pointer(&args[0])
+	}
+	var result = C.invokeBinaryCallbackProxy(binaryProxy, C.int(handle), argsPtr, C.int(len(args)))
+	if result == nil {
+		return nil
+	}
+	// make sure we free the memory allocated for the return value
+	defer C.free(result)
+	length := binary.BigEndian.Uint32(C.GoBytes(result, 4))
+	return C.GoBytes(unsafe.Add(result, 4), C.int(length))
 }
 
 // static initializer
@@ -61,6 +67,8 @@ func init() {
 	// initialize instance of our service
 	instance = lib.New()
 	lib.SetCallbackProxy(callbackProxy)
+	// start forwarding log records
+	go forwardLogs()
 }
 
 // main function is required by cgo, but doesn't do anything nor is it ever called
@@ -75,7 +83,8 @@ func SetupLogging(handle C.int, level *C.char) {
 		return
 	}
 	logger.Verbosity(parsedLevel)
-	logCallbackHandle = int(handle)
+	interop.SetLogLevel(parsedLevel)
+	logCallbackHandle.Store(int32(handle))
 }
 
 //export Invoke
@@ -103,3 +112,13 @@ func FreeBuffer(ptr unsafe.Pointer) {
 func SetCallbackProxy(f C.callbackProxy) {
 	proxy = f
 }
+
+//export SetBinaryCallbackProxy
+func SetBinaryCallbackProxy(f C.binaryCallbackProxy) {
+	binaryProxy = f
+	if f == nil {
+		lib.SetBinaryCallbackProxy(nil)
+	} else {
+		lib.SetBinaryCallbackProxy(binaryCallbackProxy)
+	}
+}
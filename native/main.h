@@ -1,6 +1,11 @@
-
 // callback function definition
 typedef char* (*callbackProxy)(int handle, char *args);
 
+// binary callback function definition, the result is expected to be prefixed with its length as a big-endian uint32
+typedef void* (*binaryCallbackProxy)(int handle, void *args, int length);
+
 // used by GO to invoke the callback, as GO cannot invoke C function pointers
 char* invokeCallbackProxy(callbackProxy proxy, int handle, char *args);
+
+// used by GO to invoke the binary callback, as GO cannot invoke C function pointers
+void* invokeBinaryCallbackProxy(binaryCallbackProxy proxy, int handle, void *args, int length);
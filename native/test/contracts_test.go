@@ -116,7 +116,7 @@ func TestContracts(t *testing.T) {
 		t.Fatalf("retrieved bad value: expected %v, actual %v", anotherValue, retrievedValue)
 	}
 	// verify that EOA nonce was not updated
-	nonce := call[hexutil.Uint64](t, instance, "StateGetNonce", lib.AccountParams{
+	nonce := call[lib.Uint64](t, instance, "StateGetNonce", lib.AccountParams{
 		HandleParams: lib.HandleParams{Handle: handle},
 		Address:      user,
 	})
@@ -0,0 +1,240 @@
+package tracers
+
+import (
+	"bytes"
+	"encoding/binary"
+	"encoding/json"
+	"math/big"
+
+	"github.com/HorizenOfficial/go-ethereum/common"
+	"github.com/HorizenOfficial/go-ethereum/core/vm"
+	"github.com/HorizenOfficial/go-ethereum/eth/tracers/logger"
+	"github.com/holiman/uint256"
+)
+
+// CompactFormatVersion is the first byte of the compact struct log encoding
+const CompactFormatVersion = 1
+
+// flags of a step in the compact struct log encoding, indicating which optional fields follow
+const (
+	compactFlagError = 1 << iota
+	compactFlagStack
+	compactFlagMemory
+	compactFlagStorage
+	compactFlagReturnData
+)
+
+type compactResult struct {
+	Gas         uint64 `json:"gas"`
+	Failed      bool   `json:"failed"`
+	ReturnValue []byte `json:"returnValue"`
+	Steps       uint64 `json:"steps"`
+	StructLogs  []byte `json:"structLogs"`
+}
+
+// CompactLogger captures the same information as logger.StructLogger, but uses a compact binary encoding.
+// Every step is encoded as follows, all integers are varints as in encoding/binary:
+//
+//	op byte, flags byte, pc delta (signed), gas delta (signed), gas cost, depth, refund counter
+//	if flags&stack:      number of items removed from the top, number of items pushed, each pushed item as length byte
+//	                     and big-endian bytes without leading zeros - relative to the stack of the previous step
+//	if flags&memory:     memory size, number of changed 32-byte words, each word as index delta and 32 bytes - relative
+//	                     to the memory of the previous step, new words that are all zero are not included
+//	if flags&storage:    key and value as length byte and big-endian bytes without leading zeros
+//	if flags&returnData: length and bytes, only included if the return data changed
+//	if flags&error:      length and bytes of the error message
+type CompactLogger struct {
+	baseTracer
+	cfg logger.Config
+	env *vm.EVM
+
+	buf   []byte
+	steps uint64
+
+	prevPc         uint64
+	prevGas        uint64
+	prevStack      []uint256.Int
+	prevMemory     []byte
+	prevReturnData []byte
+
+	gasLimit uint64
+	usedGas  uint64
+	output   []byte
+	err      error
+}
+
+func NewCompactLogger(cfg *logger.Config) *CompactLogger {
+	l := &CompactLogger{buf: []byte{CompactFormatVersion}}
+	if cfg != nil {
+		l.cfg = *cfg
+	}
+	return l
+}
+
+// Reset discards all captured steps, the allocated buffers are kept for reuse
+func (l *CompactLogger) Reset() {
+	l.baseTracer.reset()
+	l.env = nil
+	l.buf = append(l.buf[:0], CompactFormatVersion)
+	l.steps = 0
+	l.prevPc = 0
+	l.prevGas = 0
+	l.prevStack = l.prevStack[:0]
+	l.prevMemory = l.prevMemory[:0]
+	l.prevReturnData = l.prevReturnData[:0]
+	l.gasLimit = 0
+	l.usedGas = 0
+	l.output = nil
+	l.err = nil
+}
+
+func (l *CompactLogger) CaptureTxStart(gasLimit uint64) {
+	l.gasLimit = gasLimit
+}
+
+func (l *CompactLogger) CaptureTxEnd(restGas uint64) {
+	l.usedGas = l.gasLimit - restGas
+}
+
+func (l *CompactLogger) CaptureStart(env *vm.EVM, from common.Address, to common.Address, create bool, input []byte, gas uint64, value *big.Int) {
+	l.env = env
+}
+
+func (l *CompactLogger) CaptureEnd(output []byte, gasUsed uint64, err error) {
+	l.output = common.CopyBytes(output)
+	l.err = err
+}
+
+func (l *CompactLogger) CaptureState(pc uint64, op vm.OpCode, gas, cost uint64, scope *vm.ScopeContext, rData []byte, depth int, err error) {
+	var (
+		flags     byte
+		stack     = scope.Stack.Data()
+		memory    = scope.Memory.Data()
+		keep      int
+		words     []int
+		storage   bool
+		refund    uint64
+		stackDiff = !l.cfg.DisableStack
+	)
+	if stackDiff {
+		// find the common bottom part of the previous and the current stack
+		for keep < len(stack) && keep < len(l.prevStack) && stack[keep] == l.prevStack[keep] {
+			keep++
+		}
+		if keep < len(stack) || keep < len(l.prevStack) {
+			flags |= compactFlagStack
+		}
+	}
+	if l.cfg.EnableMemory {
+		words = l.changedWords(memory)
+		if len(words) > 0 || len(memory) != len(l.prevMemory) {
+			flags |= compactFlagMemory
+		}
+	}
+	if !l.cfg.DisableStorage {
+		storage = (op == vm.SLOAD && len(stack) >= 1) || (op == vm.SSTORE && len(stack) >= 2)
+		if storage {
+			flags |= compactFlagStorage
+		}
+	}
+	if l.cfg.EnableReturnData && !bytes.Equal(rData, l.prevReturnData) {
+		flags |= compactFlagReturnData
+	}
+	if err != nil {
+		flags |= compactFlagError
+	}
+	if l.env != nil {
+		refund = l.env.StateDB.GetRefund()
+	}
+
+	l.buf = append(l.buf, byte(op), flags)
+	l.buf = binary.AppendVarint(l.buf, int64(pc-l.prevPc))
+	l.buf = binary.AppendVarint(l.buf, int64(gas-l.prevGas))
+	l.buf = binary.AppendUvarint(l.buf, cost)
+	l.buf = binary.AppendUvarint(l.buf, uint64(depth))
+	l.buf = binary.AppendUvarint(l.buf, refund)
+	l.prevPc = pc
+	l.prevGas = gas
+
+	if flags&compactFlagStack != 0 {
+		l.buf = binary.AppendUvarint(l.buf, uint64(len(l.prevStack)-keep))
+		l.buf = binary.AppendUvarint(l.buf, uint64(len(stack)-keep))
+		for i := keep; i < len(stack); i++ {
+			l.appendWord(&stack[i])
+		}
+		l.prevStack = append(l.prevStack[:0], stack...)
+	}
+	if flags&compactFlagMemory != 0 {
+		l.buf = binary.AppendUvarint(l.buf, uint64(len(memory)))
+		l.buf = binary.AppendUvarint(l.buf, uint64(len(words)))
+		previous := 0
+		for _, word := range words {
+			l.buf = binary.AppendUvarint(l.buf, uint64(word-previous))
+			l.buf = append(l.buf, memory[word*32:word*32+32]...)
+			previous = word
+		}
+		l.prevMemory = append(l.prevMemory[:0], memory...)
+	}
+	if flags&compactFlagStorage != 0 {
+		key := stack[len(stack)-1]
+		var value uint256.Int
+		if op == vm.SLOAD {
+			if l.env != nil {
+				value.SetBytes32(l.env.StateDB.GetState(scope.Contract.Address(), key.Bytes32()).Bytes())
+			}
+		} else {
+			value = stack[len(stack)-2]
+		}
+		l.appendWord(&key)
+		l.appendWord(&value)
+	}
+	if flags&compactFlagReturnData != 0 {
+		l.appendBytes(rData)
+		l.prevReturnData = append(l.prevReturnData[:0], rData...)
+	}
+	if flags&compactFlagError != 0 {
+		l.appendBytes([]byte(err.Error()))
+	}
+	l.steps++
+}
+
+// changedWords returns the indices of all 32-byte words that differ from the memory of the previous step, words beyond
+// the previous memory size are compared against zero
+func (l *CompactLogger) changedWords(memory []byte) []int {
+	var (
+		words []int
+		zero  [32]byte
+	)
+	for offset := 0; offset+32 <= len(memory); offset += 32 {
+		word := memory[offset : offset+32]
+		if offset+32 <= len(l.prevMemory) {
+			if !bytes.Equal(word, l.prevMemory[offset:offset+32]) {
+				words = append(words, offset/32)
+			}
+		} else if !bytes.Equal(word, zero[:]) {
+			words = append(words, offset/32)
+		}
+	}
+	return words
+}
+
+func (l *CompactLogger) appendWord(word *uint256.Int) {
+	data := word.Bytes()
+	l.buf = append(l.buf, byte(len(data)))
+	l.buf = append(l.buf, data...)
+}
+
+func (l *CompactLogger) appendBytes(data []byte) {
+	l.buf = binary.AppendUvarint(l.buf, uint64(len(data)))
+	l.buf = append(l.buf, data...)
+}
+
+func (l *CompactLogger) GetResult() (json.RawMessage, error) {
+	return l.result(&compactResult{
+		Gas:         l.usedGas,
+		Failed:      l.err != nil,
+		ReturnValue: l.output,
+		Steps:       l.steps,
+		StructLogs:  l.buf,
+	})
+}
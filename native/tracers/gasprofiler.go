@@ -0,0 +1,187 @@
+package tracers
+
+import (
+	"encoding/json"
+	"sync"
+	"sync/atomic"
+
+	"github.com/HorizenOfficial/go-ethereum/common"
+	"github.com/HorizenOfficial/go-ethereum/core/vm"
+	"github.com/HorizenOfficial/go-ethereum/eth/tracers"
+)
+
+// Snapshotter is implemented by tracers that aggregate data across multiple executions and allow to retrieve
+// intermediate results
+type Snapshotter interface {
+	// Snapshot returns the current result and optionally resets all aggregated data
+	Snapshot(reset bool) (json.RawMessage, error)
+}
+
+type gasProfilerConfig struct {
+	// SampleRate enables sampling: only every n-th step is recorded, defaults to 1, i.e. every step is recorded
+	SampleRate uint64 `json:"sampleRate"`
+	// MaxContracts limits the number of distinct contracts that are tracked, defaults to 1024
+	MaxContracts int `json:"maxContracts"`
+	// MaxLocations limits the number of distinct code locations (contract and pc) that are tracked, defaults to 16384
+	MaxLocations int `json:"maxLocations"`
+}
+
+type gasCounter struct {
+	Count uint64 `json:"count"`
+	Gas   uint64 `json:"gas"`
+}
+
+type location struct {
+	address common.Address
+	pc      uint64
+}
+
+type locationCounter struct {
+	Address common.Address `json:"address"`
+	Pc      uint64         `json:"pc"`
+	Op      string         `json:"op"`
+	gasCounter
+}
+
+type gasProfile struct {
+	SampleRate uint64                        `json:"sampleRate"`
+	Steps      uint64                        `json:"steps"`
+	Sampled    uint64                        `json:"sampled"`
+	Dropped    uint64                        `json:"dropped"`
+	Opcodes    map[string]gasCounter         `json:"opcodes"`
+	Contracts  map[common.Address]gasCounter `json:"contracts"`
+	Locations  []locationCounter             `json:"locations"`
+}
+
+// gasProfiler aggregates executed steps and gas per opcode, per contract and per code location across any number of
+// executions. Memory usage is bounded by the configured limits, steps that do not fit anymore are counted as dropped.
+// The gas cost of opcodes that call or create other contracts is not recorded, because it includes the gas forwarded
+// to the callee, which is accounted for by the steps of the callee. As the tracer may be used by multiple executions
+// concurrently all counters are guarded by a mutex, which is only acquired for sampled steps.
+type gasProfiler struct {
+	baseTracer
+	cfg   gasProfilerConfig
+	steps atomic.Uint64
+
+	mutex     sync.Mutex
+	sampled   uint64
+	dropped   uint64
+	opcodes   [256]gasCounter
+	contracts map[common.Address]*gasCounter
+	locations map[location]*locationCounter
+}
+
+func newGasProfiler(ctx *tracers.Context, cfg json.RawMessage) (tracers.Tracer, error) {
+	var config gasProfilerConfig
+	if cfg != nil {
+		if err := json.Unmarshal(cfg, &config); err != nil {
+			return nil, err
+		}
+	}
+	if config.SampleRate == 0 {
+		config.SampleRate = 1
+	}
+	if config.MaxContracts == 0 {
+		config.MaxContracts = 1024
+	}
+	if config.MaxLocations == 0 {
+		config.MaxLocations = 16384
+	}
+	t := &gasProfiler{cfg: config}
+	t.clear()
+	return t, nil
+}
+
+// clear all aggregated data, the mutex must be held or the tracer not yet be in use
+func (t *gasProfiler) clear() {
+	t.steps.Store(0)
+	t.sampled = 0
+	t.dropped = 0
+	t.opcodes = [256]gasCounter{}
+	t.contracts = make(map[common.Address]*gasCounter)
+	t.locations = make(map[location]*locationCounter)
+}
+
+func (t *gasProfiler) CaptureState(pc uint64, op vm.OpCode, gas, cost uint64, scope *vm.ScopeContext, rData []byte, depth int, err error) {
+	if t.steps.Add(1)%t.cfg.SampleRate != 0 {
+		return
+	}
+	switch op {
+	case vm.CALL, vm.CALLCODE, vm.DELEGATECALL, vm.STATICCALL, vm.CREATE, vm.CREATE2:
+		cost = 0
+	}
+	// attribute the step to the code that is executed, which differs from the contract address for delegate calls
+	address := scope.Contract.Address()
+	if scope.Contract.CodeAddr != nil {
+		address = *scope.Contract.CodeAddr
+	}
+	key := location{address, pc}
+
+	t.mutex.Lock()
+	defer t.mutex.Unlock()
+	t.sampled++
+	t.opcodes[op].Count++
+	t.opcodes[op].Gas += cost
+	contract, exists := t.contracts[address]
+	if !exists && len(t.contracts) < t.cfg.MaxContracts {
+		contract = new(gasCounter)
+		t.contracts[address] = contract
+	}
+	counter, exists := t.locations[key]
+	if !exists && len(t.locations) < t.cfg.MaxLocations {
+		counter = &locationCounter{Address: address, Pc: pc, Op: op.String()}
+		t.locations[key] = counter
+	}
+	if contract == nil || counter == nil {
+		t.dropped++
+	}
+	if contract != nil {
+		contract.Count++
+		contract.Gas += cost
+	}
+	if counter != nil {
+		counter.Count++
+		counter.Gas += cost
+	}
+}
+
+// Reset clears all aggregated data, this is equivalent to Snapshot(true) without retrieving the result
+func (t *gasProfiler) Reset() {
+	t.mutex.Lock()
+	defer t.mutex.Unlock()
+	t.baseTracer.reset()
+	t.clear()
+}
+
+func (t *gasProfiler) Snapshot(reset bool) (json.RawMessage, error) {
+	t.mutex.Lock()
+	defer t.mutex.Unlock()
+	profile := gasProfile{
+		SampleRate: t.cfg.SampleRate,
+		Steps:      t.steps.Load(),
+		Sampled:    t.sampled,
+		Dropped:    t.dropped,
+		Opcodes:    make(map[string]gasCounter),
+		Contracts:  make(map[common.Address]gasCounter, len(t.contracts)),
+		Locations:  make([]locationCounter, 0, len(t.locations)),
+	}
+	for op, counter := range t.opcodes {
+		if counter.Count > 0 {
+			profile.Opcodes[vm.OpCode(op).String()] = counter
+		}
+	}
+	for address, counter := range t.contracts {
+		profile.Contracts[address] = *counter
+	}
+	for _, counter := range t.locations {
+		profile.Locations = append(profile.Locations, *counter)
+	}
+	if reset {
+		t.clear()
+	}
+	return t.result(&profile)
+}
+
+func (t *gasProfiler) GetResult() (json.RawMessage, error) {
+	return t.Snapshot(false)
+}
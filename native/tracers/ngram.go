@@ -0,0 +1,73 @@
+package tracers
+
+import (
+	"encoding/json"
+	"strings"
+
+	"github.com/HorizenOfficial/go-ethereum/core/vm"
+	"github.com/HorizenOfficial/go-ethereum/eth/tracers"
+)
+
+// noOp marks an empty position in an n-gram, i.e. before the first opcode was executed
+const noOp = -1
+
+// ngramTracer counts how often each sequence of n consecutive opcodes is executed, this is equivalent to the
+// JavaScript "unigramTracer", "bigramTracer" and "trigramTracer" for n equal to 1, 2 and 3
+type ngramTracer struct {
+	baseTracer
+	// last holds the last n opcodes, the most recent one last
+	last [3]int
+	n    int
+	hist map[[3]int]uint64
+}
+
+func newNgramTracer(n int) *ngramTracer {
+	return &ngramTracer{
+		last: [3]int{noOp, noOp, noOp},
+		n:    n,
+		hist: make(map[[3]int]uint64),
+	}
+}
+
+func newUnigramTracer(ctx *tracers.Context, cfg json.RawMessage) (tracers.Tracer, error) {
+	return newNgramTracer(1), nil
+}
+
+func newBigramTracer(ctx *tracers.Context, cfg json.RawMessage) (tracers.Tracer, error) {
+	return newNgramTracer(2), nil
+}
+
+func newTrigramTracer(ctx *tracers.Context, cfg json.RawMessage) (tracers.Tracer, error) {
+	return newNgramTracer(3), nil
+}
+
+func (t *ngramTracer) CaptureState(pc uint64, op vm.OpCode, gas, cost uint64, scope *vm.ScopeContext, rData []byte, depth int, err error) {
+	t.last[0], t.last[1], t.last[2] = t.last[1], t.last[2], int(op)
+	// only the last n opcodes are relevant, mask the others to keep the number of distinct keys small
+	key := t.last
+	for i := 0; i < 3-t.n; i++ {
+		key[i] = noOp
+	}
+	t.hist[key]++
+}
+
+func (t *ngramTracer) Reset() {
+	t.baseTracer.reset()
+	t.last = [3]int{noOp, noOp, noOp}
+	clear(t.hist)
+}
+
+func (t *ngramTracer) GetResult() (json.RawMessage, error) {
+	result := make(map[string]uint64, len(t.hist))
+	for key, count := range t.hist {
+		// the JavaScript tracers join the last n opcodes with a dash and use an empty string for missing opcodes
+		names := make([]string, t.n)
+		for i, op := range key[3-t.n:] {
+			if op != noOp {
+				names[i] = vm.OpCode(op).String()
+			}
+		}
+		result[strings.Join(names, "-")] = count
+	}
+	return t.result(result)
+}
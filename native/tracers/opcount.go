@@ -0,0 +1,31 @@
+package tracers
+
+import (
+	"encoding/json"
+
+	"github.com/HorizenOfficial/go-ethereum/core/vm"
+	"github.com/HorizenOfficial/go-ethereum/eth/tracers"
+)
+
+// opcountTracer counts the number of executed opcodes, equivalent to the JavaScript "opcountTracer"
+type opcountTracer struct {
+	baseTracer
+	count uint64
+}
+
+func newOpcountTracer(ctx *tracers.Context, cfg json.RawMessage) (tracers.Tracer, error) {
+	return &opcountTracer{}, nil
+}
+
+func (t *opcountTracer) CaptureState(pc uint64, op vm.OpCode, gas, cost uint64, scope *vm.ScopeContext, rData []byte, depth int, err error) {
+	t.count++
+}
+
+func (t *opcountTracer) Reset() {
+	t.baseTracer.reset()
+	t.count = 0
+}
+
+func (t *opcountTracer) GetResult() (json.RawMessage, error) {
+	return t.result(t.count)
+}
@@ -0,0 +1,70 @@
+package tracers
+
+import (
+	"encoding/json"
+	"math/big"
+
+	"github.com/HorizenOfficial/go-ethereum/common"
+	"github.com/HorizenOfficial/go-ethereum/core/vm"
+	"github.com/HorizenOfficial/go-ethereum/eth/tracers"
+	"github.com/HorizenOfficial/go-ethereum/params"
+)
+
+type opGasResult struct {
+	Count uint64 `json:"count"`
+	Gas   uint64 `json:"gas"`
+}
+
+// opGasTracer counts executions and the total gas cost per opcode, this is the typical gas-per-opcode profile. The
+// gas reported for the CALL family of opcodes includes the gas forwarded to the callee, which is already accounted for
+// by the steps of the callee. The forwarded gas is deducted again when the callee is entered, so that the total over all
+// opcodes equals the gas used by the execution and calls are only attributed their own overhead, e.g. memory expansion,
+// account access and value transfer. CREATE and CREATE2 are not affected, their reported gas excludes the gas passed to
+// the init code.
+type opGasTracer struct {
+	baseTracer
+	count [256]uint64
+	gas   [256]uint64
+}
+
+func newOpGasTracer(ctx *tracers.Context, cfg json.RawMessage) (tracers.Tracer, error) {
+	return &opGasTracer{}, nil
+}
+
+func (t *opGasTracer) CaptureState(pc uint64, op vm.OpCode, gas, cost uint64, scope *vm.ScopeContext, rData []byte, depth int, err error) {
+	t.count[op]++
+	t.gas[op] += cost
+}
+
+func (t *opGasTracer) CaptureEnter(typ vm.OpCode, from common.Address, to common.Address, input []byte, gas uint64, value *big.Int) {
+	switch typ {
+	case vm.CALL, vm.CALLCODE:
+		// the stipend for value transfers is given to the callee on top of the gas charged to the caller
+		if value != nil && value.Sign() > 0 {
+			gas -= params.CallStipend
+		}
+	case vm.DELEGATECALL, vm.STATICCALL:
+	default:
+		return
+	}
+	if gas > t.gas[typ] {
+		gas = t.gas[typ]
+	}
+	t.gas[typ] -= gas
+}
+
+func (t *opGasTracer) Reset() {
+	t.baseTracer.reset()
+	t.count = [256]uint64{}
+	t.gas = [256]uint64{}
+}
+
+func (t *opGasTracer) GetResult() (json.RawMessage, error) {
+	result := make(map[string]opGasResult)
+	for op, count := range t.count {
+		if count > 0 {
+			result[vm.OpCode(op).String()] = opGasResult{Count: count, Gas: t.gas[op]}
+		}
+	}
+	return t.result(result)
+}
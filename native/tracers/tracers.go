@@ -0,0 +1,71 @@
+// Package tracers contains native implementations of tracers that are commonly used as JavaScript tracers, they are
+// functionally equivalent to the JavaScript versions but avoid the overhead of the JavaScript engine.
+// All tracers are registered in the default tracer directory of go-ethereum on import.
+package tracers
+
+import (
+	"encoding/json"
+	"math/big"
+
+	"github.com/HorizenOfficial/go-ethereum/common"
+	"github.com/HorizenOfficial/go-ethereum/core/vm"
+	"github.com/HorizenOfficial/go-ethereum/eth/tracers"
+)
+
+func init() {
+	tracers.DefaultDirectory.Register("opcountTracerNative", newOpcountTracer, false)
+	tracers.DefaultDirectory.Register("unigramTracerNative", newUnigramTracer, false)
+	tracers.DefaultDirectory.Register("bigramTracerNative", newBigramTracer, false)
+	tracers.DefaultDirectory.Register("trigramTracerNative", newTrigramTracer, false)
+	tracers.DefaultDirectory.Register("opGasTracerNative", newOpGasTracer, false)
+	tracers.DefaultDirectory.Register("gasProfiler", newGasProfiler, false)
+}
+
+// Resetter is implemented by tracers that can discard all captured data to be reused for another execution, which is
+// cheaper than creating a new instance. Note: logger.StructLogger of go-ethereum also implements this interface.
+type Resetter interface {
+	Reset()
+}
+
+// baseTracer implements all tracer hooks as no-ops and handles interruption of the tracer
+type baseTracer struct {
+	reason error
+}
+
+func (t *baseTracer) CaptureTxStart(gasLimit uint64) {}
+
+func (t *baseTracer) CaptureTxEnd(restGas uint64) {}
+
+func (t *baseTracer) CaptureStart(env *vm.EVM, from common.Address, to common.Address, create bool, input []byte, gas uint64, value *big.Int) {
+}
+
+func (t *baseTracer) CaptureEnd(output []byte, gasUsed uint64, err error) {}
+
+func (t *baseTracer) CaptureEnter(typ vm.OpCode, from common.Address, to common.Address, input []byte, gas uint64, value *big.Int) {
+}
+
+func (t *baseTracer) CaptureExit(output []byte, gasUsed uint64, err error) {}
+
+func (t *baseTracer) CaptureState(pc uint64, op vm.OpCode, gas, cost uint64, scope *vm.ScopeContext, rData []byte, depth int, err error) {
+}
+
+func (t *baseTracer) CaptureFault(pc uint64, op vm.OpCode, gas, cost uint64, scope *vm.ScopeContext, depth int, err error) {
+}
+
+// Stop terminates execution of the tracer at the first opportune moment
+func (t *baseTracer) Stop(err error) {
+	t.reason = err
+}
+
+// reset clears the reason the tracer was stopped for
+func (t *baseTracer) reset() {
+	t.reason = nil
+}
+
+// result marshals the given result or returns the reason the tracer was stopped for
+func (t *baseTracer) result(result any) (json.RawMessage, error) {
+	if t.reason != nil {
+		return nil, t.reason
+	}
+	return json.Marshal(result)
+}